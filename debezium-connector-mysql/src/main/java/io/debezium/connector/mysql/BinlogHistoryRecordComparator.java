@@ -0,0 +1,134 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.annotation.NotThreadSafe;
+import io.debezium.document.Document;
+import io.debezium.document.Value;
+import io.debezium.relational.history.HistoryRecord;
+import io.debezium.relational.history.HistoryRecordComparator;
+
+/**
+ * A {@link HistoryRecordComparator} that understands the {@link SourceInfo#partition() partition} and
+ * {@link SourceInfo#offset() offset} of the MySQL connector. The point in history is converted once into the server name, the
+ * sequence number of the binlog file, the position within that file, and the row within the event, and each recovered record is
+ * compared by reading only those fields from its source and position.
+ * <p>
+ * Binlog files are compared by the numeric extension of their names, so that the order remains correct even after the
+ * extension grows by a digit. File names without a numeric extension are compared as strings.
+ * 
+ * @author Randall Hauch
+ */
+@Immutable
+final class BinlogHistoryRecordComparator implements HistoryRecordComparator {
+
+    public static final BinlogHistoryRecordComparator INSTANCE = new BinlogHistoryRecordComparator();
+
+    private BinlogHistoryRecordComparator() {
+    }
+
+    @Override
+    public Predicate<HistoryRecord> atOrBefore(Map<String, ?> source, Map<String, ?> position) {
+        return new StopPoint(source, position);
+    }
+
+    /**
+     * Get the sequence number in the name of a binlog file, which is the numeric extension after the last '.'.
+     * 
+     * @param filename the name of the binlog file; may be null
+     * @return the sequence number, or -1 if the name has no numeric extension
+     */
+    static long sequenceNumber(String filename) {
+        if (filename == null) return -1L;
+        int start = filename.lastIndexOf('.') + 1;
+        if (start == 0 || start == filename.length()) return -1L;
+        long result = 0L;
+        for (int i = start; i != filename.length(); ++i) {
+            char c = filename.charAt(i);
+            if (c < '0' || c > '9' || result > (Long.MAX_VALUE - 9) / 10) return -1L;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static long longValue(Object value) {
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString());
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        return 0L;
+    }
+
+    private static long longValue(Document doc, String fieldName) {
+        Value value = doc.get(fieldName);
+        if (value == null || value.isNull()) return 0L;
+        return value.isNumber() ? value.asNumber().longValue() : longValue(value.asObject());
+    }
+
+    /**
+     * The typed form of the point in history. Instances remember the most recently seen binlog file name so that the sequence
+     * number is only computed once for all of the records in the same file, and so are not thread-safe.
+     */
+    @NotThreadSafe
+    private static final class StopPoint implements Predicate<HistoryRecord> {
+        private final String serverName;
+        private final String filename;
+        private final long sequence;
+        private final long position;
+        private final long row;
+        private String lastFilename;
+        private int lastFileComparison;
+
+        protected StopPoint(Map<String, ?> source, Map<String, ?> position) {
+            Object server = source.get(SourceInfo.SERVER_PARTITION_KEY);
+            this.serverName = server != null ? server.toString() : null;
+            Object file = position.get(SourceInfo.BINLOG_FILENAME_OFFSET_KEY);
+            this.filename = file != null ? file.toString() : null;
+            this.sequence = sequenceNumber(this.filename);
+            this.position = longValue(position.get(SourceInfo.BINLOG_POSITION_OFFSET_KEY));
+            this.row = longValue(position.get(SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY));
+        }
+
+        @Override
+        public boolean test(HistoryRecord record) {
+            Document source = record.source();
+            String server = source != null ? source.getString(SourceInfo.SERVER_PARTITION_KEY) : null;
+            if (serverName == null ? server != null : !serverName.equals(server)) return false;
+            Document recorded = record.position();
+            if (recorded == null) return false;
+            int diff = compareFile(recorded.getString(SourceInfo.BINLOG_FILENAME_OFFSET_KEY));
+            if (diff != 0) return diff < 0;
+            diff = Long.compare(longValue(recorded, SourceInfo.BINLOG_POSITION_OFFSET_KEY), position);
+            if (diff != 0) return diff < 0;
+            return longValue(recorded, SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY) <= row;
+        }
+
+        private int compareFile(String recordedFilename) {
+            if (recordedFilename == null) return filename == null ? 0 : -1;
+            if (recordedFilename.equals(lastFilename)) return lastFileComparison;
+            long recordedSequence = sequenceNumber(recordedFilename);
+            int diff = 0;
+            if (filename == null) {
+                diff = 1;
+            } else if (recordedSequence >= 0 && sequence >= 0) {
+                diff = Long.compare(recordedSequence, sequence);
+            } else {
+                diff = recordedFilename.compareTo(filename);
+            }
+            lastFilename = recordedFilename;
+            lastFileComparison = diff;
+            return diff;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeader;
+
+import io.debezium.annotation.GuardedBy;
+import io.debezium.annotation.ThreadSafe;
+
+/**
+ * A queue of binlog events that sits between the {@link com.github.shyiko.mysql.binlog.BinaryLogClient}'s thread and the
+ * connector task's thread. The events held in memory are bounded both by the number of events and by the estimated number of
+ * bytes of those events, where the size of each event is estimated by the size of the event in the binlog.
+ * <p>
+ * When a {@link SpillFile spill directory} is specified, events that do not fit in memory are serialized and appended to a
+ * memory-mapped spill file rather than blocking the thread that {@link #put(Event) adds} the events, so that long stalls in the
+ * consumer do not cause MySQL to drop the replication connection. Once any event is spilled, all subsequent events are also
+ * spilled until the spill file has been completely drained, so that events are always {@link #drainTo(Collection, int) removed}
+ * in the same order they were added. Spilled events are moved back into memory only while there is room for their estimated
+ * size, and are deserialized without holding the lock used to add events. Without a spill directory, adding an event blocks
+ * until there is room in memory.
+ * <p>
+ * Adding an event directly wakes any thread that is {@link #drainTo(Collection, int, long, long, TimeUnit) waiting} for events,
+ * so the consumer need not poll this queue. That consumer can also linger briefly after the first event arrives to collect a
+ * larger batch, trading a bounded amount of latency for fewer and larger batches.
+ *
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class EventQueue implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final int maxEvents;
+    private final long maxBytes;
+    @GuardedBy("lock")
+    private final Deque<Event> memory;
+    @GuardedBy("lock")
+    private final SpillFile spill;
+    @GuardedBy("lock")
+    private long memoryBytes;
+    @GuardedBy("lock")
+    private int refillingEvents; // spilled events that are being moved into memory
+    @GuardedBy("lock")
+    private long totalSpilledEvents;
+    @GuardedBy("lock")
+    private boolean spilling; // from the first spilled event until all spilled events are back in memory
+    @GuardedBy("lock")
+    private boolean closed;
+
+    /**
+     * Create a new queue.
+     *
+     * @param maxEvents the maximum number of events to hold in memory; must be positive
+     * @param maxBytes the maximum estimated number of bytes of the events held in memory, or 0 if not bounded by size
+     * @param spillDirectory the directory in which events that do not fit into memory are to be spilled; may be null if
+     *            events are never to be spilled
+     * @param name the name used as the prefix of the spill files; may not be null
+     */
+    public EventQueue(int maxEvents, long maxBytes, Path spillDirectory, String name) {
+        if (maxEvents <= 0) throw new IllegalArgumentException("The maximum number of events must be positive");
+        if (maxBytes < 0) throw new IllegalArgumentException("The maximum number of bytes may not be negative");
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+        this.memory = new ArrayDeque<>(maxEvents);
+        this.spill = spillDirectory != null ? new SpillFile(spillDirectory, name, 64 * 1024 * 1024) : null;
+    }
+
+    /**
+     * Estimate the size of the supplied event.
+     *
+     * @param event the event; may not be null
+     * @return the estimated number of bytes; always positive
+     */
+    static long estimateSize(Event event) {
+        EventHeader header = event.getHeader();
+        if (header == null) return 1;
+        return Math.max(header.getHeaderLength() + header.getDataLength(), 1);
+    }
+
+    /**
+     * Add the event to the end of this queue, blocking only if there is no room in memory and events cannot be spilled.
+     *
+     * @param event the event; may not be null
+     * @throws InterruptedException if the thread is interrupted while waiting for room in the queue
+     * @throws ConnectException if the event could not be spilled
+     */
+    public void put(Event event) throws InterruptedException {
+        long size = estimateSize(event);
+        lock.lockInterruptibly();
+        try {
+            if (spill != null) {
+                if (!spill.isEmpty() || refillingEvents > 0 || !hasRoomFor(size)) {
+                    if (!spilling) {
+                        spilling = true;
+                        logger.info("Spilling binlog events to {} since the queue is full with {} events and {} bytes in memory",
+                                    spill, memory.size(), memoryBytes);
+                    }
+                    spill.append(serialize(event), size);
+                    ++totalSpilledEvents;
+                    notEmpty.signal();
+                    return;
+                }
+            } else {
+                while (!hasRoomFor(size)) {
+                    notFull.await();
+                }
+            }
+            memory.addLast(event);
+            memoryBytes += size;
+            notEmpty.signal();
+        } catch (IOException e) {
+            throw new ConnectException("Unable to spill binlog event to " + spill, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove up to the given number of events from the front of this queue and add them to the supplied collection.
+     *
+     * @param collection the collection to which the events are to be added; may not be null
+     * @param maxElements the maximum number of events to remove
+     * @return the number of events that were removed and added to the collection
+     * @throws ConnectException if the spilled events could not be read
+     */
+    public int drainTo(Collection<? super Event> collection, int maxElements) {
+        drainLock.lock();
+        try {
+            List<byte[]> spilled = new ArrayList<>();
+            int count = 0;
+            int returned = 0;
+            long reservedBytes = 0L;
+            lock.lock();
+            try {
+                while (count < maxElements && !memory.isEmpty()) {
+                    Event event = memory.removeFirst();
+                    memoryBytes -= estimateSize(event);
+                    collection.add(event);
+                    ++count;
+                }
+                if (spill != null && !spill.isEmpty()) {
+                    // The events in memory are older than all spilled events, so take the spilled events that will be returned
+                    // and then those for which there is room in memory, reserving that room until they are deserialized ...
+                    try {
+                        while (!spill.isEmpty()) {
+                            if (count + returned < maxElements) {
+                                ++returned;
+                            } else {
+                                long size = spill.nextSize();
+                                if (!hasRoomFor(size)) break;
+                                memoryBytes += size;
+                                reservedBytes += size;
+                                ++refillingEvents;
+                            }
+                            spilled.add(spill.next());
+                        }
+                    } catch (IOException e) {
+                        refillingEvents -= spilled.size() - returned;
+                        memoryBytes -= reservedBytes;
+                        throw new ConnectException("Unable to read spilled binlog events from " + spill, e);
+                    }
+                }
+                if (count > 0) notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (spilled.isEmpty()) return count;
+
+            // Deserialize the spilled events without blocking the thread that adds events. Until they are added to memory, all
+            // new events continue to be spilled, and no other thread can drain events ...
+            List<Event> events = new ArrayList<>(spilled.size());
+            try {
+                for (byte[] bytes : spilled) {
+                    events.add(deserialize(bytes));
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                lock.lock();
+                try {
+                    refillingEvents -= spilled.size() - returned;
+                    memoryBytes -= reservedBytes;
+                } finally {
+                    lock.unlock();
+                }
+                throw new ConnectException("Unable to read spilled binlog events from " + spill, e);
+            }
+            for (int i = 0; i != returned; ++i) {
+                collection.add(events.get(i));
+            }
+            lock.lock();
+            try {
+                for (int i = returned; i != events.size(); ++i) {
+                    memory.addLast(events.get(i));
+                }
+                refillingEvents -= spilled.size() - returned;
+                if (spilling && spill.isEmpty() && refillingEvents == 0) {
+                    spilling = false;
+                    logger.info("Stopped spilling binlog events after reading all spilled events from disk ({} spilled in total)",
+                                totalSpilledEvents);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return count + returned;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Remove up to the given number of events from the front of this queue and add them to the supplied collection, waiting if
+     * necessary for the first event to be added. Once at least one event is available, this method waits up to the linger time
+     * for the queue to hold the maximum number of events before removing them.
+     *
+     * @param collection the collection to which the events are to be added; may not be null
+     * @param maxElements the maximum number of events to remove
+     * @param timeout the maximum time to wait for the first event
+     * @param linger the maximum time to wait for more events after the first event is available, or 0 if the events are to be
+     *            removed as soon as any are available
+     * @param unit the unit of the timeout and linger times; may not be null
+     * @return the number of events that were removed and added to the collection; 0 only if the timeout elapsed or this queue
+     *         was closed before any events were added
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ConnectException if the spilled events could not be read
+     */
+    public int drainTo(Collection<? super Event> collection, int maxElements, long timeout, long linger, TimeUnit unit)
+            throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long remaining = unit.toNanos(timeout);
+            while (isEmpty() && !closed) {
+                if (remaining <= 0L) return 0;
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            remaining = unit.toNanos(linger);
+            while (remaining > 0L && size() < maxElements && !closed) {
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Drain without holding the lock, so that spilled events are not deserialized while holding it ...
+        return drainTo(collection, maxElements);
+    }
+
+    /**
+     * Get the number of events in this queue, including those that have been spilled.
+     *
+     * @return the number of events
+     */
+    public int size() {
+        lock.lock();
+        try {
+            long size = memory.size() + refillingEvents + (spill != null ? spill.count() : 0);
+            return (int) Math.min(size, Integer.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the estimated number of bytes used by the events held in memory.
+     *
+     * @return the number of bytes
+     */
+    public long memoryBytes() {
+        lock.lock();
+        try {
+            return memoryBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of events currently in the spill file.
+     *
+     * @return the number of spilled events
+     */
+    public long spilledEvents() {
+        lock.lock();
+        try {
+            return spill != null ? spill.count() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the total number of events that have been spilled since this queue was created, including those that have since
+     * been removed from the spill file.
+     *
+     * @return the total number of spilled events
+     */
+    public long totalSpilledEvents() {
+        lock.lock();
+        try {
+            return totalSpilledEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of bytes currently used in the spill file.
+     *
+     * @return the number of spilled bytes
+     */
+    public long spilledBytes() {
+        lock.lock();
+        try {
+            return spill != null ? spill.bytes() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discard all events and remove any spill files.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            memory.clear();
+            memoryBytes = 0;
+            if (spill != null) spill.close();
+        } catch (IOException e) {
+            logger.warn("Unable to remove spill files for binlog events: {}", spill, e);
+        } finally {
+            notFull.signalAll();
+            notEmpty.signalAll();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "EventQueue (" + memory.size() + " events with " + memoryBytes + " bytes in memory, " + spilledEvents()
+                    + " events with " + spilledBytes() + " bytes spilled)";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        return memory.isEmpty() && refillingEvents == 0 && (spill == null || spill.isEmpty());
+    }
+
+    private boolean hasRoomFor(long size) {
+        if (memory.isEmpty() && refillingEvents == 0) return true; // always allow at least one event, regardless of size
+        if (memory.size() + refillingEvents >= maxEvents) return false;
+        return maxBytes == 0 || memoryBytes + size <= maxBytes;
+    }
+
+    private static byte[] serialize(Event event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(event);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Event deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Event) stream.readObject();
+        }
+    }
+}
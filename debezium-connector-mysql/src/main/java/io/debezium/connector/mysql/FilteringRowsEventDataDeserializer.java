@@ -0,0 +1,229 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.deserialization.DeleteRowsEventDataDeserializer;
+import com.github.shyiko.mysql.binlog.event.deserialization.EventDataDeserializer;
+import com.github.shyiko.mysql.binlog.event.deserialization.EventDeserializer;
+import com.github.shyiko.mysql.binlog.event.deserialization.TableMapEventDataDeserializer;
+import com.github.shyiko.mysql.binlog.event.deserialization.UpdateRowsEventDataDeserializer;
+import com.github.shyiko.mysql.binlog.event.deserialization.WriteRowsEventDataDeserializer;
+import com.github.shyiko.mysql.binlog.io.ByteArrayInputStream;
+
+import io.debezium.annotation.NotThreadSafe;
+import io.debezium.relational.TableId;
+
+/**
+ * An {@link EventDataDeserializer} for WRITE, UPDATE, and DELETE rows events that skips the rows of tables that are excluded by
+ * the table filter, rather than deserializing all of the rows only for them to be discarded by the {@link TableConverters}.
+ * <p>
+ * The table numbers used in rows events are learned from the TABLE_MAP events that precede them, and for each table number that
+ * the filter excludes this deserializer skips the event's row payload and instead returns event data with the table number and
+ * no rows. Events for all other tables are deserialized normally.
+ * <p>
+ * Use {@link #register(EventDeserializer, Predicate)} to install these deserializers. Deserializers are only ever called on
+ * the {@link com.github.shyiko.mysql.binlog.BinaryLogClient}'s thread.
+ *
+ * @author Randall Hauch
+ * @param <T> the type of event data
+ */
+@NotThreadSafe
+final class FilteringRowsEventDataDeserializer<T extends EventData> implements EventDataDeserializer<T> {
+
+    private static final int TABLE_NUMBER_SIZE = 6;
+
+    /**
+     * Install on the supplied {@link EventDeserializer} the deserializers for TABLE_MAP events and the extended WRITE, UPDATE,
+     * and DELETE rows events, such that rows events for tables excluded by the filter are not deserialized.
+     *
+     * @param eventDeserializer the event deserializer; may not be null
+     * @param tableFilter the filter that determines which tables are included; may not be null
+     * @return the object tracking the table numbers, which can be used to obtain the number of skipped events; never null
+     */
+    public static TableNumbers register(EventDeserializer eventDeserializer, Predicate<TableId> tableFilter) {
+        TableNumbers tableNumbers = new TableNumbers(tableFilter);
+        eventDeserializer.setEventDataDeserializer(EventType.TABLE_MAP, tableNumbers);
+
+        WriteRowsEventDataDeserializer writes = new WriteRowsEventDataDeserializer(tableNumbers.tableMapEventByTableId());
+        writes.setMayContainExtraInformation(true);
+        eventDeserializer.setEventDataDeserializer(EventType.EXT_WRITE_ROWS,
+                                                   new FilteringRowsEventDataDeserializer<WriteRowsEventData>(tableNumbers, writes, () -> {
+                                                       WriteRowsEventData data = new WriteRowsEventData();
+                                                       data.setIncludedColumns(new BitSet());
+                                                       data.setRows(Collections.emptyList());
+                                                       return data;
+                                                   }, WriteRowsEventData::setTableId));
+
+        UpdateRowsEventDataDeserializer updates = new UpdateRowsEventDataDeserializer(tableNumbers.tableMapEventByTableId());
+        updates.setMayContainExtraInformation(true);
+        eventDeserializer.setEventDataDeserializer(EventType.EXT_UPDATE_ROWS,
+                                                   new FilteringRowsEventDataDeserializer<UpdateRowsEventData>(tableNumbers, updates, () -> {
+                                                       UpdateRowsEventData data = new UpdateRowsEventData();
+                                                       data.setIncludedColumns(new BitSet());
+                                                       data.setIncludedColumnsBeforeUpdate(new BitSet());
+                                                       data.setRows(Collections.emptyList());
+                                                       return data;
+                                                   }, UpdateRowsEventData::setTableId));
+
+        DeleteRowsEventDataDeserializer deletes = new DeleteRowsEventDataDeserializer(tableNumbers.tableMapEventByTableId());
+        deletes.setMayContainExtraInformation(true);
+        eventDeserializer.setEventDataDeserializer(EventType.EXT_DELETE_ROWS,
+                                                   new FilteringRowsEventDataDeserializer<DeleteRowsEventData>(tableNumbers, deletes, () -> {
+                                                       DeleteRowsEventData data = new DeleteRowsEventData();
+                                                       data.setIncludedColumns(new BitSet());
+                                                       data.setRows(Collections.emptyList());
+                                                       return data;
+                                                   }, DeleteRowsEventData::setTableId));
+        return tableNumbers;
+    }
+
+    @FunctionalInterface
+    protected static interface TableNumberSetter<T> {
+        void set(T data, long tableNumber);
+    }
+
+    private final TableNumbers tableNumbers;
+    private final EventDataDeserializer<T> delegate;
+    private final Supplier<T> emptyData;
+    private final TableNumberSetter<T> tableNumberSetter;
+
+    protected FilteringRowsEventDataDeserializer(TableNumbers tableNumbers, EventDataDeserializer<T> delegate,
+            Supplier<T> emptyData, TableNumberSetter<T> tableNumberSetter) {
+        this.tableNumbers = tableNumbers;
+        this.delegate = delegate;
+        this.emptyData = emptyData;
+        this.tableNumberSetter = tableNumberSetter;
+    }
+
+    @Override
+    public T deserialize(ByteArrayInputStream inputStream) throws IOException {
+        // The table number is always the first part of the rows event's data ...
+        long tableNumber = inputStream.readLong(TABLE_NUMBER_SIZE);
+        if (tableNumbers.isExcluded(tableNumber)) {
+            // The input stream is limited to the event's data, so skip all of the remaining bytes with the rows ...
+            inputStream.skip(inputStream.available());
+            tableNumbers.skipped();
+            T data = emptyData.get();
+            tableNumberSetter.set(data, tableNumber);
+            return data;
+        }
+        // Otherwise, deserialize the event's data normally by replaying the table number before the rest of the stream ...
+        return delegate.deserialize(new ByteArrayInputStream(new TableNumberReplayingInputStream(tableNumber, inputStream)));
+    }
+
+    /**
+     * An input stream that returns the bytes of a table number that was already read from a rows event's data, followed by the
+     * rest of that data, without copying it.
+     */
+    private static final class TableNumberReplayingInputStream extends InputStream {
+        private final long tableNumber;
+        private final InputStream rest;
+        private int position;
+
+        protected TableNumberReplayingInputStream(long tableNumber, InputStream rest) {
+            this.tableNumber = tableNumber;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < TABLE_NUMBER_SIZE) {
+                return (int) (tableNumber >>> (8 * position++)) & 0xff;
+            }
+            return rest.read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            int count = 0;
+            while (position < TABLE_NUMBER_SIZE && count < length) {
+                bytes[offset + count++] = (byte) read();
+            }
+            if (count == length) return count;
+            int read = rest.read(bytes, offset + count, length - count);
+            return read < 0 ? (count > 0 ? count : -1) : count + read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return TABLE_NUMBER_SIZE - position + rest.available();
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (position < TABLE_NUMBER_SIZE && skipped < n) {
+                ++position;
+                ++skipped;
+            }
+            return skipped + (skipped < n ? rest.skip(n - skipped) : 0);
+        }
+    }
+
+    /**
+     * The deserializer for TABLE_MAP events that records which table numbers are excluded by the table filter.
+     */
+    @NotThreadSafe
+    static final class TableNumbers implements EventDataDeserializer<TableMapEventData> {
+        private final TableMapEventDataDeserializer delegate = new TableMapEventDataDeserializer();
+        private final Map<Long, TableMapEventData> tableMapEventByTableId = new HashMap<>();
+        private final Map<Long, Boolean> excludedByTableNumber = new HashMap<>();
+        private final Predicate<TableId> tableFilter;
+        private volatile long skippedEvents;
+
+        protected TableNumbers(Predicate<TableId> tableFilter) {
+            this.tableFilter = tableFilter;
+        }
+
+        @Override
+        public TableMapEventData deserialize(ByteArrayInputStream inputStream) throws IOException {
+            TableMapEventData data = delegate.deserialize(inputStream);
+            long tableNumber = data.getTableId();
+            tableMapEventByTableId.put(tableNumber, data);
+            TableId tableId = new TableId(data.getDatabase(), null, data.getTable());
+            excludedByTableNumber.put(tableNumber, !tableFilter.test(tableId));
+            return data;
+        }
+
+        protected Map<Long, TableMapEventData> tableMapEventByTableId() {
+            return tableMapEventByTableId;
+        }
+
+        protected boolean isExcluded(long tableNumber) {
+            // Any table number that we've not seen is included, so the TableConverters can handle it ...
+            return excludedByTableNumber.getOrDefault(tableNumber, Boolean.FALSE).booleanValue();
+        }
+
+        protected void skipped() {
+            ++skippedEvents;
+        }
+
+        /**
+         * Get the number of rows events whose rows were not deserialized because their table was excluded.
+         *
+         * @return the number of skipped events
+         */
+        public long skippedEvents() {
+            return skippedEvents;
+        }
+    }
+}
@@ -67,16 +67,66 @@ public class MySqlConnectorConfig {
                                                     .withDefault(2048)
                                                     .withValidation(MySqlConnectorConfig::validateMaxQueueSize);
 
+    public static final Field MAX_QUEUE_SIZE_BYTES = Field.create("max.queue.size.bytes")
+                                                          .withDescription("Maximum estimated number of bytes of the change events read from the database log but not yet recorded or forwarded, "
+                                                                  + "where each event's size is estimated by its size in the binlog. "
+                                                                  + "Defaults to 0, meaning the queue is bounded only by '" + MAX_QUEUE_SIZE + "'.")
+                                                          .withDefault(0L)
+                                                          .withValidation(Field::isNonNegativeLong);
+
+    public static final Field QUEUE_SPILL_DIRECTORY = Field.create("queue.spill.directory")
+                                                           .withDescription("The path to a directory in which change events are to be temporarily written when they are read "
+                                                                   + "from the database log faster than they can be processed and do not fit in the queue. "
+                                                                   + "Spilling these events to disk avoids blocking the reading of the log, which might otherwise "
+                                                                   + "cause MySQL to drop the replication connection. By default no directory is used, and reading "
+                                                                   + "the log blocks until there is room in the queue.");
+
     public static final Field MAX_BATCH_SIZE = Field.create("max.batch.size")
                                                     .withDescription("Maximum size of each batch of source records. Defaults to 1024.")
                                                     .withDefault(1024)
                                                     .withValidation(Field::isPositiveInteger);
 
     public static final Field POLL_INTERVAL_MS = Field.create("poll.interval.ms")
-                                                      .withDescription("Frequency in milliseconds to wait for new change events to appear after receiving no events. Defaults to 1 second (1000 ms).")
+                                                      .withDescription("Maximum time in milliseconds to wait for new change events to appear before checking whether "
+                                                              + "the connector is to stop. New events are processed as soon as they appear. Defaults to 1 second (1000 ms).")
                                                       .withDefault(TimeUnit.SECONDS.toMillis(1))
                                                       .withValidation(Field::isPositiveInteger);
 
+    public static final Field POLL_LINGER_MS = Field.create("poll.linger.ms")
+                                                    .withDescription("Time in milliseconds to wait for more change events to appear after the first event appears, "
+                                                            + "so that more events are processed in each batch. Larger values produce larger batches at the cost "
+                                                            + "of up to this much additional latency. Defaults to 0, which processes events as soon as they appear.")
+                                                    .withDefault(0)
+                                                    .withValidation(Field::isNonNegativeInteger);
+
+    public static final Field CONVERSION_THREADS = Field.create("conversion.threads")
+                                                        .withDescription("Number of threads used to convert the rows in binlog events into change events. "
+                                                                + "When larger than 1, rows are converted concurrently but records are still produced in binlog order. "
+                                                                + "Defaults to 1, which converts all events on the connector's task thread.")
+                                                        .withDefault(1)
+                                                        .withValidation(Field::isPositiveInteger);
+
+    public static final Field SPECIALIZED_CONVERTER_TABLES = Field.create("converters.specialized.tables")
+                                                                  .withDescription("A comma-separated list of regular expressions that match the fully-qualified names of tables "
+                                                                          + "whose rows are to be converted with specialized converters compiled for each table. "
+                                                                          + "Specialized converters are faster for tables with high volumes of changes, but take longer to create. "
+                                                                          + "By default, generic converters are used for all tables.");
+
+    public static final Field PRELOADED_CONVERTER_TABLES = Field.create("converters.preloaded.tables")
+                                                                .withDescription("A comma-separated list of regular expressions that match the fully-qualified names of tables "
+                                                                        + "whose schemas are to be created concurrently when the connector restarts, rather than when the first "
+                                                                        + "change to each table is read. This can reduce the latency of the first changes to frequently-changed "
+                                                                        + "tables. By default, the schemas of all tables are created only when needed.");
+
+    public static final Field PARTIAL_ROW_IMAGES = Field.create("binlog.partial.row.images")
+                                                        .withDescription("Whether the MySQL server may write row images that include only some of the table's columns, "
+                                                                + "as it does when 'binlog_row_image' is set to 'MINIMAL' or 'NOBLOB'. When 'true', the non-key columns "
+                                                                + "of all tables are optional and each change event lists in its 'before_absent' and 'after_absent' fields "
+                                                                + "the columns whose values were not in the binlog event. The default is 'false', which assumes that "
+                                                                + "the server uses 'binlog_row_image=FULL'.")
+                                                        .withDefault(false)
+                                                        .withValidation(Field::isBoolean);
+
     public static final Field DATABASE_HISTORY = Field.create("database.history")
                                                       .withDescription("The name of the DatabaseHistory class that should be used to store and recover database schema changes. "
                                                               + "The configuration properties for the history are prefixed with the '"
@@ -91,6 +141,34 @@ public class MySqlConnectorConfig {
                                                             .withDefault(false)
                                                             .withValidation(Field::isBoolean);
 
+    public static final Field INCLUDE_NON_SCHEMA_STATEMENTS = Field.create("include.non.schema.statements")
+                                                                   .withDescription("Whether the connector should record in the database history, and publish as schema changes "
+                                                                           + "when '" + INCLUDE_SCHEMA_CHANGES.name() + "' is 'true', the statements in QUERY events that "
+                                                                           + "cannot change the structure of any table, such as DML statements written with statement-based "
+                                                                           + "replication, SAVEPOINT, GRANT, and SET. Such statements are never parsed. The default is 'true'; "
+                                                                           + "setting this to 'false' can greatly reduce the size of the database history.")
+                                                                   .withDefault(true)
+                                                                   .withValidation(Field::isBoolean);
+
+    public static final Field DDL_PARSE_CACHE_SIZE = Field.create("ddl.parse.cache.size")
+                                                          .withDescription("The maximum number of distinct DDL statements whose effects on the table definitions are cached, "
+                                                                  + "so that statements that are repeated (e.g., 'CREATE TABLE IF NOT EXISTS' statements issued upon each "
+                                                                  + "application startup, or the same 'ALTER TABLE' statement applied to many databases) are not parsed "
+                                                                  + "again. Cached effects are reused only when the tables the statement depends upon are unchanged. "
+                                                                  + "The default is 0, which disables the cache.")
+                                                          .withDefault(0)
+                                                          .withValidation(Field::isNonNegativeInteger);
+
+    public static final Field DDL_SKIM_EXCLUDED_TABLES = Field.create("ddl.skim.excluded.tables")
+                                                              .withDescription("Whether the connector should only record the names of the tables that are excluded by the "
+                                                                      + "table and database filters, rather than parse and keep their complete definitions. This makes "
+                                                                      + "processing DDL statements and recovering the database history much cheaper when most tables are "
+                                                                      + "excluded. However, renaming an excluded table to become included, as online schema change tools "
+                                                                      + "like gh-ost and pt-online-schema-change do, causes an error, and a table that is included after the "
+                                                                      + "filters are changed will have no columns until it is next defined. The default is 'false'.")
+                                                              .withDefault(false)
+                                                              .withValidation(Field::isBoolean);
+
     public static final Field TABLE_BLACKLIST = Field.create("table.blacklist")
                                                      .withValidation(MySqlConnectorConfig::validateTableBlacklist)
                                                      .withDescription("A comma-separated list of regular expressions that match the fully-qualified names of tables to be excluded from monitoring. "
@@ -159,8 +237,12 @@ public static final Field MASK_COLUMN(int length) {
     public static Collection<Field> ALL_FIELDS = Collect.arrayListOf(USER, PASSWORD, HOSTNAME, PORT, SERVER_ID,
                                                                      SERVER_NAME, INITIAL_BINLOG_FILENAME,
                                                                      CONNECTION_TIMEOUT_MS, KEEP_ALIVE,
-                                                                     MAX_QUEUE_SIZE, MAX_BATCH_SIZE, POLL_INTERVAL_MS,
-                                                                     DATABASE_HISTORY, INCLUDE_SCHEMA_CHANGES,
+                                                                     MAX_QUEUE_SIZE, MAX_QUEUE_SIZE_BYTES, QUEUE_SPILL_DIRECTORY,
+                                                                     MAX_BATCH_SIZE, POLL_INTERVAL_MS, POLL_LINGER_MS,
+                                                                     CONVERSION_THREADS, SPECIALIZED_CONVERTER_TABLES, PRELOADED_CONVERTER_TABLES,
+                                                                     PARTIAL_ROW_IMAGES,
+                                                                     DATABASE_HISTORY, INCLUDE_SCHEMA_CHANGES, INCLUDE_NON_SCHEMA_STATEMENTS,
+                                                                     DDL_PARSE_CACHE_SIZE, DDL_SKIM_EXCLUDED_TABLES,
                                                                      TABLE_WHITELIST, TABLE_BLACKLIST, TABLES_IGNORE_BUILTIN,
                                                                      DATABASE_WHITELIST, DATABASE_BLACKLIST,
                                                                      COLUMN_BLACKLIST);
@@ -6,6 +6,9 @@
 package io.debezium.connector.mysql;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.EnumMap;
@@ -13,13 +16,12 @@
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
@@ -49,7 +51,6 @@
 import io.debezium.relational.mapping.ColumnMappers;
 import io.debezium.util.Clock;
 import io.debezium.util.Collect;
-import io.debezium.util.Metronome;
 
 /**
  * A Kafka Connect source task reads the MySQL binary log and generate the corresponding data change events.
@@ -82,11 +83,14 @@ public final class MySqlConnectorTask extends SourceTask {
     private Tables tables;
     private TableConverters tableConverters;
     private BinaryLogClient client;
-    private BlockingQueue<Event> events;
+    private EventQueue events;
     private Queue<Event> batchEvents;
     private int maxBatchSize;
     private String serverName;
-    private Metronome metronome;
+    private long pollIntervalMs;
+    private long pollLingerMs;
+    private RowConversionPipeline pipeline;
+    private FilteringRowsEventDataDeserializer.TableNumbers tableNumbers;
     private final Clock clock = Clock.system();
     private final AtomicBoolean running = new AtomicBoolean(false);
 
@@ -142,11 +146,17 @@ public void start(Map<String, String> props) {
         serverName = config.getString(MySqlConnectorConfig.SERVER_NAME.name(), host + ":" + port);
         final boolean keepAlive = config.getBoolean(MySqlConnectorConfig.KEEP_ALIVE);
         final int maxQueueSize = config.getInteger(MySqlConnectorConfig.MAX_QUEUE_SIZE);
+        final long maxQueueSizeInBytes = config.getLong(MySqlConnectorConfig.MAX_QUEUE_SIZE_BYTES);
+        final String spillDirectory = config.getString(MySqlConnectorConfig.QUEUE_SPILL_DIRECTORY);
         final long timeoutInMilliseconds = config.getLong(MySqlConnectorConfig.CONNECTION_TIMEOUT_MS);
         final boolean includeSchemaChanges = config.getBoolean(MySqlConnectorConfig.INCLUDE_SCHEMA_CHANGES);
-        final long pollIntervalMs = config.getLong(MySqlConnectorConfig.POLL_INTERVAL_MS);
+        final boolean includeNonSchemaStatements = config.getBoolean(MySqlConnectorConfig.INCLUDE_NON_SCHEMA_STATEMENTS);
+        final int ddlParseCacheSize = config.getInteger(MySqlConnectorConfig.DDL_PARSE_CACHE_SIZE);
+        final boolean skimExcludedTables = config.getBoolean(MySqlConnectorConfig.DDL_SKIM_EXCLUDED_TABLES);
+        pollIntervalMs = config.getLong(MySqlConnectorConfig.POLL_INTERVAL_MS);
+        pollLingerMs = config.getLong(MySqlConnectorConfig.POLL_LINGER_MS);
+        final int conversionThreads = config.getInteger(MySqlConnectorConfig.CONVERSION_THREADS);
         maxBatchSize = config.getInteger(MySqlConnectorConfig.MAX_BATCH_SIZE);
-        metronome = Metronome.parker(pollIntervalMs, TimeUnit.MILLISECONDS, Clock.SYSTEM);
 
         // Define the filter used for database names ...
         Predicate<String> dbFilter = Selectors.databaseSelector()
@@ -177,20 +187,49 @@ public void start(Map<String, String> props) {
         config.forEachMatchingFieldNameWithInteger("column\\.mask\\.with\\.(\\d+)\\.chars", columnMapperBuilder::maskStrings);
         ColumnMappers columnMappers = columnMapperBuilder.build();
 
+        // Define the tables whose rows are converted with specialized converters ...
+        String specializedTableNames = config.getString(MySqlConnectorConfig.SPECIALIZED_CONVERTER_TABLES);
+        Predicate<TableId> specializedTables = null;
+        if (specializedTableNames != null) {
+            specializedTables = Selectors.tableSelector().includeTables(specializedTableNames).build();
+        }
+
+        // Define the tables whose schemas are created when recovering, and whether rows may be partial ...
+        String preloadedTableNames = config.getString(MySqlConnectorConfig.PRELOADED_CONVERTER_TABLES);
+        Predicate<TableId> preloadedTables = null;
+        if (preloadedTableNames != null) {
+            preloadedTables = Selectors.tableSelector().includeTables(preloadedTableNames).build();
+        }
+        boolean partialRowImages = config.getBoolean(MySqlConnectorConfig.PARTIAL_ROW_IMAGES);
+
         // Create the queue ...
-        events = new LinkedBlockingDeque<>(maxQueueSize);
+        Path spillPath = null;
+        if (spillDirectory != null) {
+            spillPath = Paths.get(spillDirectory);
+            try {
+                Files.createDirectories(spillPath);
+            } catch (IOException e) {
+                throw new ConnectException("Unable to create the directory for spilled events: " + spillPath, e);
+            }
+        }
+        events = new EventQueue(maxQueueSize, maxQueueSizeInBytes, spillPath, "debezium-" + serverName.replaceAll("[^\\w.-]", "_"));
         batchEvents = new ArrayDeque<>(maxBatchSize);
 
         // Set up our handlers for specific kinds of events ...
         tables = new Tables();
         tableConverters = new TableConverters(topicSelector, dbHistory, includeSchemaChanges, clock,
-                                              dbFilter, tables, tableFilter, columnFilter, columnMappers);
+                                              dbFilter, tables, tableFilter, columnFilter, columnMappers, specializedTables,
+                                              partialRowImages, includeNonSchemaStatements, ddlParseCacheSize,
+                                              skimExcludedTables);
         eventHandlers.put(EventType.ROTATE, tableConverters::rotateLogs);
         eventHandlers.put(EventType.TABLE_MAP, tableConverters::updateTableMetadata);
         eventHandlers.put(EventType.QUERY, tableConverters::updateTableCommand);
         eventHandlers.put(EventType.EXT_WRITE_ROWS, tableConverters::handleInsert);
         eventHandlers.put(EventType.EXT_UPDATE_ROWS, tableConverters::handleUpdate);
         eventHandlers.put(EventType.EXT_DELETE_ROWS, tableConverters::handleDelete);
+        if (conversionThreads > 1) {
+            pipeline = new RowConversionPipeline(tableConverters, conversionThreads, serverName);
+        }
 
         // Set up the log reader ...
         client = new BinaryLogClient(host, port, user, password);
@@ -203,6 +242,8 @@ public void start(Map<String, String> props) {
         // Set up the event deserializer with additional types ...
         EventDeserializer eventDeserializer = new EventDeserializer();
         eventDeserializer.setEventDataDeserializer(EventType.STOP, new StopEventDataDeserializer());
+        // Don't bother deserializing the rows of tables that we're not capturing ...
+        tableNumbers = FilteringRowsEventDataDeserializer.register(eventDeserializer, tableFilter);
         client.setEventDeserializer(eventDeserializer);
 
         // Check if we've already processed some of the log for this database ...
@@ -225,9 +266,15 @@ public void start(Map<String, String> props) {
             // of DDL. However, we should consume no further than offset we recovered above.
             try {
                 logger.info("Recovering MySQL connector '{}' database schemas from history stored in {}", serverName, dbHistory);
-                DdlParser ddlParser = new MySqlDdlParser();
-                dbHistory.recover(source.partition(), source.offset(), tables, ddlParser);
-                tableConverters.loadTables();
+                Predicate<TableId> skimFilter = skimExcludedTables ? tableFilter : null;
+                Supplier<DdlParser> ddlParsers = () -> {
+                    DdlParser ddlParser = new MySqlDdlParser();
+                    ddlParser.setParseCacheSize(ddlParseCacheSize);
+                    ddlParser.setTableFilter(skimFilter);
+                    return ddlParser;
+                };
+                dbHistory.recover(source.partition(), source.offset(), tables, ddlParsers, BinlogHistoryRecordComparator.INSTANCE);
+                tableConverters.loadTables(preloadedTables);
                 logger.debug("Recovered MySQL connector '{}' database schemas: {}", serverName, tables.subset(tableFilter));
             } catch (Throwable t) {
                 throw new ConnectException("Failure while recovering database schemas", t);
@@ -260,11 +307,15 @@ public void start(Map<String, String> props) {
     @Override
     public List<SourceRecord> poll() throws InterruptedException {
         logger.trace("Polling for events from MySQL server '{}'", serverName);
-        while (running.get() && (events.drainTo(batchEvents, maxBatchSize - batchEvents.size()) == 0 || batchEvents.isEmpty())) {
-            // No events to process, so sleep for a bit ...
-            metronome.pause();
+        while (running.get() && batchEvents.isEmpty()) {
+            // Wait until the binlog reader adds events, lingering a bit to collect more, but periodically check whether to stop ...
+            events.drainTo(batchEvents, maxBatchSize, pollIntervalMs, pollLingerMs, TimeUnit.MILLISECONDS);
         }
         logger.trace("Preparing {} events from MySQL server '{}'", events.size(), serverName);
+        if (logger.isDebugEnabled() && events.spilledEvents() > 0) {
+            logger.debug("Queue for MySQL server '{}' has {} bytes in memory and {} events with {} bytes spilled to disk",
+                         serverName, events.memoryBytes(), events.spilledEvents(), events.spilledBytes());
+        }
 
         // We have at least some records to process ...
         List<SourceRecord> records = new ArrayList<>(batchEvents.size());
@@ -301,10 +352,17 @@ public List<SourceRecord> poll() throws InterruptedException {
 
             // If there is a handler for this event, forward the event to it ...
             EventHandler handler = eventHandlers.get(eventType);
-            if (handler != null) {
+            if (pipeline != null) {
+                // The pipeline will convert row events concurrently, and handle all other events immediately ...
+                pipeline.submit(event, source, handler);
+            } else if (handler != null) {
                 handler.handle(event, source, records::add);
             }
         }
+        if (pipeline != null) {
+            // Wait for all of the events to be converted, and collect the records in the order of the events ...
+            records.addAll(pipeline.complete());
+        }
         logger.trace("Completed processing {} events from MySQL server '{}'", serverName);
 
         if (!this.running.get()) {
@@ -313,6 +371,9 @@ public List<SourceRecord> poll() throws InterruptedException {
             return null;
         }
 
+        // Make sure the history has all of the schema changes before Connect can commit the offsets of these records ...
+        dbHistory.flush();
+
         // We've processed them all, so clear the batch and return the records ...
         assert batchEvents.isEmpty();
         return records;
@@ -325,6 +386,9 @@ public void stop() {
             // Signal to the 'poll()' method that it should stop what its doing ...
             this.running.set(false);
 
+            // Stop converting events ...
+            if (pipeline != null) pipeline.shutdown();
+
             // Flush and stop the database history ...
             logger.debug("Stopping database history for MySQL server '{}'", serverName);
             dbHistory.stop();
@@ -333,8 +397,24 @@ public void stop() {
         } finally {
             try {
                 logger.debug("Disconnecting from MySQL server '{}'", serverName);
-                client.disconnect();
-                logger.info("Stopped connector to MySQL server '{}'", serverName);
+                if (client != null) client.disconnect();
+                if (events != null) {
+                    events.close();
+                    if (events.totalSpilledEvents() > 0) {
+                        logger.info("Spilled {} binlog events from MySQL server '{}' to disk since the queue in memory was full",
+                                    events.totalSpilledEvents(), serverName);
+                    }
+                }
+                if (tableNumbers != null) {
+                    logger.info("Stopped connector to MySQL server '{}' after skipping the rows of {} events for excluded tables",
+                                serverName, tableNumbers.skippedEvents());
+                } else {
+                    logger.info("Stopped connector to MySQL server '{}'", serverName);
+                }
+                if (tableConverters != null) {
+                    logger.info("Reused table converters {} times and created them {} times", tableConverters.converterCacheHits(),
+                                tableConverters.converterCacheMisses());
+                }
             } catch (IOException e) {
                 logger.error("Unexpected error when disconnecting from the MySQL binary log reader", e);
             }
@@ -8,6 +8,7 @@
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -198,6 +199,16 @@ protected void parseCreateTable(Marker start) {
         tokens.consume("TABLE");
         boolean onlyIfNotExists = tokens.canConsume("IF", "NOT", "EXISTS");
         TableId tableId = parseQualifiedTableName(start);
+        if (isSkimmed(tableId)) {
+            // We only need to know that the table exists ...
+            if (!onlyIfNotExists || databaseTables.forTable(tableId) == null) {
+                databaseTables.overwriteTable(tableId, Collections.emptyList(), Collections.emptyList());
+            }
+            skimRemainingStatement(start);
+            signalCreateTable(tableId, start);
+            debugSkipped(start);
+            return;
+        }
         if ( tokens.canConsume("LIKE")) {
             TableId originalId = parseQualifiedTableName(start);
             Table original = databaseTables.forTable(originalId);
@@ -748,7 +759,7 @@ protected void parseCreateIndex(Marker start) {
             tableId = parseQualifiedTableName(start);
         }
         
-        if ( unique && tableId != null ) {
+        if ( unique && tableId != null && !isSkimmed(tableId) ) {
             // This is a unique index, and we can mark the index's columns as the primary key iff there is not already
             // a primary key on the table. (Should a PK be created later via an alter, then it will overwrite this.)
             TableEditor table = databaseTables.editTable(tableId);
@@ -787,8 +798,22 @@ protected void parseAlterTable(Marker start) {
         tokens.canConsume("IGNORE");
         tokens.consume("TABLE");
         TableId tableId = parseQualifiedTableName(start);
-        TableEditor table = databaseTables.editTable(tableId);
         TableId oldTableId = null;
+        if (isSkimmed(tableId)) {
+            // We only need to know whether the table was renamed ...
+            TableId newTableId = skimAlterSpecifications(start);
+            if (newTableId != null) {
+                checkRenameOfSkimmedTable(tableId, newTableId, start);
+                Table renamed = databaseTables.renameTable(tableId, newTableId);
+                if (renamed != null) {
+                    oldTableId = tableId;
+                    tableId = renamed.id();
+                }
+            }
+            signalAlterTable(tableId, oldTableId, start);
+            return;
+        }
+        TableEditor table = databaseTables.editTable(tableId);
         if (table != null) {
             AtomicReference<TableId> newTableName = new AtomicReference<>(null);
             if (!tokens.matches(terminator()) && !tokens.matches("PARTITION")) {
@@ -813,6 +838,63 @@ protected void parseAlterTable(Marker start) {
         signalAlterTable(tableId, oldTableId, start);
     }
 
+    /**
+     * Skip the alter specifications of an {@code ALTER TABLE} statement for a {@link #isSkimmed(TableId) skimmed} table, looking
+     * only for a specification that renames the table.
+     * 
+     * @param start the start of the statement
+     * @return the new identifier of the table, or null if the statement does not rename the table
+     */
+    protected TableId skimAlterSpecifications(Marker start) {
+        TableId newTableId = null;
+        boolean specificationStart = true;
+        int depth = 0;
+        while (tokens.hasNext() && !(depth == 0 && tokens.matches(DdlTokenizer.STATEMENT_TERMINATOR))) {
+            if (specificationStart && depth == 0 && tokens.canConsume("RENAME")) {
+                if (tokens.canConsumeAnyOf("INDEX", "KEY")) {
+                    tokens.consume(); // old
+                    tokens.consume("TO");
+                    tokens.consume(); // new
+                } else {
+                    tokens.canConsumeAnyOf("AS", "TO");
+                    newTableId = parseQualifiedTableName(start);
+                }
+            } else if (tokens.canConsume('(')) {
+                ++depth;
+            } else if (tokens.canConsume(')')) {
+                --depth;
+            } else if (depth == 0 && tokens.canConsume(',')) {
+                specificationStart = true;
+                continue;
+            } else {
+                tokens.consume();
+            }
+            specificationStart = false;
+        }
+        return newTableId;
+    }
+
+    /**
+     * Skip the remainder of a statement that defines a {@link #isSkimmed(TableId) skimmed} table, through the end-of-statement
+     * terminator that is not nested within parentheses. Unlike {@link #consumeRemainingStatement(Marker)}, this does not stop at
+     * keywords that can start statements, since words like {@code SET} commonly appear within table definitions.
+     * 
+     * @param start the start of the statement
+     */
+    protected void skimRemainingStatement(Marker start) {
+        int depth = 0;
+        while (tokens.hasNext()) {
+            if (depth == 0 && tokens.matches(DdlTokenizer.STATEMENT_TERMINATOR)) break;
+            if (tokens.canConsume('(')) {
+                ++depth;
+            } else if (tokens.canConsume(')')) {
+                --depth;
+            } else {
+                tokens.consume();
+            }
+        }
+    }
+
     protected void parseAlterSpecificationList(Marker start, TableEditor table, Consumer<TableId> newTableName) {
         parseAlterSpecification(start, table, newTableName);
         while (tokens.canConsume(',')) {
@@ -1028,12 +1110,33 @@ protected void parseRenameTable(Marker start) {
         TableId from = parseQualifiedTableName(start);
         tokens.consume("TO");
         TableId to = parseQualifiedTableName(start);
+        checkRenameOfSkimmedTable(from, to, start);
         databaseTables.renameTable(from, to);
         // Signal a separate statement for this table rename action, even though multiple renames might be
         // performed by a single DDL statement on the token stream ...
         signalAlterTable(from,to,"RENAME TABLE " + from + " TO " + to);
     }
 
+    /**
+     * Ensure that a {@link #isSkimmed(TableId) skimmed} table whose columns are unknown is not renamed to a table whose definition
+     * is needed, as happens when online schema change tools like gh-ost or pt-online-schema-change swap a shadow table for the
+     * original table. Otherwise, the renamed table would silently have no columns.
+     * 
+     * @param from the identifier of the table being renamed; may not be null
+     * @param to the new identifier of the table; may not be null
+     * @param start the start of the statement
+     * @throws ParsingException if the skimmed table's columns are unknown and the new identifier is not skimmed
+     */
+    protected void checkRenameOfSkimmedTable(TableId from, TableId to, Marker start) {
+        if (!isSkimmed(from) || isSkimmed(to)) return;
+        Table table = databaseTables.forTable(from);
+        if (table != null && table.columns().isEmpty()) {
+            parsingFailed(start.position(), "Unable to rename skimmed table '" + from + "' to '" + to
+                    + "' since its definition is unknown; set the '" + MySqlConnectorConfig.DDL_SKIM_EXCLUDED_TABLES.name()
+                    + "' option to 'false' and restart the connector with a new database history", null);
+        }
+    }
+
     protected List<String> parseColumnNameList(Marker start) {
         List<String> names = new ArrayList<>();
         tokens.consume('(');
@@ -0,0 +1,185 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.kafka.connect.errors.ConnectException;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.config.Configuration;
+import io.debezium.relational.Column;
+import io.debezium.relational.Table;
+import io.debezium.relational.history.AbstractDatabaseHistory;
+import io.debezium.relational.history.DatabaseHistory;
+import io.debezium.relational.history.HistoryCompactor;
+import io.debezium.util.Collect;
+
+/**
+ * A utility that compacts the database history of a MySQL connector, which must not be running. The original history is
+ * replayed with the {@link MySqlDdlParser}, and the compacted history contains one {@code CREATE TABLE} statement for each table
+ * that exists at the cutoff position followed by all of the original records after the cutoff position. The connector can then
+ * be reconfigured to use the compacted history.
+ * <p>
+ * The {@link #main(String[])} method compacts the histories described by two configuration files, each of which contains
+ * the same {@link MySqlConnectorConfig#DATABASE_HISTORY database.history} properties as a connector configuration.
+ * 
+ * @author Randall Hauch
+ */
+@Immutable
+public final class MySqlHistoryCompactor {
+
+    /**
+     * Compact the database history of a MySQL connector.
+     * 
+     * @param args the path of the configuration file for the original history, the path of the configuration file for the
+     *            compacted history, the logical name of the server, the name of the binlog file of the cutoff position, and the
+     *            position within that file
+     * @throws IOException if the configuration files cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            // CHECKSTYLE:OFF
+            System.err.println("Usage: " + MySqlHistoryCompactor.class.getName()
+                    + " <original-history.properties> <compacted-history.properties> <server-name> <binlog-filename> <binlog-position>");
+            // CHECKSTYLE:ON
+            System.exit(1);
+        }
+        Configuration original = Configuration.load(new File(args[0]));
+        Configuration compacted = Configuration.load(new File(args[1]));
+        Map<String, ?> cutoff = Collect.hashMapOf(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, args[3],
+                                                  SourceInfo.BINLOG_POSITION_OFFSET_KEY, Long.parseLong(args[4]));
+        int written = compact(original, compacted, args[2], cutoff);
+        // CHECKSTYLE:OFF
+        System.out.println("Wrote " + written + " records to the compacted history");
+        // CHECKSTYLE:ON
+    }
+
+    /**
+     * Compact the database history of a MySQL connector.
+     * 
+     * @param originalConfig the configuration of the original history; may not be null
+     * @param compactedConfig the configuration of the compacted history, which should not yet contain any records; may not be
+     *            null
+     * @param serverName the logical name of the MySQL server; may not be null
+     * @param cutoff the binlog {@link SourceInfo#offset() offset} at or before which the records are compacted; may not be null
+     * @return the number of records written to the compacted history
+     * @throws ConnectException if any table at the cutoff position has an {@code ENUM} or {@code SET} column, in which case no
+     *             records are written to the compacted history
+     */
+    public static int compact(Configuration originalConfig, Configuration compactedConfig, String serverName,
+                              Map<String, ?> cutoff) {
+        AbstractDatabaseHistory original = createHistory(originalConfig);
+        AbstractDatabaseHistory compacted = createHistory(compactedConfig);
+        try {
+            original.start();
+            compacted.start();
+            HistoryCompactor compactor = new HistoryCompactor(new MySqlDdlParser(), BinlogHistoryRecordComparator.INSTANCE,
+                    MySqlHistoryCompactor::createTableStatement);
+            return compactor.compact(original, compacted, Collect.hashMapOf(SourceInfo.SERVER_PARTITION_KEY, serverName), cutoff);
+        } finally {
+            try {
+                original.stop();
+            } finally {
+                compacted.stop();
+            }
+        }
+    }
+
+    private static AbstractDatabaseHistory createHistory(Configuration config) {
+        DatabaseHistory history = config.getInstance(MySqlConnectorConfig.DATABASE_HISTORY, DatabaseHistory.class);
+        if (!(history instanceof AbstractDatabaseHistory)) {
+            throw new ConnectException("Unable to compact the database history '" + config.getString(MySqlConnectorConfig.DATABASE_HISTORY)
+                    + "'; only subclasses of " + AbstractDatabaseHistory.class.getName() + " are supported");
+        }
+        history.configure(config.subset(DatabaseHistory.CONFIGURATION_FIELD_PREFIX_STRING, false));
+        return (AbstractDatabaseHistory) history;
+    }
+
+    /**
+     * Produce a {@code CREATE TABLE} statement that the {@link MySqlDdlParser} parses into the given table definition. The
+     * statement describes only what the table definition captures, so it is not necessarily equivalent to the statement that
+     * originally created the table in MySQL.
+     * 
+     * @param table the table definition; may not be null
+     * @return the DDL statement; never null
+     * @throws ConnectException if the table has an {@code ENUM} or {@code SET} column, since the table definition does not
+     *             capture the values of such columns
+     */
+    public static String createTableStatement(Table table) {
+        for (Column column : table.columns()) {
+            String baseName = baseTypeName(column);
+            if ("ENUM".equalsIgnoreCase(baseName) || "SET".equalsIgnoreCase(baseName)) {
+                throw new ConnectException("Unable to compact the definition of table '" + table.id() + "' since its "
+                        + baseName + " column '" + column.name() + "' does not capture the allowed values");
+            }
+        }
+        StringBuilder sb = new StringBuilder("CREATE TABLE ");
+        if (table.id().catalog() != null) appendIdentifier(sb, table.id().catalog()).append('.');
+        appendIdentifier(sb, table.id().table()).append(" (");
+        boolean first = true;
+        for (Column column : table.columns()) {
+            if (first) {
+                first = false;
+            } else {
+                sb.append(',');
+            }
+            sb.append(' ');
+            appendIdentifier(sb, column.name()).append(' ');
+            appendType(sb, column);
+            sb.append(column.isOptional() ? " NULL" : " NOT NULL");
+            if (column.isAutoIncremented()) {
+                // The parser marks both AUTO_INCREMENT columns and those updated automatically as auto-incremented ...
+                sb.append(column.isGenerated() ? " AUTO_INCREMENT" : " ON UPDATE CURRENT_TIMESTAMP");
+            }
+        }
+        if (!table.primaryKeyColumnNames().isEmpty()) {
+            sb.append(", PRIMARY KEY (");
+            first = true;
+            for (String pkName : table.primaryKeyColumnNames()) {
+                if (first) {
+                    first = false;
+                } else {
+                    sb.append(", ");
+                }
+                appendIdentifier(sb, pkName);
+            }
+            sb.append(')');
+        }
+        return sb.append(" )").toString();
+    }
+
+    private static void appendType(StringBuilder sb, Column column) {
+        // The length and scale always follow the first word of the type name, which may also include modifiers ...
+        String typeName = column.typeName();
+        String baseName = baseTypeName(column);
+        sb.append(baseName);
+        if (column.length() > -1) {
+            sb.append('(').append(column.length());
+            if (column.scale() > -1) sb.append(',').append(column.scale());
+            sb.append(')');
+        }
+        sb.append(typeName.substring(baseName.length()));
+    }
+
+    private static String baseTypeName(Column column) {
+        String typeName = column.typeName();
+        int firstSpace = typeName.indexOf(' ');
+        return firstSpace < 0 ? typeName : typeName.substring(0, firstSpace);
+    }
+
+    private static StringBuilder appendIdentifier(StringBuilder sb, String name) {
+        // The parser keeps the backticks (and any doubled backticks within them) of names that were quoted in the original DDL,
+        // such as reserved words, so those names are already quoted. All other names were not quoted in the original DDL, and
+        // must not be quoted here since the parser would then produce different names ...
+        return sb.append(name);
+    }
+
+    private MySqlHistoryCompactor() {
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.relational.Column;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableEditor;
+
+/**
+ * Maps the rows in binlog events onto the columns of a table, taking into account that the row images written by MySQL servers
+ * using {@code binlog_row_image=MINIMAL} or {@code binlog_row_image=NOBLOB} may include only some of the table's columns.
+ * <p>
+ * Each row in a binlog event contains only the values of the columns included in the row image, in column order, and the
+ * event's {@code includedColumns} (and for updates {@code includedColumnsBeforeUpdate}) bitset identifies those columns. This
+ * class {@link #expand(Serializable[], BitSet) expands} such sparse rows into arrays with one element per column, where the
+ * elements of absent columns are null. Because a column that is absent from the after image of an update was not changed by the
+ * update, the after image of an update is {@link #merge(Serializable[], BitSet, Serializable[], BitSet) merged} with the before
+ * image so that only columns absent from both images remain unknown. The names of those columns are
+ * {@link #absentColumns(BitSet) reported} so they can be recorded in the change event, since consumers could not otherwise
+ * distinguish an absent column from one whose value is null.
+ * 
+ * @author Randall Hauch
+ */
+@Immutable
+final class PartialRowImages {
+
+    /**
+     * The name of the envelope field that lists the names of the columns absent from the {@code before} state.
+     */
+    public static final String BEFORE_ABSENT_FIELD = "before_absent";
+
+    /**
+     * The name of the envelope field that lists the names of the columns absent from the {@code after} state.
+     */
+    public static final String AFTER_ABSENT_FIELD = "after_absent";
+
+    /**
+     * The schema of the {@link #BEFORE_ABSENT_FIELD} and {@link #AFTER_ABSENT_FIELD} envelope fields.
+     */
+    public static final Schema ABSENT_COLUMNS_SCHEMA = SchemaBuilder.array(Schema.STRING_SCHEMA).optional().build();
+
+    /**
+     * Obtain a table definition that can hold partial row images, where every column that is not part of the primary key is
+     * optional. The primary key columns are always present in the rows of inserts and deletes, and in the after image of
+     * updates once it is {@link #merge(Serializable[], BitSet, Serializable[], BitSet) merged} with the before image.
+     * 
+     * @param table the table definition; may not be null
+     * @return the table definition with all non-primary key columns optional; never null
+     */
+    public static Table withOptionalColumns(Table table) {
+        TableEditor editor = null;
+        for (Column column : table.nonPrimaryKeyColumns()) {
+            if (column.isRequired()) {
+                if (editor == null) editor = table.edit();
+                editor.addColumn(column.edit().optional(true).create());
+            }
+        }
+        return editor != null ? editor.create() : table;
+    }
+
+    private final String[] columnNames;
+
+    /**
+     * Create the mapping for the given table.
+     * 
+     * @param table the table definition; may not be null
+     */
+    public PartialRowImages(Table table) {
+        List<Column> columns = table.columns();
+        this.columnNames = new String[columns.size()];
+        for (Column column : columns) {
+            columnNames[column.position() - 1] = column.name();
+        }
+    }
+
+    /**
+     * Get the number of columns in the table.
+     * 
+     * @return the number of columns
+     */
+    public int columnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * Determine whether the row image with the given columns includes all of the table's columns.
+     * 
+     * @param includedColumns the columns included in the row image; may be null if all columns are included
+     * @return {@code true} if all columns are included, or {@code false} if any are absent
+     */
+    public boolean isComplete(BitSet includedColumns) {
+        return includedColumns == null || includedColumns.nextClearBit(0) >= columnNames.length;
+    }
+
+    /**
+     * Expand the row so that it has one element for each of the table's columns.
+     * 
+     * @param row the values of the columns included in the row image; may be null
+     * @param includedColumns the columns included in the row image; may be null if all columns are included
+     * @return the row with one element per column, where absent columns are null; null only if the row is null
+     */
+    public Serializable[] expand(Serializable[] row, BitSet includedColumns) {
+        if (row == null || isComplete(includedColumns)) return row;
+        Serializable[] result = new Serializable[columnNames.length];
+        int index = 0;
+        for (int column = includedColumns.nextSetBit(0); column >= 0 && column < result.length
+                && index < row.length; column = includedColumns.nextSetBit(column + 1)) {
+            result[column] = row[index++];
+        }
+        return result;
+    }
+
+    /**
+     * Expand the after image of an update so that it has one element for each of the table's columns, using the before image
+     * for the columns absent from the after image. Such columns were not changed by the update.
+     * 
+     * @param after the values of the columns included in the after image; may be null
+     * @param includedAfter the columns included in the after image; may be null if all columns are included
+     * @param before the values of the columns included in the before image; may be null
+     * @param includedBefore the columns included in the before image; may be null if all columns are included
+     * @return the after row with one element per column, where columns absent from both images are null; null only if the
+     *         after row is null
+     */
+    public Serializable[] merge(Serializable[] after, BitSet includedAfter, Serializable[] before, BitSet includedBefore) {
+        if (after == null || before == null || isComplete(includedAfter)) return after;
+        Serializable[] result = expand(after, includedAfter);
+        Serializable[] fullBefore = expand(before, includedBefore);
+        for (int column = includedAfter.nextClearBit(0); column < result.length; column = includedAfter.nextClearBit(column + 1)) {
+            if (includedBefore == null || includedBefore.get(column)) result[column] = fullBefore[column];
+        }
+        return result;
+    }
+
+    /**
+     * Get the names of the columns absent from a row image.
+     * 
+     * @param includedColumns the columns included in the row image; may be null if all columns are included
+     * @return the names of the absent columns; never null but possibly empty
+     */
+    public List<String> absentColumns(BitSet includedColumns) {
+        return absentColumns(includedColumns, null);
+    }
+
+    /**
+     * Get the names of the columns absent from both of the row images.
+     * 
+     * @param includedColumns the columns included in the first row image; may be null if all columns are included
+     * @param alsoIncludedColumns the columns included in the second row image; may be null if only the first row image is to
+     *            be considered
+     * @return the names of the columns absent from both images; never null but possibly empty
+     */
+    public List<String> absentColumns(BitSet includedColumns, BitSet alsoIncludedColumns) {
+        if (isComplete(includedColumns)) return Collections.emptyList();
+        List<String> absent = new ArrayList<>();
+        for (int column = includedColumns.nextClearBit(0); column < columnNames.length;
+                column = includedColumns.nextClearBit(column + 1)) {
+            if (alsoIncludedColumns == null || !alsoIncludedColumns.get(column)) absent.add(columnNames[column]);
+        }
+        return absent;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.Set;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.util.Collect;
+
+/**
+ * A cheap classifier of the SQL statements in binlog QUERY events that determines from the statement's leading keyword whether
+ * the statement might change the structure of any table. Only statements that might do so need to be tokenized and parsed by
+ * the {@link MySqlDdlParser}, which is far more expensive. On servers that use statement-based or mixed replication, most QUERY
+ * events contain DML statements, transaction control statements, and other statements that cannot change any table.
+ * <p>
+ * The classifier skips any leading whitespace and comments, except that MySQL executable comments (e.g., {@code /*!40000 ...}) are
+ * always assumed to change the schema. The MySQL server writes each statement into its own QUERY event, so only the first
+ * statement is examined.
+ * 
+ * @author Randall Hauch
+ */
+@Immutable
+final class QueryClassifier {
+
+    /**
+     * The keywords that start the statements whose definitions the {@link MySqlDdlParser} applies to the table definitions.
+     */
+    private static final Set<String> SCHEMA_KEYWORDS = Collect.unmodifiableSet("CREATE", "ALTER", "DROP", "RENAME");
+
+    /**
+     * The length of the longest keyword in {@link #SCHEMA_KEYWORDS}.
+     */
+    private static final int MAX_KEYWORD_LENGTH = 6;
+
+    /**
+     * Determine whether the supplied statement might change the structure of any tables.
+     * 
+     * @param sql the SQL statement; may be null
+     * @return {@code true} if the statement might change the table definitions and must be parsed, or {@code false} if the
+     *         statement cannot change any table definitions
+     */
+    public static boolean mayChangeSchema(String sql) {
+        if (sql == null) return false;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                ++i;
+            } else if (c == '#' || sql.startsWith("--", i)) {
+                // Skip a single-line comment ...
+                int end = sql.indexOf('\n', i);
+                if (end < 0) return false;
+                i = end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                // Executable comments contain statements that MySQL runs, so they must be parsed ...
+                if (sql.startsWith("/*!", i)) return true;
+                int end = sql.indexOf("*/", i + 2);
+                if (end < 0) return false;
+                i = end + 2;
+            } else {
+                break;
+            }
+        }
+        int start = i;
+        while (i < length && i - start <= MAX_KEYWORD_LENGTH && Character.isJavaIdentifierPart(sql.charAt(i))) {
+            ++i;
+        }
+        if (i == start || i - start > MAX_KEYWORD_LENGTH) return false;
+        return SCHEMA_KEYWORDS.contains(sql.substring(start, i).toUpperCase());
+    }
+
+    private QueryClassifier() {
+    }
+}
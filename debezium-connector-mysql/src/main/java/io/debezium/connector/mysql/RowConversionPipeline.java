@@ -0,0 +1,139 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.source.SourceRecord;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventType;
+
+import io.debezium.annotation.NotThreadSafe;
+import io.debezium.connector.mysql.MySqlConnectorTask.EventHandler;
+import io.debezium.connector.mysql.TableConverters.Converter;
+
+/**
+ * Converts a batch of binlog events into {@link SourceRecord}s, using a pool of threads to convert the rows in the WRITE,
+ * UPDATE, and DELETE row events while still producing the records in exactly the same order as the events in the log.
+ * <p>
+ * Every event is {@link #submit(Event, SourceInfo, EventHandler) submitted} in log order on the task's thread. Events other than
+ * row events (e.g., TABLE_MAP, QUERY, and ROTATE events) act as ordering barriers: they are handled immediately on the calling
+ * thread, so that each row event is bound to the {@link TableConverters.Converter converter} that was current at that point in
+ * the log before it is handed to a worker. Each row event is converted with its own copy of the {@link SourceInfo}, so the
+ * offsets of each record are identical to those produced when converting serially. The resulting records are then
+ * {@link #complete() collected} in the order in which the events were submitted.
+ *
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class RowConversionPipeline {
+
+    private final TableConverters tableConverters;
+    private final ExecutorService executor;
+    private final List<Future<List<SourceRecord>>> stages = new ArrayList<>();
+    private List<SourceRecord> inlineRecords;
+
+    /**
+     * Create a new pipeline that uses the supplied number of threads to convert rows.
+     *
+     * @param tableConverters the table converters used to handle the events; may not be null
+     * @param threads the number of conversion threads; must be positive
+     * @param serverName the logical name of the server, used to name the threads; may not be null
+     */
+    public RowConversionPipeline(TableConverters tableConverters, int threads, String serverName) {
+        if (threads <= 0) throw new IllegalArgumentException("The number of conversion threads must be positive");
+        this.tableConverters = tableConverters;
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = (runnable) -> {
+            Thread thread = new Thread(runnable, "debezium-mysql-" + serverName + "-converter-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Determine whether the supplied event type is a row event whose conversion can be done concurrently.
+     *
+     * @param eventType the type of event; may be null
+     * @return {@code true} if the event is a WRITE, UPDATE or DELETE rows event, or {@code false} otherwise
+     */
+    static boolean isRowEvent(EventType eventType) {
+        return eventType == EventType.EXT_WRITE_ROWS || eventType == EventType.EXT_UPDATE_ROWS
+                || eventType == EventType.EXT_DELETE_ROWS;
+    }
+
+    /**
+     * Submit the next event in the log. Row events are converted asynchronously, while all other events are passed to the
+     * supplied handler before this method returns.
+     *
+     * @param event the event; may not be null
+     * @param source the source information positioned at the supplied event; may not be null
+     * @param handler the handler for the event; may be null if there is no handler for the event's type
+     */
+    public void submit(Event event, SourceInfo source, EventHandler handler) {
+        if (isRowEvent(event.getHeader().getEventType())) {
+            Converter converter = tableConverters.converterFor(event);
+            if (converter == null) return; // no records will be generated
+            SourceInfo eventSource = source.copy();
+            stages.add(executor.submit(() -> {
+                List<SourceRecord> records = new ArrayList<>();
+                tableConverters.convertRows(converter, event, eventSource, records::add);
+                return records;
+            }));
+            inlineRecords = null;
+        } else if (handler != null) {
+            if (inlineRecords == null) {
+                List<SourceRecord> records = new ArrayList<>();
+                stages.add(CompletableFuture.completedFuture(records));
+                inlineRecords = records;
+            }
+            Consumer<SourceRecord> recorder = inlineRecords::add;
+            handler.handle(event, source, recorder);
+        }
+    }
+
+    /**
+     * Wait for all submitted events to be converted, and return all of the records in the order their events were submitted.
+     *
+     * @return the records; never null
+     * @throws InterruptedException if the thread is interrupted while waiting for the conversions to complete
+     */
+    public List<SourceRecord> complete() throws InterruptedException {
+        try {
+            List<SourceRecord> results = new ArrayList<>();
+            for (Future<List<SourceRecord>> stage : stages) {
+                results.addAll(stage.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new ConnectException("Error while converting binlog events", e.getCause());
+        } finally {
+            stages.clear();
+            inlineRecords = null;
+        }
+    }
+
+    /**
+     * Stop the conversion threads.
+     */
+    public void shutdown() {
+        stages.forEach(stage -> stage.cancel(true));
+        stages.clear();
+        executor.shutdownNow();
+    }
+}
@@ -5,13 +5,19 @@
  */
 package io.debezium.connector.mysql;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
 
+import io.debezium.annotation.Immutable;
 import io.debezium.annotation.NotThreadSafe;
 import io.debezium.util.Collect;
 
@@ -39,6 +45,10 @@
  *     "row" = 0
  * }
  * </pre>
+ * <p>
+ * Since every row within a binlog event shares the same binlog position, the offset and {@link #struct() source struct} for
+ * the current row are cached and reused until the position or row changes, and the offset for each subsequent row in the same
+ * event is derived from the cached offset without building a new map.
  * 
  * @author Randall Hauch
  */
@@ -73,10 +83,30 @@ final class SourceInfo {
     private long serverId = 0;
     private long binlogTs = 0;
     private Map<String, String> sourcePartition;
+    private BinlogOffset cachedOffset;
+    private Struct cachedStruct;
 
     public SourceInfo() {
     }
 
+    /**
+     * Create a copy of this source information that can be modified independently of this object. The copy shares the
+     * {@link #partition() partition}, which is never modified.
+     *
+     * @return the copy; never null
+     */
+    public SourceInfo copy() {
+        SourceInfo copy = new SourceInfo();
+        copy.serverName = serverName;
+        copy.sourcePartition = sourcePartition;
+        copy.binlogFilename = binlogFilename;
+        copy.binlogPosition = binlogPosition;
+        copy.eventRowNumber = eventRowNumber;
+        copy.serverId = serverId;
+        copy.binlogTs = binlogTs;
+        return copy;
+    }
+
     /**
      * Set the database identifier. This is typically called once upon initialization.
      * 
@@ -103,13 +133,22 @@ public Map<String, String> partition() {
     /**
      * Get the Kafka Connect detail about the source "offset", which describes the position within the source where we last
      * have last read.
+     * <p>
+     * The resulting map is immutable, and the same instance is returned until the position or row changes.
      * 
-     * @return a copy of the current offset; never null
+     * @return the current offset; never null
      */
     public Map<String, ?> offset() {
-        return Collect.hashMapOf(BINLOG_FILENAME_OFFSET_KEY, binlogFilename,
-                                 BINLOG_POSITION_OFFSET_KEY, binlogPosition,
-                                 BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, eventRowNumber);
+        BinlogOffset offset = cachedOffset;
+        if (offset == null) {
+            offset = new BinlogOffset(binlogFilename, binlogPosition, eventRowNumber);
+        } else if (offset.row != eventRowNumber) {
+            offset = offset.withRow(eventRowNumber);
+        } else {
+            return offset;
+        }
+        cachedOffset = offset;
+        return offset;
     }
 
     /**
@@ -125,19 +164,25 @@ public Schema schema() {
     /**
      * Get a {@link Struct} representation of the source {@link #partition()} and {@link #offset()} information. The Struct
      * complies with the {@link #SCHEMA} for the MySQL connector.
+     * <p>
+     * The same instance is returned until the position, row, server ID, or timestamp changes, so the result should not be
+     * modified.
      * 
      * @return the source partition and offset {@link Struct}; never null
      * @see #schema()
      */
     public Struct struct() {
         assert serverName != null;
-        Struct result = new Struct(SCHEMA);
+        Struct result = cachedStruct;
+        if (result != null && result.getInt32(BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY).intValue() == eventRowNumber) return result;
+        result = new Struct(SCHEMA);
         result.put(SERVER_NAME_KEY, serverName);
         result.put(SERVER_ID_KEY, serverId);
         result.put(BINLOG_FILENAME_OFFSET_KEY, binlogFilename);
         result.put(BINLOG_POSITION_OFFSET_KEY, binlogPosition);
         result.put(BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, eventRowNumber);
         result.put(BINLOG_EVENT_TIMESTAMP_KEY, binlogTs);
+        cachedStruct = result;
         return result;
     }
 
@@ -146,13 +191,13 @@ public Struct struct() {
      * describes the position within the source where we have last read.
      * 
      * @param eventRowNumber the 0-based row number within the last event that was successfully processed
-     * @return a copy of the current offset; never null
+     * @return the current offset; never null
      */
     public Map<String, ?> offset(int eventRowNumber) {
         setRowInEvent(eventRowNumber);
         return offset();
     }
-    
+
     /**
      * Set the name of the MySQL binary log file.
      * 
@@ -160,6 +205,7 @@ public Struct struct() {
      */
     public void setBinlogFilename(String binlogFilename) {
         this.binlogFilename = binlogFilename;
+        positionChanged();
     }
 
     /**
@@ -169,6 +215,7 @@ public void setBinlogFilename(String binlogFilename) {
      */
     public void setBinlogPosition(long binlogPosition) {
         this.binlogPosition = binlogPosition;
+        positionChanged();
     }
 
     /**
@@ -187,6 +234,7 @@ public void setRowInEvent(int rowNumber) {
      * @param serverId the server ID found within the binary log file
      */
     public void setBinlogServerId(long serverId) {
+        if (this.serverId != serverId) cachedStruct = null;
         this.serverId = serverId;
     }
 
@@ -196,6 +244,7 @@ public void setBinlogServerId(long serverId) {
      * @param timestamp the timestamp found within the binary log file
      */
     public void setBinlogTimestamp(long timestamp) {
+        if (this.binlogTs != timestamp) cachedStruct = null;
         this.binlogTs = timestamp;
     }
 
@@ -214,9 +263,15 @@ public void setOffset(Map<String, ?> sourceOffset) {
             }
             binlogPosition = longOffsetValue(sourceOffset, BINLOG_POSITION_OFFSET_KEY);
             eventRowNumber = (int) longOffsetValue(sourceOffset, BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY);
+            positionChanged();
         }
     }
 
+    private void positionChanged() {
+        cachedOffset = null;
+        cachedStruct = null;
+    }
+
     private long longOffsetValue(Map<String, ?> values, String key) {
         Object obj = values.get(key);
         if (obj == null) return 0;
@@ -263,4 +318,89 @@ public int eventRowNumber() {
     public String serverName() {
         return serverName;
     }
+
+    /**
+     * An immutable and allocation-light representation of the {@link #offset() source offset} of one row within a binlog event.
+     * The offsets of the other rows within the same event are {@link #withRow(int) derived} from it, and the map's entries are
+     * only created when the map is iterated, which Kafka Connect does only when it writes the offsets.
+     */
+    @Immutable
+    static final class BinlogOffset extends AbstractMap<String, Object> {
+        private static final int SIZE = 3;
+
+        private final String filename;
+        private final long position;
+        private final int row;
+
+        protected BinlogOffset(String filename, long position, int row) {
+            this.filename = filename;
+            this.position = position;
+            this.row = row;
+        }
+
+        /**
+         * Obtain the offset of another row within the same binlog event.
+         *
+         * @param row the 0-based row number
+         * @return the offset of the row; never null
+         */
+        public BinlogOffset withRow(int row) {
+            return row == this.row ? this : new BinlogOffset(filename, position, row);
+        }
+
+        @Override
+        public int size() {
+            return SIZE;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return BINLOG_FILENAME_OFFSET_KEY.equals(key) || BINLOG_POSITION_OFFSET_KEY.equals(key)
+                    || BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY.equals(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (BINLOG_FILENAME_OFFSET_KEY.equals(key)) return filename;
+            if (BINLOG_POSITION_OFFSET_KEY.equals(key)) return position;
+            if (BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY.equals(key)) return row;
+            return null;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public int size() {
+                    return SIZE;
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < SIZE;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            switch (index++) {
+                                case 0:
+                                    return new SimpleImmutableEntry<>(BINLOG_FILENAME_OFFSET_KEY, filename);
+                                case 1:
+                                    return new SimpleImmutableEntry<>(BINLOG_POSITION_OFFSET_KEY, position);
+                                case 2:
+                                    return new SimpleImmutableEntry<>(BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, row);
+                                default:
+                                    throw new NoSuchElementException();
+                            }
+                        }
+                    };
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.annotation.NotThreadSafe;
+
+/**
+ * An append-only, first-in-first-out store of byte records that is backed by a series of memory-mapped segment files. Records
+ * are {@link #append(byte[], long) appended} to the last segment and {@link #next() read} from the first segment, and each
+ * segment is unmapped and its file deleted as soon as all of its records have been read.
+ * <p>
+ * Each record is written as a 4-byte length and an 8-byte size, followed by the record's bytes. The size is supplied by the
+ * caller, and can be {@link #nextSize() read} before the record itself is read (e.g., to estimate the memory the record will use
+ * once it is read). A new segment is started whenever the next record does not fit in the remaining space of the current
+ * segment, and a segment is made larger than the normal segment size when a single record would otherwise not fit.
+ *
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class SpillFile implements AutoCloseable {
+
+    private static final int HEADER_SIZE = 4 + 8;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillFile.class);
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long bytes;
+    private long count;
+    private long segmentCounter;
+
+    /**
+     * Create a new spill file that places its segments in the given directory.
+     *
+     * @param directory the directory in which the segment files are to be created; may not be null
+     * @param prefix the prefix for the names of the segment files; may not be null
+     * @param segmentSize the normal size in bytes of each segment; must be positive
+     */
+    public SpillFile(Path directory, String prefix, int segmentSize) {
+        if (segmentSize <= HEADER_SIZE) throw new IllegalArgumentException("The segment size must be larger than " + HEADER_SIZE);
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Append the record to the end of this spill file.
+     *
+     * @param record the record's bytes; may not be null
+     * @param size the caller-defined size of the record, which is returned by {@link #nextSize()} when this record is next
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void append(byte[] record, long size) throws IOException {
+        int required = HEADER_SIZE + record.length;
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.remaining() < required) {
+            segment = new Segment(directory.resolve(prefix + "-" + (++segmentCounter) + ".spill"), Math.max(segmentSize, required));
+            segments.addLast(segment);
+        }
+        segment.write(record, size);
+        bytes += required;
+        ++count;
+    }
+
+    /**
+     * Get the size that was {@link #append(byte[], long) supplied} with the oldest record in this spill file, without removing
+     * that record.
+     *
+     * @return the size of the oldest record, or -1 if there are no records in this spill file
+     */
+    public long nextSize() {
+        Segment segment = segments.peekFirst();
+        return segment != null ? segment.nextSize() : -1L;
+    }
+
+    /**
+     * Remove and return the oldest record in this spill file. The segment containing the record is released as soon as all of
+     * its records have been read.
+     *
+     * @return the oldest record's bytes, or null if there are no records in this spill file
+     * @throws IOException if there is a problem reading from or removing the files
+     */
+    public byte[] next() throws IOException {
+        Segment segment = segments.peekFirst();
+        if (segment == null) return null;
+        byte[] record = segment.read();
+        bytes -= HEADER_SIZE + record.length;
+        --count;
+        if (!segment.hasNext()) {
+            // Every record in this segment has been read, so release it (the next append will start a new segment) ...
+            segments.removeFirst().delete();
+        }
+        return record;
+    }
+
+    /**
+     * Determine whether this spill file contains no records.
+     *
+     * @return {@code true} if there are no records, or {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Get the number of records in this spill file that have not yet been read.
+     *
+     * @return the number of records
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Get the number of bytes in this spill file used by records that have not yet been read.
+     *
+     * @return the number of bytes
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Remove all records and delete all segment files.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        while (!segments.isEmpty()) {
+            try {
+                segments.removeFirst().delete();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        bytes = 0;
+        count = 0;
+        if (error != null) throw error;
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile (" + count + " records, " + bytes + " bytes in " + segments.size() + " segments in " + directory + ")";
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private int readPosition;
+
+        protected Segment(Path path, int size) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                            StandardOpenOption.SPARSE);
+            this.buffer = channel.map(MapMode.READ_WRITE, 0, size);
+        }
+
+        protected int remaining() {
+            return buffer.capacity() - writePosition;
+        }
+
+        protected boolean hasNext() {
+            return readPosition < writePosition;
+        }
+
+        protected void write(byte[] record, long size) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(writePosition);
+            view.putInt(record.length);
+            view.putLong(size);
+            view.put(record);
+            writePosition += HEADER_SIZE + record.length;
+        }
+
+        protected long nextSize() {
+            return hasNext() ? buffer.getLong(readPosition + 4) : -1L;
+        }
+
+        protected byte[] read() {
+            ByteBuffer view = buffer.duplicate();
+            view.position(readPosition);
+            int length = view.getInt();
+            view.getLong();
+            byte[] record = new byte[length];
+            view.get(record);
+            readPosition += HEADER_SIZE + length;
+            return record;
+        }
+
+        protected void delete() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                Unmapper.unmap(buffer);
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Releases the mapping of a buffer immediately rather than when the buffer is eventually garbage collected. Java 8 has no
+     * public API for this, so the buffer's cleaner is used when it is accessible (it is not on Java 9 and later); otherwise the
+     * mapping is left to be released by the garbage collector.
+     */
+    private static final class Unmapper {
+        protected static final Unmapper INSTANCE = create();
+
+        private final Method cleaner;
+        private final Method clean;
+
+        private Unmapper(Method cleaner, Method clean) {
+            this.cleaner = cleaner;
+            this.clean = clean;
+        }
+
+        protected static void unmap(MappedByteBuffer buffer) {
+            if (INSTANCE == null) return;
+            try {
+                INSTANCE.clean(buffer);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.debug("Unable to unmap spill file segment; it will be unmapped when garbage collected", e);
+            }
+        }
+
+        private static Unmapper create() {
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Unmapper unmapper = new Unmapper(cleaner, cleaner.getReturnType().getMethod("clean"));
+                // Verify that the methods are accessible by releasing a small direct buffer ...
+                unmapper.clean(ByteBuffer.allocateDirect(1));
+                return unmapper;
+            } catch (ReflectiveOperationException | SecurityException e) {
+                LOGGER.debug("Spill file segments will be unmapped when garbage collected", e);
+                return null;
+            }
+        }
+
+        private void clean(ByteBuffer buffer) throws ReflectiveOperationException {
+            Object bufferCleaner = cleaner.invoke(buffer);
+            if (bufferCleaner != null) clean.invoke(bufferCleaner);
+        }
+    }
+}
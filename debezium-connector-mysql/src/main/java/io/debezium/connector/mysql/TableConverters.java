@@ -14,8 +14,10 @@
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -26,6 +28,7 @@
 
 import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
 import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventData;
 import com.github.shyiko.mysql.binlog.event.QueryEventData;
 import com.github.shyiko.mysql.binlog.event.RotateEventData;
 import com.github.shyiko.mysql.binlog.event.TableMapEventData;
@@ -38,6 +41,7 @@
 import io.debezium.relational.Table;
 import io.debezium.relational.TableId;
 import io.debezium.relational.TableSchema;
+import io.debezium.relational.TableSchema.KeyAndValue;
 import io.debezium.relational.TableSchemaBuilder;
 import io.debezium.relational.Tables;
 import io.debezium.relational.ddl.DdlChanges;
@@ -87,9 +91,11 @@ public Struct schemaChangeRecordValue(SourceInfo source, String databaseName, St
     private final MySqlDdlParser ddlParser;
     private final DdlChanges ddlChanges;
     private final Tables tables;
-    private final TableSchemaBuilder schemaBuilder = new TableSchemaBuilder();
+    private final TableSchemaBuilder schemaBuilder;
     private final Map<TableId, TableSchema> tableSchemaByTableId = new HashMap<>();
+    private final Set<Long> excludedTableNumbers = new HashSet<>();
     private final Map<Long, Converter> convertersByTableId = new HashMap<>();
+    private final Map<TableId, Converter> cachedConvertersByTableId = new HashMap<>();
     private final Map<String, Long> tableNumbersByTableName = new HashMap<>();
     private final boolean recordSchemaChangesInSourceRecords;
     private final Predicate<String> dbFilter;
@@ -99,10 +105,32 @@ public Struct schemaChangeRecordValue(SourceInfo source, String databaseName, St
     private final Set<String> ignoredQueryStatements = Collect.unmodifiableSet("BEGIN", "END", "FLUSH PRIVILEGES");
     private final Set<TableId> unknownTableIds = new HashSet<>();
     private final Clock clock;
+    private final boolean partialRowImages;
+    private final boolean recordNonSchemaStatements;
+    private volatile long converterCacheHits;
+    private volatile long converterCacheMisses;
+    private volatile long nonSchemaStatements;
 
     public TableConverters(TopicSelector topicSelector, DatabaseHistory dbHistory,
             boolean recordSchemaChangesInSourceRecords, Clock clock, Predicate<String> dbFilter, Tables tables,
             Predicate<TableId> tableFilter, Predicate<ColumnId> columnFilter, ColumnMappers columnSelectors) {
+        this(topicSelector, dbHistory, recordSchemaChangesInSourceRecords, clock, dbFilter, tables, tableFilter, columnFilter,
+             columnSelectors, null, false);
+    }
+
+    public TableConverters(TopicSelector topicSelector, DatabaseHistory dbHistory,
+            boolean recordSchemaChangesInSourceRecords, Clock clock, Predicate<String> dbFilter, Tables tables,
+            Predicate<TableId> tableFilter, Predicate<ColumnId> columnFilter, ColumnMappers columnSelectors,
+            Predicate<TableId> specializedTables, boolean partialRowImages) {
+        this(topicSelector, dbHistory, recordSchemaChangesInSourceRecords, clock, dbFilter, tables, tableFilter, columnFilter,
+             columnSelectors, specializedTables, partialRowImages, true, 0, false);
+    }
+
+    public TableConverters(TopicSelector topicSelector, DatabaseHistory dbHistory,
+            boolean recordSchemaChangesInSourceRecords, Clock clock, Predicate<String> dbFilter, Tables tables,
+            Predicate<TableId> tableFilter, Predicate<ColumnId> columnFilter, ColumnMappers columnSelectors,
+            Predicate<TableId> specializedTables, boolean partialRowImages, boolean recordNonSchemaStatements,
+            int ddlParseCacheSize, boolean skimExcludedTables) {
         Objects.requireNonNull(topicSelector, "A topic selector is required");
         Objects.requireNonNull(dbHistory, "Database history storage is required");
         Objects.requireNonNull(tables, "A Tables object is required");
@@ -115,7 +143,12 @@ public TableConverters(TopicSelector topicSelector, DatabaseHistory dbHistory,
         this.tables = tables;
         this.columnFilter = columnFilter;
         this.columnMappers = columnSelectors;
+        this.schemaBuilder = new TableSchemaBuilder(specializedTables);
+        this.partialRowImages = partialRowImages;
+        this.recordNonSchemaStatements = recordNonSchemaStatements;
         this.ddlParser = new MySqlDdlParser(false); // don't include views
+        this.ddlParser.setParseCacheSize(ddlParseCacheSize);
+        if (skimExcludedTables) this.ddlParser.setTableFilter(tableFilter);
         this.ddlChanges = new DdlChanges(this.ddlParser.terminator());
         this.ddlParser.addListener(ddlChanges);
         this.recordSchemaChangesInSourceRecords = recordSchemaChangesInSourceRecords;
@@ -123,13 +156,48 @@ public TableConverters(TopicSelector topicSelector, DatabaseHistory dbHistory,
         this.tableFilter = tableFilter != null ? tableFilter.and(knownTables) : knownTables;
     }
 
+    /**
+     * Discard all {@link TableSchema} instances so that each is created from the current table definitions when the table's
+     * first TABLE_MAP event is seen. This should be called after the table definitions have been recovered.
+     */
     public void loadTables() {
-        // Create TableSchema instances for any existing table ...
-        this.tables.tableIds().forEach(id -> {
-            Table table = this.tables.forTable(id);
-            TableSchema schema = schemaBuilder.create(table, columnFilter, columnMappers);
-            tableSchemaByTableId.put(id, schema);
-        });
+        loadTables(null);
+    }
+
+    /**
+     * Discard all {@link TableSchema} instances so that each is created from the current table definitions when the table's
+     * first TABLE_MAP event is seen, except that the schemas of the captured tables that satisfy the supplied predicate are
+     * created immediately and concurrently. This should be called after the table definitions have been recovered.
+     * <p>
+     * Creating the schemas of all tables can take a long time on servers with many tables, and most of the schemas may never be
+     * used. Schemas are therefore never created for tables excluded by the table filter, and are created for other tables only
+     * when needed unless they are among the given set of frequently-changed tables.
+     * 
+     * @param preloadTables the predicate that determines the tables whose schemas are to be created immediately; may be null if
+     *            no schemas are to be created until needed
+     */
+    public void loadTables(Predicate<TableId> preloadTables) {
+        tableSchemaByTableId.clear();
+        cachedConvertersByTableId.clear();
+        if (preloadTables == null) return;
+        Map<TableId, TableSchema> schemas = tables.tableIds()
+                                                  .parallelStream()
+                                                  .filter(id -> tableFilter.test(id) && preloadTables.test(id))
+                                                  .collect(Collectors.toMap(id -> id, id -> createSchema(tables.forTable(id))));
+        tableSchemaByTableId.putAll(schemas);
+        logger.info("Created the schemas of {} of {} tables; the schemas of other tables will be created when needed", schemas.size(),
+                    tables.size());
+    }
+
+    private TableSchema schemaFor(TableId tableId) {
+        TableSchema schema = tableSchemaByTableId.get(tableId);
+        if (schema == null) {
+            Table table = tables.forTable(tableId);
+            if (table == null) return null;
+            schema = createSchema(table);
+            tableSchemaByTableId.put(tableId, schema);
+        }
+        return schema;
     }
 
     public void rotateLogs(Event event, SourceInfo source, Consumer<SourceRecord> recorder) {
@@ -138,11 +206,43 @@ public void rotateLogs(Event event, SourceInfo source, Consumer<SourceRecord> re
         if (command != null) {
             // The logs are being rotated, which means the server was either restarted, or the binlog has transitioned to a new
             // file. In either case, the table numbers will change, so we need to discard the cache of converters by the table IDs
-            // (e.g., the Map<Long,Converter>). Note, however, that we're NOT clearing out the Map<TableId,TableSchema>.
+            // (e.g., the Map<Long,Converter>). Note, however, that we're NOT clearing out the Map<TableId,TableSchema> or
+            // the Map<TableId,Converter>, so the converters are simply bound to the new table numbers ...
             convertersByTableId.clear();
+            excludedTableNumbers.clear();
+            logger.debug("Converter cache has {} hits and {} misses", converterCacheHits, converterCacheMisses);
         }
     }
 
+    /**
+     * Get the number of times that a TABLE_MAP event was handled by reusing the converter previously created for the same
+     * table and schema, such as after the logs were rotated.
+     * 
+     * @return the number of cache hits
+     */
+    public long converterCacheHits() {
+        return converterCacheHits;
+    }
+
+    /**
+     * Get the number of times that a TABLE_MAP event required creating a new converter, because no converter existed for the
+     * table or because the table's schema has since changed.
+     * 
+     * @return the number of cache misses
+     */
+    public long converterCacheMisses() {
+        return converterCacheMisses;
+    }
+
+    /**
+     * Get the number of QUERY events whose statements were not parsed because they cannot change the structure of any table.
+     * 
+     * @return the number of statements that were not parsed
+     */
+    public long nonSchemaStatements() {
+        return nonSchemaStatements;
+    }
+
     public void updateTableCommand(Event event, SourceInfo source, Consumer<SourceRecord> recorder) {
         QueryEventData command = event.getData();
         // The command's database is the one that the client was using when submitting the DDL statements,
@@ -150,6 +250,15 @@ public void updateTableCommand(Event event, SourceInfo source, Consumer<SourceRe
         String databaseName = command.getDatabase();
         String ddlStatements = command.getSql();
         if (ignoredQueryStatements.contains(ddlStatements)) return;
+        if (!QueryClassifier.mayChangeSchema(ddlStatements)) {
+            // The statement cannot change any table, so there's no need to parse it ...
+            ++nonSchemaStatements;
+            if (!recordNonSchemaStatements) return;
+            logger.debug("Recording statement that cannot change the schema: {}", event);
+            if (recordSchemaChangesInSourceRecords) recordSchemaChange(source, databaseName, ddlStatements, recorder);
+            dbHistory.record(source.partition(), source.offset(), databaseName, tables, ddlStatements);
+            return;
+        }
         logger.debug("Received update table command: {}", event);
         try {
             this.ddlChanges.reset();
@@ -186,19 +295,10 @@ public void updateTableCommand(Event event, SourceInfo source, Consumer<SourceRe
                             recorder.accept(record);
                         }
                     });
-                } else if (dbFilter.test(databaseName)) {
+                } else {
                     // Either all of the statements applied to 'databaseName', or we didn't understand any of the statements.
-                    // But the database filter includes 'databaseName' so we should forward all of the statements ...
-                    String serverName = source.serverName();
-                    String topicName = topicSelector.getTopic(serverName);
-                    Integer partition = 0;
-                    Struct key = schemaChangeRecordKey(databaseName);
-                    Struct value = schemaChangeRecordValue(source, databaseName, ddlStatements);
-                    SourceRecord record = new SourceRecord(source.partition(), source.offset(),
-                            topicName, partition,
-                            SCHEMA_CHANGE_RECORD_KEY_SCHEMA, key,
-                            SCHEMA_CHANGE_RECORD_VALUE_SCHEMA, value);
-                    recorder.accept(record);
+                    // So forward all of the statements if the database filter includes 'databaseName' ...
+                    recordSchemaChange(source, databaseName, ddlStatements, recorder);
                 }
             }
 
@@ -208,19 +308,34 @@ public void updateTableCommand(Event event, SourceInfo source, Consumer<SourceRe
             dbHistory.record(source.partition(), source.offset(), databaseName, tables, ddlStatements);
         }
 
-        // Figure out what changed ...
+        // Figure out what changed, and discard the schemas of those tables so they're recreated when next needed ...
         Set<TableId> changes = tables.drainChanges();
         changes.forEach(tableId -> {
-            Table table = tables.forTable(tableId);
-            if (table == null) { // removed
-                tableSchemaByTableId.remove(tableId);
-            } else {
-                TableSchema schema = schemaBuilder.create(table, columnFilter, columnMappers);
-                tableSchemaByTableId.put(tableId, schema);
-            }
+            cachedConvertersByTableId.remove(tableId);
+            tableSchemaByTableId.remove(tableId);
         });
     }
 
+    private void recordSchemaChange(SourceInfo source, String databaseName, String ddlStatements, Consumer<SourceRecord> recorder) {
+        if (!dbFilter.test(databaseName)) return;
+        String serverName = source.serverName();
+        String topicName = topicSelector.getTopic(serverName);
+        Integer partition = 0;
+        Struct key = schemaChangeRecordKey(databaseName);
+        Struct value = schemaChangeRecordValue(source, databaseName, ddlStatements);
+        SourceRecord record = new SourceRecord(source.partition(), source.offset(),
+                topicName, partition,
+                SCHEMA_CHANGE_RECORD_KEY_SCHEMA, key,
+                SCHEMA_CHANGE_RECORD_VALUE_SCHEMA, value);
+        recorder.accept(record);
+    }
+
+    private TableSchema createSchema(Table table) {
+        // Partial row images may omit any column that is not part of the primary key ...
+        if (partialRowImages) table = PartialRowImages.withOptionalColumns(table);
+        return schemaBuilder.create(table, columnFilter, columnMappers);
+    }
+
     /**
      * Handle a change in the table metadata.
      * <p>
@@ -241,16 +356,20 @@ public void updateTableMetadata(Event event, SourceInfo source, Consumer<SourceR
         TableMapEventData metadata = event.getData();
         long tableNumber = metadata.getTableId();
         logger.debug("Received update table metadata event: {}", event);
-        if (!convertersByTableId.containsKey(tableNumber)) {
-            // We haven't seen this table ID, so we need to rebuild our converter functions ...
-            String serverName = source.serverName();
+        if (!convertersByTableId.containsKey(tableNumber) && !excludedTableNumbers.contains(tableNumber)) {
+            // We haven't seen this table ID, so we need to bind a converter to it ...
             String databaseName = metadata.getDatabase();
             String tableName = metadata.getTable();
-            String topicName = topicSelector.getTopic(serverName, databaseName, tableName);
+            TableId tableId = new TableId(databaseName, null, tableName);
+            if (!tableFilter.test(tableId)) {
+                // We'll never convert this table's rows, so there's no need for its schema ...
+                logger.debug("Skipping metadata for excluded table {} with table #{}", tableId, tableNumber);
+                excludedTableNumbers.add(tableNumber);
+                return;
+            }
 
             // Just get the current schema, which should be up-to-date ...
-            TableId tableId = new TableId(databaseName, null, tableName);
-            TableSchema tableSchema = tableSchemaByTableId.get(tableId);
+            TableSchema tableSchema = schemaFor(tableId);
             logger.debug("Registering metadata for table {} with table #{}", tableId, tableNumber);
             if (tableSchema == null) {
                 // We are seeing an event for a row that's in a table we don't know about, meaning the table
@@ -259,101 +378,150 @@ public void updateTableMetadata(Event event, SourceInfo source, Consumer<SourceR
                     logger.warn("Transaction affects rows in {}, for which no metadata exists. All subsequent changes to rows in this table will be ignored.",
                                 tableId);
                 }
+                excludedTableNumbers.add(tableNumber);
+                return;
             }
-            // Specify the envelope structure for this table's messages ...
-            Envelope envelope = Envelope.defineSchema()
-                                        .withName(topicName)
-                                        .withRecord(tableSchema.valueSchema())
-                                        .withSource(SourceInfo.SCHEMA)
-                                        .build();
-
-            // Generate this table's insert, update, and delete converters ...
-            Converter converter = new Converter() {
-                @Override
-                public TableId tableId() {
-                    return tableId;
-                }
 
-                @Override
-                public String topic() {
-                    return topicName;
-                }
+            // Reuse the converter for this table if it was created from the current schema, since only the table number
+            // changes when the logs are rotated. Each change to a table's structure produces a new TableSchema instance,
+            // so that instance identifies the version of the schema ...
+            Converter converter = cachedConvertersByTableId.get(tableId);
+            if (converter != null && converter.tableSchema() == tableSchema) {
+                ++converterCacheHits;
+            } else {
+                ++converterCacheMisses;
+                converter = createConverter(tableId, tableSchema, topicSelector.getTopic(source.serverName(), databaseName, tableName));
+                cachedConvertersByTableId.put(tableId, converter);
+            }
+            convertersByTableId.put(tableNumber, converter);
+            Long previousTableNumber = tableNumbersByTableName.put(tableName, tableNumber);
+            if (previousTableNumber != null) {
+                convertersByTableId.remove(previousTableNumber);
+            }
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Skipping update table metadata event: {}", event);
+        }
+    }
 
-                @Override
-                public Integer partition() {
-                    return null;
-                }
+    private Converter createConverter(TableId tableId, TableSchema tableSchema, String topicName) {
+        // Specify the envelope structure for this table's messages ...
+        Envelope.Builder envelopeBuilder = Envelope.defineSchema()
+                                                   .withName(topicName)
+                                                   .withRecord(tableSchema.valueSchema())
+                                                   .withSource(SourceInfo.SCHEMA);
+        if (partialRowImages) {
+            envelopeBuilder.withSchema(PartialRowImages.ABSENT_COLUMNS_SCHEMA, PartialRowImages.BEFORE_ABSENT_FIELD,
+                                       PartialRowImages.AFTER_ABSENT_FIELD);
+        }
+        Envelope envelope = envelopeBuilder.build();
 
-                @Override
-                public Envelope envelope() {
-                    return envelope;
-                }
+        // Determine how the rows in the binlog events map to the table's columns ...
+        PartialRowImages rowImages = new PartialRowImages(tables.forTable(tableId));
+        AtomicBoolean warnedAboutPartialRows = new AtomicBoolean(false);
 
-                @Override
-                public Schema keySchema() {
-                    return tableSchema.keySchema();
-                }
+        // Generate this table's insert, update, and delete converters ...
+        return new Converter() {
+            @Override
+            public TableId tableId() {
+                return tableId;
+            }
 
-                @Override
-                public Schema valueSchema() {
-                    return tableSchema.valueSchema();
-                }
+            @Override
+            public String topic() {
+                return topicName;
+            }
 
-                @Override
-                public Object createKey(Serializable[] row, BitSet includedColumns) {
-                    // assume all columns in the table are included ...
-                    return tableSchema.keyFromColumnData(row);
+            @Override
+            public Integer partition() {
+                return null;
+            }
+
+            @Override
+            public Envelope envelope() {
+                return envelope;
+            }
+
+            @Override
+            public TableSchema tableSchema() {
+                return tableSchema;
+            }
+
+            @Override
+            public Schema keySchema() {
+                return tableSchema.keySchema();
+            }
+
+            @Override
+            public Schema valueSchema() {
+                return tableSchema.valueSchema();
+            }
+
+            @Override
+            public Serializable[] expand(Serializable[] row, BitSet includedColumns) {
+                checkComplete(includedColumns);
+                return rowImages.expand(row, includedColumns);
+            }
+
+            @Override
+            public Serializable[] merge(Serializable[] after, BitSet includedColumns, Serializable[] before,
+                                        BitSet includedColumnsBefore) {
+                checkComplete(includedColumns);
+                return rowImages.merge(after, includedColumns, before, includedColumnsBefore);
+            }
+
+            @Override
+            public void recordAbsentColumns(Struct envelope, BitSet includedColumnsBefore, BitSet includedColumnsAfter) {
+                if (!partialRowImages) return;
+                if (includedColumnsBefore != null) {
+                    List<String> absent = rowImages.absentColumns(includedColumnsBefore);
+                    if (!absent.isEmpty()) envelope.put(PartialRowImages.BEFORE_ABSENT_FIELD, absent);
                 }
+                if (includedColumnsAfter != null) recordAbsentAfterColumns(envelope, includedColumnsAfter, includedColumnsBefore);
+            }
 
-                @Override
-                public Struct createValue(Serializable[] row, BitSet includedColumns) {
-                    // assume all columns in the table are included ...
-                    return tableSchema.valueFromColumnData(row);
+            @Override
+            public void recordAbsentAfterColumns(Struct envelope, BitSet includedColumnsAfter, BitSet includedColumnsBefore) {
+                if (!partialRowImages) return;
+                // Columns absent from an update's after image were not changed, so they're known if in the before image ...
+                List<String> absent = rowImages.absentColumns(includedColumnsAfter, includedColumnsBefore);
+                if (!absent.isEmpty()) envelope.put(PartialRowImages.AFTER_ABSENT_FIELD, absent);
+            }
+
+            private void checkComplete(BitSet includedColumns) {
+                if (!partialRowImages && !rowImages.isComplete(includedColumns) && !warnedAboutPartialRows.getAndSet(true)) {
+                    logger.warn("Binlog events for {} contain partial row images, so the values of absent columns will appear as nulls. "
+                            + "Set '{}' to 'true' to record which columns are absent.", tableId,
+                                MySqlConnectorConfig.PARTIAL_ROW_IMAGES);
                 }
-            };
-            convertersByTableId.put(tableNumber, converter);
-            Long previousTableNumber = tableNumbersByTableName.put(tableName, tableNumber);
-            if (previousTableNumber != null) {
-                convertersByTableId.remove(previousTableNumber);
             }
-        } else if (logger.isDebugEnabled()) {
-            logger.debug("Skipping update table metadata event: {}", event);
-        }
+
+            @Override
+            public Object createKey(Serializable[] row) {
+                return tableSchema.keyFromColumnData(row);
+            }
+
+            @Override
+            public Struct createValue(Serializable[] row) {
+                return tableSchema.valueFromColumnData(row);
+            }
+
+            @Override
+            public KeyAndValue createKeyAndValue(Serializable[] row) {
+                return tableSchema.keyAndValueFromColumnData(row);
+            }
+
+            @Override
+            public boolean keyChanged(Serializable[] before, Serializable[] after) {
+                return tableSchema.keyChanged(before, after);
+            }
+        };
     }
 
     public void handleInsert(Event event, SourceInfo source, Consumer<SourceRecord> recorder) {
         WriteRowsEventData write = event.getData();
-        long tableNumber = write.getTableId();
-        BitSet includedColumns = write.getIncludedColumns();
-        Converter converter = convertersByTableId.get(tableNumber);
+        Converter converter = converterFor(write.getTableId(), event);
         if (converter != null) {
-            TableId tableId = converter.tableId();
-            if (tableFilter.test(tableId)) {
-                logger.debug("Processing insert row event for {}: {}", tableId, event);
-                String topic = converter.topic();
-                Integer partitionNum = converter.partition();
-                List<Serializable[]> rows = write.getRows();
-                Long ts = clock.currentTimeInMillis();
-                for (int row = 0; row != rows.size(); ++row) {
-                    Serializable[] values = rows.get(row);
-                    Schema keySchema = converter.keySchema();
-                    Object key = converter.createKey(values, includedColumns);
-                    Struct value = converter.createValue(values, includedColumns);
-                    if (value != null || key != null) {
-                        Envelope envelope = converter.envelope();
-                        Map<String, ?> partition = source.partition();
-                        Map<String, ?> offset = source.offset(row);
-                        Struct origin = source.struct();
-                        SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
-                                keySchema, key, envelope.schema(), envelope.create(value, origin, ts));
-                        recorder.accept(record);
-                    }
-                }
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("Skipping insert row event: {}", event);
-            }
-        } else {
-            logger.warn("Unable to find converter for table #{} in {}", tableNumber, convertersByTableId);
+            convertInsert(converter, write, source, recorder);
         }
     }
 
@@ -366,100 +534,195 @@ public void handleInsert(Event event, SourceInfo source, Consumer<SourceRecord>
      */
     public void handleUpdate(Event event, SourceInfo source, Consumer<SourceRecord> recorder) {
         UpdateRowsEventData update = event.getData();
-        long tableNumber = update.getTableId();
-        BitSet includedColumns = update.getIncludedColumns();
-        BitSet includedColumnsBefore = update.getIncludedColumnsBeforeUpdate();
-        Converter converter = convertersByTableId.get(tableNumber);
+        Converter converter = converterFor(update.getTableId(), event);
         if (converter != null) {
-            TableId tableId = converter.tableId();
-            if (tableFilter.test(tableId)) {
-                logger.debug("Processing update row event for {}: {}", tableId, event);
-                String topic = converter.topic();
-                Integer partitionNum = converter.partition();
-                Long ts = clock.currentTimeInMillis();
-                List<Entry<Serializable[], Serializable[]>> rows = update.getRows();
-                for (int row = 0; row != rows.size(); ++row) {
-                    Map.Entry<Serializable[], Serializable[]> changes = rows.get(row);
-                    Serializable[] before = changes.getKey();
-                    Serializable[] after = changes.getValue();
-                    Schema keySchema = converter.keySchema();
-                    Object key = converter.createKey(after, includedColumns);
-                    Object oldKey = converter.createKey(before, includedColumns);
-                    Struct valueBefore = converter.createValue(before, includedColumnsBefore);
-                    Struct valueAfter = converter.createValue(after, includedColumns);
-                    if (valueAfter != null || key != null) {
-                        Envelope envelope = converter.envelope();
-                        Map<String, ?> partition = source.partition();
-                        Map<String, ?> offset = source.offset(row);
-                        Struct origin = source.struct();
-                        if (key != null && !Objects.equals(key, oldKey)) {
-                            // The key has indeed changed, so first send a create event ...
-                            SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
-                                    keySchema, key, envelope.schema(), envelope.create(valueAfter, origin, ts));
-                            recorder.accept(record);
-
-                            // then send a delete event for the old key ...
-                            record = new SourceRecord(partition, offset, topic, partitionNum,
-                                    keySchema, oldKey, envelope.schema(), envelope.delete(valueBefore, origin, ts));
-                            recorder.accept(record);
-
-                            // Send a tombstone event for the old key ...
-                            record = new SourceRecord(partition, offset, topic, partitionNum, keySchema, oldKey, null, null);
-                            recorder.accept(record);
-                        } else {
-                            // The key has not changed, so a simple update is fine ...
-                            SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
-                                    keySchema, key, envelope.schema(), envelope.update(valueBefore, valueAfter, origin, ts));
-                            recorder.accept(record);
-                        }
-                    }
-                }
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("Skipping update row event: {}", event);
-            }
-        } else {
-            logger.warn("Unable to find converter for table #{} in {}", tableNumber, convertersByTableId);
+            convertUpdate(converter, update, source, recorder);
         }
     }
 
     public void handleDelete(Event event, SourceInfo source, Consumer<SourceRecord> recorder) {
         DeleteRowsEventData deleted = event.getData();
-        long tableNumber = deleted.getTableId();
-        BitSet includedColumns = deleted.getIncludedColumns();
+        Converter converter = converterFor(deleted.getTableId(), event);
+        if (converter != null) {
+            convertDelete(converter, deleted, source, recorder);
+        }
+    }
+
+    /**
+     * Find the converter for the table affected by the supplied row event, as known at this point in the log. This must be
+     * called in log order, since the converters change as TABLE_MAP, QUERY, and ROTATE events are handled.
+     * 
+     * @param event the WRITE, UPDATE, or DELETE rows event; never null
+     * @return the converter for the event's table, or null if the event's table is unknown or not to be captured
+     */
+    public Converter converterFor(Event event) {
+        EventData data = event.getData();
+        if (data instanceof WriteRowsEventData) return converterFor(((WriteRowsEventData) data).getTableId(), event);
+        if (data instanceof UpdateRowsEventData) return converterFor(((UpdateRowsEventData) data).getTableId(), event);
+        if (data instanceof DeleteRowsEventData) return converterFor(((DeleteRowsEventData) data).getTableId(), event);
+        return null;
+    }
+
+    /**
+     * Generate the source records for a WRITE, UPDATE, or DELETE rows event using a converter previously obtained from
+     * {@link #converterFor(Event)}. This method uses no state of this object other than the supplied converter, and so it can be
+     * called from any thread as long as the supplied {@link SourceInfo} is not shared.
+     * 
+     * @param converter the converter for the event's table; may not be null
+     * @param event the rows event; may not be null
+     * @param source the source information to use in the record(s); never null
+     * @param recorder the consumer of all source records; never null
+     */
+    public void convertRows(Converter converter, Event event, SourceInfo source, Consumer<SourceRecord> recorder) {
+        EventData data = event.getData();
+        if (data instanceof WriteRowsEventData) {
+            convertInsert(converter, (WriteRowsEventData) data, source, recorder);
+        } else if (data instanceof UpdateRowsEventData) {
+            convertUpdate(converter, (UpdateRowsEventData) data, source, recorder);
+        } else if (data instanceof DeleteRowsEventData) {
+            convertDelete(converter, (DeleteRowsEventData) data, source, recorder);
+        }
+    }
+
+    private Converter converterFor(long tableNumber, Event event) {
         Converter converter = convertersByTableId.get(tableNumber);
         if (converter != null) {
-            TableId tableId = converter.tableId();
-            if (tableFilter.test(tableId)) {
-                logger.debug("Processing delete row event for {}: {}", tableId, event);
-                String topic = converter.topic();
-                Integer partitionNum = converter.partition();
-                Long ts = clock.currentTimeInMillis();
-                List<Serializable[]> rows = deleted.getRows();
-                for (int row = 0; row != rows.size(); ++row) {
-                    Serializable[] values = rows.get(row);
-                    Schema keySchema = converter.keySchema();
-                    Object key = converter.createKey(values, includedColumns);
-                    Struct value = converter.createValue(values, includedColumns);
-                    if (value != null || key != null) {
-                        Envelope envelope = converter.envelope();
-                        Map<String, ?> partition = source.partition();
-                        Map<String, ?> offset = source.offset(row);
-                        Struct origin = source.struct();
-                        SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
-                                keySchema, key, envelope.schema(), envelope.delete(value, origin, ts));
-                        recorder.accept(record);
-                        // And send a tombstone ...
-                        record = new SourceRecord(partition, offset, topic, partitionNum,
-                                keySchema, key, null, null);
-                        recorder.accept(record);
-                    }
-                }
-            } else if (logger.isDebugEnabled()) {
-                logger.debug("Skipping delete row event: {}", event);
+            if (tableFilter.test(converter.tableId())) {
+                return converter;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Skipping row event: {}", event);
+            }
+        } else if (excludedTableNumbers.contains(tableNumber)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Skipping row event: {}", event);
             }
         } else {
             logger.warn("Unable to find converter for table #{} in {}", tableNumber, convertersByTableId);
         }
+        return null;
+    }
+
+    private void convertInsert(Converter converter, WriteRowsEventData write, SourceInfo source, Consumer<SourceRecord> recorder) {
+        BitSet includedColumns = write.getIncludedColumns();
+        logger.debug("Processing insert row event for {}: {}", converter.tableId(), write);
+        String topic = converter.topic();
+        Integer partitionNum = converter.partition();
+        List<Serializable[]> rows = write.getRows();
+        Long ts = clock.currentTimeInMillis();
+        for (int row = 0; row != rows.size(); ++row) {
+            Serializable[] values = converter.expand(rows.get(row), includedColumns);
+            Schema keySchema = converter.keySchema();
+            KeyAndValue keyAndValue = converter.createKeyAndValue(values);
+            Object key = keyAndValue.key();
+            Struct value = keyAndValue.value();
+            if (value != null || key != null) {
+                Envelope envelope = converter.envelope();
+                Map<String, ?> partition = source.partition();
+                Map<String, ?> offset = source.offset(row);
+                Struct origin = source.struct();
+                Struct message = envelope.create(value, origin, ts);
+                converter.recordAbsentColumns(message, null, includedColumns);
+                SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
+                        keySchema, key, envelope.schema(), message);
+                recorder.accept(record);
+            }
+        }
+    }
+
+    private void convertUpdate(Converter converter, UpdateRowsEventData update, SourceInfo source, Consumer<SourceRecord> recorder) {
+        BitSet includedColumns = update.getIncludedColumns();
+        BitSet includedColumnsBefore = update.getIncludedColumnsBeforeUpdate();
+        logger.debug("Processing update row event for {}: {}", converter.tableId(), update);
+        String topic = converter.topic();
+        Integer partitionNum = converter.partition();
+        Long ts = clock.currentTimeInMillis();
+        List<Entry<Serializable[], Serializable[]>> rows = update.getRows();
+        for (int row = 0; row != rows.size(); ++row) {
+            Map.Entry<Serializable[], Serializable[]> changes = rows.get(row);
+            // Columns absent from the after image were not changed, so use their values from the before image ...
+            Serializable[] before = converter.expand(changes.getKey(), includedColumnsBefore);
+            Serializable[] after = converter.merge(changes.getValue(), includedColumns, changes.getKey(), includedColumnsBefore);
+            Schema keySchema = converter.keySchema();
+            KeyAndValue keyAndValueAfter = converter.createKeyAndValue(after);
+            Object key = keyAndValueAfter.key();
+            Struct valueAfter = keyAndValueAfter.value();
+            Object oldKey = key;
+            Struct valueBefore;
+            if (converter.keyChanged(before, after)) {
+                // The raw key values differ, so convert the old key, too ...
+                KeyAndValue keyAndValueBefore = converter.createKeyAndValue(before);
+                oldKey = keyAndValueBefore.key();
+                valueBefore = keyAndValueBefore.value();
+            } else {
+                // The key has not changed, so there's no need to convert it again ...
+                valueBefore = converter.createValue(before);
+            }
+            if (valueAfter != null || key != null) {
+                Envelope envelope = converter.envelope();
+                Map<String, ?> partition = source.partition();
+                Map<String, ?> offset = source.offset(row);
+                Struct origin = source.struct();
+                if (key != null && !Objects.equals(key, oldKey)) {
+                    // The key has indeed changed, so first send a create event ...
+                    // The after image was merged with the before image, so only columns absent from both are unknown ...
+                    Struct message = envelope.create(valueAfter, origin, ts);
+                    converter.recordAbsentAfterColumns(message, includedColumns, includedColumnsBefore);
+                    SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
+                            keySchema, key, envelope.schema(), message);
+                    recorder.accept(record);
+
+                    // then send a delete event for the old key ...
+                    message = envelope.delete(valueBefore, origin, ts);
+                    converter.recordAbsentColumns(message, includedColumnsBefore, null);
+                    record = new SourceRecord(partition, offset, topic, partitionNum,
+                            keySchema, oldKey, envelope.schema(), message);
+                    recorder.accept(record);
+
+                    // Send a tombstone event for the old key ...
+                    record = new SourceRecord(partition, offset, topic, partitionNum, keySchema, oldKey, null, null);
+                    recorder.accept(record);
+                } else {
+                    // The key has not changed, so a simple update is fine ...
+                    Struct message = envelope.update(valueBefore, valueAfter, origin, ts);
+                    converter.recordAbsentColumns(message, includedColumnsBefore, includedColumns);
+                    SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
+                            keySchema, key, envelope.schema(), message);
+                    recorder.accept(record);
+                }
+            }
+        }
+    }
+
+    private void convertDelete(Converter converter, DeleteRowsEventData deleted, SourceInfo source, Consumer<SourceRecord> recorder) {
+        BitSet includedColumns = deleted.getIncludedColumns();
+        logger.debug("Processing delete row event for {}: {}", converter.tableId(), deleted);
+        String topic = converter.topic();
+        Integer partitionNum = converter.partition();
+        Long ts = clock.currentTimeInMillis();
+        List<Serializable[]> rows = deleted.getRows();
+        for (int row = 0; row != rows.size(); ++row) {
+            Serializable[] values = converter.expand(rows.get(row), includedColumns);
+            Schema keySchema = converter.keySchema();
+            KeyAndValue keyAndValue = converter.createKeyAndValue(values);
+            Object key = keyAndValue.key();
+            Struct value = keyAndValue.value();
+            if (value != null || key != null) {
+                Envelope envelope = converter.envelope();
+                Map<String, ?> partition = source.partition();
+                Map<String, ?> offset = source.offset(row);
+                Struct origin = source.struct();
+                Struct message = envelope.delete(value, origin, ts);
+                converter.recordAbsentColumns(message, includedColumns, null);
+                SourceRecord record = new SourceRecord(partition, offset, topic, partitionNum,
+                        keySchema, key, envelope.schema(), message);
+                recorder.accept(record);
+                // And send a tombstone ...
+                record = new SourceRecord(partition, offset, topic, partitionNum,
+                        keySchema, key, null, null);
+                recorder.accept(record);
+            }
+        }
     }
 
     protected static interface Converter {
@@ -475,8 +738,54 @@ protected static interface Converter {
 
         Envelope envelope();
 
-        Object createKey(Serializable[] row, BitSet includedColumns);
-
-        Struct createValue(Serializable[] row, BitSet includedColumns);
+        TableSchema tableSchema();
+
+        /**
+         * Expand the row from a binlog event so that it has a value for every column in the table.
+         * 
+         * @param row the values of the columns included in the row image
+         * @param includedColumns the columns included in the row image
+         * @return the row with one value for each column in the table
+         */
+        Serializable[] expand(Serializable[] row, BitSet includedColumns);
+
+        /**
+         * Expand the after image of an update so that it has a value for every column in the table, using the before image
+         * for any columns absent from the after image.
+         * 
+         * @param after the values of the columns included in the after image
+         * @param includedColumns the columns included in the after image
+         * @param before the values of the columns included in the before image
+         * @param includedColumnsBefore the columns included in the before image
+         * @return the after row with one value for each column in the table
+         */
+        Serializable[] merge(Serializable[] after, BitSet includedColumns, Serializable[] before, BitSet includedColumnsBefore);
+
+        /**
+         * Record in the envelope the columns that were absent from the row images, if partial row images are enabled.
+         * 
+         * @param envelope the envelope; may not be null
+         * @param includedColumnsBefore the columns included in the before image, or null if there is no before image
+         * @param includedColumnsAfter the columns included in the after image, or null if there is no after image
+         */
+        void recordAbsentColumns(Struct envelope, BitSet includedColumnsBefore, BitSet includedColumnsAfter);
+
+        /**
+         * Record in the envelope only the columns that were absent from the after image, if partial row images are enabled.
+         * 
+         * @param envelope the envelope; may not be null
+         * @param includedColumnsAfter the columns included in the after image; may not be null
+         * @param includedColumnsBefore the columns included in the before image with which the after image was
+         *            {@link #merge merged}, or null if there is no before image
+         */
+        void recordAbsentAfterColumns(Struct envelope, BitSet includedColumnsAfter, BitSet includedColumnsBefore);
+
+        Object createKey(Serializable[] row);
+
+        Struct createValue(Serializable[] row);
+
+        KeyAndValue createKeyAndValue(Serializable[] row);
+
+        boolean keyChanged(Serializable[] before, Serializable[] after);
     }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import io.debezium.relational.history.HistoryRecord;
+import io.debezium.util.Collect;
+
+/**
+ * @author Randall Hauch
+ */
+public class BinlogHistoryRecordComparatorTest {
+
+    @Test
+    public void shouldParseSequenceNumberOfBinlogFile() {
+        assertThat(BinlogHistoryRecordComparator.sequenceNumber("mysql-bin.000003")).isEqualTo(3L);
+        assertThat(BinlogHistoryRecordComparator.sequenceNumber("mysql-bin.1000000")).isEqualTo(1000000L);
+        assertThat(BinlogHistoryRecordComparator.sequenceNumber("mysql-bin")).isEqualTo(-1L);
+        assertThat(BinlogHistoryRecordComparator.sequenceNumber("mysql-bin.")).isEqualTo(-1L);
+        assertThat(BinlogHistoryRecordComparator.sequenceNumber("mysql-bin.log")).isEqualTo(-1L);
+        assertThat(BinlogHistoryRecordComparator.sequenceNumber(null)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldCompareFileThenPositionThenRow() {
+        Predicate<HistoryRecord> stop = atOrBefore("mysql-bin.000003", 1000, 2);
+        assertThat(stop.test(record("mysql-bin.000002", 5000, 9))).isTrue();
+        assertThat(stop.test(record("mysql-bin.000003", 999, 9))).isTrue();
+        assertThat(stop.test(record("mysql-bin.000003", 1000, 1))).isTrue();
+        assertThat(stop.test(record("mysql-bin.000003", 1000, 2))).isTrue();
+        assertThat(stop.test(record("mysql-bin.000003", 1000, 3))).isFalse();
+        assertThat(stop.test(record("mysql-bin.000003", 1001, 0))).isFalse();
+        assertThat(stop.test(record("mysql-bin.000004", 4, 0))).isFalse();
+        // The same file name again uses the remembered comparison ...
+        assertThat(stop.test(record("mysql-bin.000002", 5000, 9))).isTrue();
+    }
+
+    @Test
+    public void shouldCompareFilesByNumberAfterExtensionGrows() {
+        Predicate<HistoryRecord> stop = atOrBefore("mysql-bin.1000000", 4, 0);
+        assertThat(stop.test(record("mysql-bin.999999", 5000, 0))).isTrue();
+        stop = atOrBefore("mysql-bin.999999", 5000, 0);
+        assertThat(stop.test(record("mysql-bin.1000000", 4, 0))).isFalse();
+    }
+
+    @Test
+    public void shouldNotMatchRecordsFromOtherServers() {
+        Predicate<HistoryRecord> stop = atOrBefore("mysql-bin.000003", 1000, 0);
+        HistoryRecord other = new HistoryRecord(Collect.hashMapOf(SourceInfo.SERVER_PARTITION_KEY, "other"),
+                position("mysql-bin.000001", 4, 0), "db", "DROP TABLE foo");
+        assertThat(stop.test(other)).isFalse();
+    }
+
+    protected Predicate<HistoryRecord> atOrBefore(String filename, long position, int row) {
+        return BinlogHistoryRecordComparator.INSTANCE.atOrBefore(source(), position(filename, position, row));
+    }
+
+    protected HistoryRecord record(String filename, long position, int row) {
+        return new HistoryRecord(source(), position(filename, position, row), "db", "DROP TABLE foo");
+    }
+
+    protected Map<String, String> source() {
+        return Collect.hashMapOf(SourceInfo.SERVER_PARTITION_KEY, "myserver");
+    }
+
+    protected Map<String, Object> position(String filename, long position, int row) {
+        return Collect.hashMapOf(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, filename,
+                                 SourceInfo.BINLOG_POSITION_OFFSET_KEY, position,
+                                 SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, row);
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.QueryEventData;
+
+import io.debezium.util.Testing;
+
+/**
+ * @author Randall Hauch
+ */
+public class EventQueueTest {
+
+    private File dataDir;
+    private Path spillDir;
+    private EventQueue queue;
+
+    @Before
+    public void beforeEach() {
+        dataDir = Testing.Files.createTestingDirectory("event-queue");
+        Testing.Files.delete(dataDir);
+        spillDir = Testing.Files.createTestingDirectory("event-queue").toPath();
+    }
+
+    @After
+    public void afterEach() {
+        if (queue != null) queue.close();
+        Testing.Files.delete(dataDir);
+    }
+
+    @Test
+    public void shouldKeepEventsInMemoryWhenThereIsRoom() throws InterruptedException {
+        queue = new EventQueue(10, 0, spillDir, "test");
+        for (int i = 0; i != 10; ++i) {
+            queue.put(event(i, 1000));
+        }
+        assertThat(queue.size()).isEqualTo(10);
+        assertThat(queue.spilledEvents()).isEqualTo(0);
+        assertThat(queue.memoryBytes()).isEqualTo(10 * 1000);
+        assertDrainedInOrder(0, 10, 4);
+        assertThat(queue.memoryBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSpillEventsThatExceedTheMaximumBytes() throws InterruptedException {
+        queue = new EventQueue(1000, 5000, spillDir, "test");
+        for (int i = 0; i != 100; ++i) {
+            queue.put(event(i, 1000));
+        }
+        assertThat(queue.size()).isEqualTo(100);
+        assertThat(queue.memoryBytes()).isEqualTo(5000);
+        assertThat(queue.spilledEvents()).isEqualTo(95);
+        assertThat(queue.spilledBytes()).isGreaterThan(0);
+        assertDrainedInOrder(0, 100, 7);
+        assertThat(queue.spilledEvents()).isEqualTo(0);
+        assertThat(queue.spilledBytes()).isEqualTo(0);
+        assertThat(queue.totalSpilledEvents()).isEqualTo(95);
+    }
+
+    @Test
+    public void shouldSpillEventsThatExceedTheMaximumCount() throws InterruptedException {
+        queue = new EventQueue(3, 0, spillDir, "test");
+        for (int i = 0; i != 20; ++i) {
+            queue.put(event(i, 10));
+        }
+        assertThat(queue.spilledEvents()).isEqualTo(17);
+        assertDrainedInOrder(0, 20, 2);
+    }
+
+    @Test
+    public void shouldPreserveOrderWhenAddingWhileDrainingSpilledEvents() throws InterruptedException {
+        queue = new EventQueue(2, 0, spillDir, "test");
+        int added = 0;
+        int next = 0;
+        List<Event> drained = new ArrayList<>();
+        for (int round = 0; round != 50; ++round) {
+            for (int i = 0; i != 5; ++i) {
+                queue.put(event(added++, 100));
+            }
+            drained.clear();
+            queue.drainTo(drained, 3);
+            for (Event event : drained) {
+                assertThat(sequenceOf(event)).isEqualTo(next++);
+            }
+        }
+        assertDrainedInOrder(next, added, 10);
+    }
+
+    @Test
+    public void shouldNotExceedMaximumBytesWhenMovingSpilledEventsIntoMemory() throws InterruptedException {
+        queue = new EventQueue(1000, 5000, spillDir, "test");
+        for (int i = 0; i != 5; ++i) {
+            queue.put(event(i, 1000));
+        }
+        for (int i = 5; i != 25; ++i) {
+            queue.put(event(i, 3000));
+        }
+        assertThat(queue.spilledEvents()).isEqualTo(20);
+        List<Event> drained = new ArrayList<>();
+        int expected = 0;
+        while (expected != 25) {
+            drained.clear();
+            assertThat(queue.drainTo(drained, 5)).isGreaterThan(0);
+            for (Event event : drained) {
+                assertThat(sequenceOf(event)).isEqualTo(expected++);
+            }
+            assertThat(queue.memoryBytes()).isLessThanOrEqualTo(5000);
+        }
+        assertThat(queue.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRemoveSpillFilesOnceTheirEventsAreDrained() throws InterruptedException {
+        queue = new EventQueue(2, 0, spillDir, "test");
+        for (int i = 0; i != 100; ++i) {
+            queue.put(event(i, 100));
+        }
+        assertThat(spillDir.toFile().list()).isNotEmpty();
+        assertDrainedInOrder(0, 100, 10);
+        assertThat(spillDir.toFile().list()).isEmpty();
+        // Spilling again starts a new file ...
+        for (int i = 100; i != 110; ++i) {
+            queue.put(event(i, 100));
+        }
+        assertThat(spillDir.toFile().list()).isNotEmpty();
+        assertDrainedInOrder(100, 110, 10);
+        assertThat(spillDir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    public void shouldPreserveOrderWhenProducerAddsWhileSpilledEventsAreDrained() throws InterruptedException {
+        queue = new EventQueue(10, 2000, spillDir, "test");
+        int total = 5000;
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i != total; ++i) {
+                    queue.put(event(i, 100 + (i % 7) * 100));
+                }
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+        });
+        producer.start();
+        List<Event> drained = new ArrayList<>();
+        int expected = 0;
+        while (expected != total) {
+            drained.clear();
+            queue.drainTo(drained, 7, 10, 0, TimeUnit.SECONDS);
+            for (Event event : drained) {
+                assertThat(sequenceOf(event)).isEqualTo(expected++);
+            }
+            assertThat(queue.memoryBytes()).isLessThanOrEqualTo(2000);
+        }
+        producer.join();
+        assertThat(queue.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldAlwaysAcceptOneEventLargerThanMaximumBytes() throws InterruptedException {
+        queue = new EventQueue(10, 100, null, "test");
+        queue.put(event(0, 1000));
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.memoryBytes()).isEqualTo(1000);
+        assertDrainedInOrder(0, 1, 1);
+    }
+
+    @Test
+    public void shouldReturnNoEventsWhenTimeoutElapses() throws InterruptedException {
+        queue = new EventQueue(10, 0, null, "test");
+        List<Event> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained, 10, 10, 0, TimeUnit.MILLISECONDS)).isEqualTo(0);
+        assertThat(drained).isEmpty();
+    }
+
+    @Test
+    public void shouldWakeWaitingConsumerWhenEventIsAdded() throws InterruptedException {
+        queue = new EventQueue(10, 0, null, "test");
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                queue.put(event(0, 10));
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+        });
+        producer.start();
+        List<Event> drained = new ArrayList<>();
+        long start = System.nanoTime();
+        assertThat(queue.drainTo(drained, 10, 10, 0, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+        producer.join();
+    }
+
+    @Test
+    public void shouldLingerForMoreEventsAfterFirstEvent() throws InterruptedException {
+        queue = new EventQueue(10, 0, null, "test");
+        queue.put(event(0, 10));
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 1; i != 5; ++i) {
+                    Thread.sleep(5);
+                    queue.put(event(i, 10));
+                }
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+        });
+        producer.start();
+        List<Event> drained = new ArrayList<>();
+        // The linger ends as soon as there are enough events ...
+        assertThat(queue.drainTo(drained, 5, 10, 10, TimeUnit.SECONDS)).isEqualTo(5);
+        producer.join();
+    }
+
+    @Test
+    public void shouldWakeWaitingConsumerWhenClosed() throws InterruptedException {
+        queue = new EventQueue(10, 0, null, "test");
+        Thread closer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                queue.close();
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+        });
+        closer.start();
+        assertThat(queue.drainTo(new ArrayList<>(), 10, 10, 10, TimeUnit.SECONDS)).isEqualTo(0);
+        closer.join();
+    }
+
+    protected void assertDrainedInOrder(int first, int end, int batchSize) {
+        List<Event> drained = new ArrayList<>();
+        int expected = first;
+        while (expected != end) {
+            drained.clear();
+            int count = queue.drainTo(drained, batchSize);
+            assertThat(count).isGreaterThan(0);
+            assertThat(count).isLessThanOrEqualTo(batchSize);
+            assertThat(drained.size()).isEqualTo(count);
+            for (Event event : drained) {
+                assertThat(sequenceOf(event)).isEqualTo(expected++);
+            }
+        }
+        assertThat(queue.size()).isEqualTo(0);
+        assertThat(queue.drainTo(drained, batchSize)).isEqualTo(0);
+    }
+
+    protected Event event(int sequence, long size) {
+        EventHeaderV4 header = new EventHeaderV4();
+        header.setEventType(EventType.QUERY);
+        header.setEventLength(size);
+        header.setNextPosition(sequence);
+        QueryEventData data = new QueryEventData();
+        data.setDatabase("db");
+        data.setSql("INSERT INTO t VALUES (" + sequence + ")");
+        return new Event(header, data);
+    }
+
+    protected int sequenceOf(Event event) {
+        return (int) ((EventHeaderV4) event.getHeader()).getNextPosition();
+    }
+}
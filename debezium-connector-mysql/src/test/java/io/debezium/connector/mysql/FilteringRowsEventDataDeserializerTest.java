@@ -0,0 +1,130 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.deserialization.WriteRowsEventDataDeserializer;
+import com.github.shyiko.mysql.binlog.io.ByteArrayInputStream;
+
+import io.debezium.connector.mysql.FilteringRowsEventDataDeserializer.TableNumbers;
+
+/**
+ * @author Randall Hauch
+ */
+public class FilteringRowsEventDataDeserializerTest {
+
+    private static final int MYSQL_TYPE_LONG = 3;
+
+    private TableNumbers tableNumbers;
+    private FilteringRowsEventDataDeserializer<WriteRowsEventData> writes;
+
+    @Before
+    public void beforeEach() {
+        tableNumbers = new TableNumbers((id) -> !id.table().startsWith("excluded"));
+        WriteRowsEventDataDeserializer delegate = new WriteRowsEventDataDeserializer(tableNumbers.tableMapEventByTableId());
+        delegate.setMayContainExtraInformation(true);
+        writes = new FilteringRowsEventDataDeserializer<>(tableNumbers, delegate, () -> {
+            WriteRowsEventData data = new WriteRowsEventData();
+            data.setIncludedColumns(new BitSet());
+            data.setRows(Collections.emptyList());
+            return data;
+        }, WriteRowsEventData::setTableId);
+    }
+
+    @Test
+    public void shouldDeserializeRowsOfIncludedTables() throws IOException {
+        TableMapEventData tableMap = tableNumbers.deserialize(stream(tableMap(42, "db", "included")));
+        assertThat(tableMap.getTableId()).isEqualTo(42L);
+        assertThat(tableMap.getTable()).isEqualTo("included");
+
+        WriteRowsEventData data = writes.deserialize(stream(writeRows(42, 1, 2, 3)));
+        assertThat(data.getTableId()).isEqualTo(42L);
+        assertThat(data.getRows().size()).isEqualTo(3);
+        assertThat(data.getRows().get(0)).isEqualTo(new Serializable[] { 1 });
+        assertThat(data.getRows().get(2)).isEqualTo(new Serializable[] { 3 });
+        assertThat(tableNumbers.skippedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSkipRowsOfExcludedTables() throws IOException {
+        tableNumbers.deserialize(stream(tableMap(0x0102030405L, "db", "excludedTable")));
+        ByteArrayInputStream input = stream(writeRows(0x0102030405L, 1, 2, 3));
+        WriteRowsEventData data = writes.deserialize(input);
+        assertThat(data.getTableId()).isEqualTo(0x0102030405L);
+        assertThat(data.getRows()).isEmpty();
+        assertThat(input.available()).isEqualTo(0);
+        assertThat(tableNumbers.skippedEvents()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeserializeRowsOfUnknownTableNumbers() throws IOException {
+        WriteRowsEventData data = writes.deserialize(stream(writeRows(7, 10)));
+        assertThat(data.getTableId()).isEqualTo(7L);
+        assertThat(tableNumbers.skippedEvents()).isEqualTo(0);
+    }
+
+    protected ByteArrayInputStream stream(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    protected byte[] tableMap(long tableNumber, String database, String table) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTableNumber(out, tableNumber);
+        out.write(0); // flags
+        out.write(0);
+        writeName(out, database);
+        writeName(out, table);
+        out.write(1); // number of columns
+        out.write(MYSQL_TYPE_LONG);
+        out.write(0); // length of the column metadata
+        out.write(0); // nullability of each column
+        return out.toByteArray();
+    }
+
+    protected byte[] writeRows(long tableNumber, int... values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTableNumber(out, tableNumber);
+        out.write(0); // flags
+        out.write(0);
+        out.write(2); // length of the extra information, including this length
+        out.write(0);
+        out.write(1); // number of columns
+        out.write(1); // included columns
+        for (int value : values) {
+            out.write(0); // null bitmap
+            for (int i = 0; i != 4; ++i) {
+                out.write((value >>> (i * 8)) & 0xff);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private void writeTableNumber(ByteArrayOutputStream out, long tableNumber) {
+        for (int i = 0; i != 6; ++i) {
+            out.write((int) ((tableNumber >>> (i * 8)) & 0xff));
+        }
+    }
+
+    private void writeName(ByteArrayOutputStream out, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes.length);
+        out.write(bytes, 0, bytes.length);
+        out.write(0);
+    }
+}
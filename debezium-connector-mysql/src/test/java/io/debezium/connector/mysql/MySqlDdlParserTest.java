@@ -24,6 +24,7 @@
 import io.debezium.relational.ddl.DdlParser;
 import io.debezium.relational.ddl.DdlParserListener.Event;
 import io.debezium.relational.ddl.SimpleDdlParserListener;
+import io.debezium.text.ParsingException;
 import io.debezium.util.IoUtil;
 import io.debezium.util.Testing;
 
@@ -328,6 +329,105 @@ public void shouldParseMySql57InitializationStatements() {
         listener.forEach(this::printEvent);
     }
 
+    @Test
+    public void shouldReplayCachedResultsOfRepeatedStatements() {
+        parser.setParseCacheSize(16);
+        parser.setCurrentSchema("db");
+        String create = "CREATE TABLE IF NOT EXISTS foo ( id INT NOT NULL PRIMARY KEY, name VARCHAR(100) );";
+        parser.parse(create, tables);
+        parser.parse(create, tables); // the table now exists, so the first result does not apply
+        parser.parse("  " + create + System.lineSeparator(), tables);
+        assertThat(parser.parseCacheMisses()).isEqualTo(2);
+        assertThat(parser.parseCacheHits()).isEqualTo(1);
+        assertThat(tables.size()).isEqualTo(1);
+        assertThat(listener.total()).isEqualTo(3);
+
+        String alter = "ALTER TABLE foo ADD COLUMN c1 INT;";
+        parser.parse(alter, tables);
+        parser.parse("ALTER TABLE foo DROP COLUMN c1;", tables);
+        tables.drainChanges();
+        parser.parse(alter, tables);
+        assertThat(parser.parseCacheHits()).isEqualTo(2);
+        assertThat(tables.forTable(new TableId("db", null, "foo")).columnNames()).containsExactly("id", "name", "c1");
+        assertThat(tables.drainChanges()).containsOnly(new TableId("db", null, "foo"));
+
+        // The same statement in another database is not the same ...
+        parser.setCurrentSchema("other");
+        parser.parse(create, tables);
+        assertThat(parser.parseCacheHits()).isEqualTo(2);
+        assertThat(tables.forTable(new TableId("other", null, "foo")).columnNames()).containsExactly("id", "name");
+    }
+
+    @Test
+    public void shouldNotReplayCachedResultsWhenDependentTablesHaveChanged() {
+        parser.setParseCacheSize(16);
+        parser.setCurrentSchema("db");
+        parser.parse("CREATE TABLE foo ( id INT NOT NULL PRIMARY KEY, name VARCHAR(100) );", tables);
+        parser.parse("CREATE TABLE bar LIKE foo;", tables);
+        parser.parse("DROP TABLE bar;", tables);
+        parser.parse("ALTER TABLE foo ADD COLUMN c1 INT;", tables);
+        parser.parse("CREATE TABLE bar LIKE foo;", tables);
+        assertThat(parser.parseCacheHits()).isEqualTo(0);
+        assertThat(tables.forTable(new TableId("db", null, "bar")).columnNames()).containsExactly("id", "name", "c1");
+
+        parser.parse("DROP TABLE bar;", tables);
+        parser.parse("CREATE TABLE bar LIKE foo;", tables);
+        assertThat(parser.parseCacheHits()).isEqualTo(1);
+        assertThat(tables.forTable(new TableId("db", null, "bar")).columnNames()).containsExactly("id", "name", "c1");
+    }
+
+    @Test
+    public void shouldSkimDefinitionsOfExcludedTables() {
+        parser.setTableFilter(id -> !id.table().startsWith("skip"));
+        parser.setCurrentSchema("db");
+        String ddl = "CREATE TABLE skipped ( id INT NOT NULL PRIMARY KEY, flags SET('a','b') DEFAULT 'a', c ENUM('x') );"
+                + "CREATE UNIQUE INDEX idx ON skipped (id);"
+                + "ALTER TABLE skipped ADD COLUMN (d INT, e INT), ALTER COLUMN c SET DEFAULT 'x', RENAME INDEX idx TO idx2;"
+                + "CREATE TABLE kept ( id INT NOT NULL PRIMARY KEY, name VARCHAR(100) );"
+                + "ALTER TABLE skipped DROP COLUMN d, RENAME TO skipped2;"
+                + "CREATE TABLE IF NOT EXISTS skipped2 ( id INT );"
+                + "CREATE TABLE skipped3 LIKE kept;";
+        parser.parse(ddl, tables);
+        assertThat(tables.size()).isEqualTo(3);
+        assertThat(tables.forTable(new TableId("db", null, "skipped"))).isNull();
+        assertThat(tables.forTable(new TableId("db", null, "skipped2")).columns()).isEmpty();
+        assertThat(tables.forTable(new TableId("db", null, "skipped3")).columns()).isEmpty();
+        assertThat(tables.forTable(new TableId("db", null, "kept")).columnNames()).containsExactly("id", "name");
+        assertThat(listener.total()).isEqualTo(7);
+
+        parser.parse("DROP TABLE skipped2, skipped3;", tables);
+        assertThat(tables.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFailToRenameSkimmedShadowTableToIncludedTable() {
+        parser.setTableFilter(id -> !id.table().startsWith("_"));
+        parser.setCurrentSchema("db");
+        String ddl = "CREATE TABLE foo ( id INT NOT NULL PRIMARY KEY, name VARCHAR(100) );"
+                + "CREATE TABLE _foo_gho LIKE foo;"
+                + "ALTER TABLE _foo_gho ADD COLUMN c1 INT;";
+        parser.parse(ddl, tables);
+        assertThat(tables.forTable(new TableId("db", null, "_foo_gho")).columns()).isEmpty();
+        try {
+            parser.parse("RENAME TABLE foo TO _foo_del, _foo_gho TO foo;", tables);
+            fail("Should not rename a skimmed table to an included table");
+        } catch (ParsingException e) {
+            assertThat(e.getMessage()).contains(MySqlConnectorConfig.DDL_SKIM_EXCLUDED_TABLES.name());
+        }
+        // The skimmed table's full definition is not needed to rename it to another excluded table ...
+        parser.parse("ALTER TABLE _foo_gho RENAME TO _foo_old;", tables);
+        assertThat(tables.forTable(new TableId("db", null, "_foo_old")).columns()).isEmpty();
+        try {
+            parser.parse("ALTER TABLE _foo_old RENAME TO foo;", tables);
+            fail("Should not rename a skimmed table to an included table");
+        } catch (ParsingException e) {
+            assertThat(e.getMessage()).contains(MySqlConnectorConfig.DDL_SKIM_EXCLUDED_TABLES.name());
+        }
+        // But an excluded table whose definition is known can be renamed ...
+        parser.parse("RENAME TABLE _foo_del TO foo;", tables);
+        assertThat(tables.forTable(new TableId("db", null, "foo")).columnNames()).containsExactly("id", "name");
+    }
+
     protected void printEvent(Event event) {
         Testing.print(event);
     }
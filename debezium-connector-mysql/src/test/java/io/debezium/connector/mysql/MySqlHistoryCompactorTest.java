@@ -0,0 +1,227 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import io.debezium.config.Configuration;
+import io.debezium.kafka.KafkaCluster;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.DatabaseHistory;
+import io.debezium.relational.history.FileDatabaseHistory;
+import io.debezium.relational.history.KafkaDatabaseHistory;
+import io.debezium.util.Collect;
+import io.debezium.util.Testing;
+
+/**
+ * @author Randall Hauch
+ */
+public class MySqlHistoryCompactorTest {
+
+    private static final Path ORIGINAL_PATH = Testing.Files.createTestingPath("history-original.log");
+    private static final Path COMPACTED_PATH = Testing.Files.createTestingPath("history-compacted.log");
+
+    private final Map<String, String> source = Collect.hashMapOf(SourceInfo.SERVER_PARTITION_KEY, "myserver");
+    private KafkaCluster kafka;
+    private File dataDir;
+
+    @Before
+    public void beforeEach() {
+        Testing.Files.delete(ORIGINAL_PATH);
+        Testing.Files.delete(COMPACTED_PATH);
+    }
+
+    @After
+    public void afterEach() {
+        try {
+            if (kafka != null) kafka.shutdown();
+        } finally {
+            kafka = null;
+            if (dataDir != null) Testing.Files.delete(dataDir);
+        }
+    }
+
+    @Test
+    public void shouldCreateTablesWithSameDefinitions() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse("CREATE TABLE products ( id INT(11) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,"
+                + " name VARCHAR(255) CHARACTER SET utf8 NOT NULL, description TEXT, price DECIMAL(10,2) NOT NULL,"
+                + " weight FLOAT, modified TIMESTAMP NOT NULL ON UPDATE CURRENT_TIMESTAMP );", tables);
+        parser.parse("CREATE TABLE orders ( id BIGINT NOT NULL, line INT NOT NULL, product INT, PRIMARY KEY (id, line) );",
+                     tables);
+        assertRecreated(tables);
+    }
+
+    @Test
+    public void shouldCreateTablesWithQuotedNames() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse("CREATE TABLE `order` ( `select` INT NOT NULL, `from` VARCHAR(10), PRIMARY KEY (`select`) );", tables);
+        parser.parse("CREATE TABLE `db`.`group` ( `key` BIGINT NOT NULL, `a``b` INT, PRIMARY KEY (`key`) );", tables);
+        assertThat(tables.size()).isEqualTo(2);
+        assertRecreated(tables);
+    }
+
+    @Test(expected = ConnectException.class)
+    public void shouldNotCreateTablesWithEnumColumns() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse("CREATE TABLE products ( id INT NOT NULL PRIMARY KEY, size ENUM('S','M','L') );", tables);
+        MySqlHistoryCompactor.createTableStatement(tables.forTable(new TableId("db", null, "products")));
+    }
+
+    @Test(expected = ConnectException.class)
+    public void shouldNotCreateTablesWithSetColumns() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse("CREATE TABLE products ( id INT NOT NULL PRIMARY KEY, flags SET('a','b') NOT NULL );", tables);
+        MySqlHistoryCompactor.createTableStatement(tables.forTable(new TableId("db", null, "products")));
+    }
+
+    @Test
+    public void shouldNotWriteAnyRecordsWhenTableHasEnumColumn() {
+        Configuration original = fileHistoryConfig(ORIGINAL_PATH);
+        Configuration compacted = fileHistoryConfig(COMPACTED_PATH);
+        DatabaseHistory history = new FileDatabaseHistory();
+        history.configure(original.subset(DatabaseHistory.CONFIGURATION_FIELD_PREFIX_STRING, false));
+        history.start();
+        try {
+            Tables tables = new Tables();
+            record(history, tables, "mysql-bin.000001", 100, "CREATE TABLE customers ( id INT NOT NULL PRIMARY KEY );");
+            record(history, tables, "mysql-bin.000001", 200, "CREATE TABLE products ( id INT NOT NULL, size ENUM('S','M') );");
+        } finally {
+            history.stop();
+        }
+        try {
+            MySqlHistoryCompactor.compact(original, compacted, "myserver", position("mysql-bin.000002", 4));
+            fail("Should not compact a history with an ENUM column");
+        } catch (ConnectException e) {
+            // expected
+        }
+        DatabaseHistory compactedHistory = new FileDatabaseHistory();
+        compactedHistory.configure(compacted.subset(DatabaseHistory.CONFIGURATION_FIELD_PREFIX_STRING, false));
+        Tables fromCompacted = new Tables();
+        compactedHistory.recover(source, position("mysql-bin.000002", 4), fromCompacted, new MySqlDdlParser(),
+                                 BinlogHistoryRecordComparator.INSTANCE);
+        assertThat(fromCompacted.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldCompactFileHistory() {
+        Configuration original = fileHistoryConfig(ORIGINAL_PATH);
+        Configuration compacted = fileHistoryConfig(COMPACTED_PATH);
+        recordOriginalHistory(new FileDatabaseHistory(), original);
+        assertCompacted(new FileDatabaseHistory(), original, new FileDatabaseHistory(), compacted);
+    }
+
+    @Test
+    public void shouldCompactKafkaHistory() throws Exception {
+        dataDir = Testing.Files.createTestingDirectory("compactor-cluster");
+        Testing.Files.delete(dataDir);
+        kafka = new KafkaCluster().usingDirectory(dataDir)
+                                  .deleteDataPriorToStartup(true)
+                                  .deleteDataUponShutdown(true)
+                                  .addBrokers(1)
+                                  .startup();
+        kafka.createTopic("original-history", 1, 1);
+        kafka.createTopic("compacted-history", 1, 1);
+        Configuration original = kafkaHistoryConfig("original-history");
+        Configuration compacted = kafkaHistoryConfig("compacted-history");
+        recordOriginalHistory(new KafkaDatabaseHistory(), original);
+        assertCompacted(new KafkaDatabaseHistory(), original, new KafkaDatabaseHistory(), compacted);
+    }
+
+    protected void assertRecreated(Tables tables) {
+        for (TableId id : tables.tableIds()) {
+            Table table = tables.forTable(id);
+            Tables recreated = new Tables();
+            new MySqlDdlParser().parse(MySqlHistoryCompactor.createTableStatement(table), recreated);
+            assertThat(recreated.forTable(id)).isEqualTo(table);
+        }
+    }
+
+    protected void recordOriginalHistory(DatabaseHistory history, Configuration config) {
+        history.configure(config.subset(DatabaseHistory.CONFIGURATION_FIELD_PREFIX_STRING, false));
+        history.start();
+        try {
+            Tables tables = new Tables();
+            record(history, tables, "mysql-bin.000001", 100, "CREATE TABLE customers ( id INT NOT NULL PRIMARY KEY, name VARCHAR(100) );");
+            record(history, tables, "mysql-bin.000001", 200, "CREATE TABLE scratch ( id INT NOT NULL PRIMARY KEY );");
+            for (int i = 0; i != 20; ++i) {
+                record(history, tables, "mysql-bin.000002", 100 + i, "ALTER TABLE scratch ADD COLUMN c" + i + " INT;");
+            }
+            record(history, tables, "mysql-bin.000003", 100, "ALTER TABLE customers ADD COLUMN email VARCHAR(255) NOT NULL;");
+            record(history, tables, "mysql-bin.000003", 200, "DROP TABLE scratch;");
+            record(history, tables, "mysql-bin.000003", 300, "CREATE TABLE orders ( id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY );");
+            // These are after the cutoff ...
+            record(history, tables, "mysql-bin.000004", 100, "ALTER TABLE orders ADD COLUMN customer INT NOT NULL;");
+            record(history, tables, "mysql-bin.000004", 200, "CREATE TABLE addresses ( id INT NOT NULL PRIMARY KEY );");
+        } finally {
+            history.stop();
+        }
+    }
+
+    protected void assertCompacted(DatabaseHistory original, Configuration originalConfig, DatabaseHistory compacted,
+                                   Configuration compactedConfig) {
+        int written = MySqlHistoryCompactor.compact(originalConfig, compactedConfig, "myserver", position("mysql-bin.000003", 300));
+        // One record for each of the 2 tables at the cutoff, plus the 2 records after the cutoff ...
+        assertThat(written).isEqualTo(4);
+
+        original.configure(originalConfig.subset(DatabaseHistory.CONFIGURATION_FIELD_PREFIX_STRING, false));
+        compacted.configure(compactedConfig.subset(DatabaseHistory.CONFIGURATION_FIELD_PREFIX_STRING, false));
+        for (Map<String, ?> position : Collect.arrayListOf(position("mysql-bin.000003", 300), position("mysql-bin.000004", 100),
+                                                           position("mysql-bin.000005", 4))) {
+            Tables fromOriginal = new Tables();
+            original.recover(source, position, fromOriginal, new MySqlDdlParser(), BinlogHistoryRecordComparator.INSTANCE);
+            Tables fromCompacted = new Tables();
+            compacted.recover(source, position, fromCompacted, new MySqlDdlParser(), BinlogHistoryRecordComparator.INSTANCE);
+            assertThat(fromCompacted).isEqualTo(fromOriginal);
+        }
+    }
+
+    protected void record(DatabaseHistory history, Tables tables, String filename, long pos, String ddl) {
+        history.record(source, position(filename, pos), "db", tables, ddl);
+    }
+
+    protected Map<String, ?> position(String filename, long pos) {
+        return Collect.hashMapOf(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, filename,
+                                 SourceInfo.BINLOG_POSITION_OFFSET_KEY, pos,
+                                 SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, 0);
+    }
+
+    protected Configuration fileHistoryConfig(Path path) {
+        return Configuration.create()
+                            .with(MySqlConnectorConfig.DATABASE_HISTORY, FileDatabaseHistory.class.getName())
+                            .with(FileDatabaseHistory.FILE_PATH, path.toAbsolutePath().toString())
+                            .build();
+    }
+
+    protected Configuration kafkaHistoryConfig(String topicName) {
+        return Configuration.create()
+                            .with(MySqlConnectorConfig.DATABASE_HISTORY, KafkaDatabaseHistory.class.getName())
+                            .with(KafkaDatabaseHistory.BOOTSTRAP_SERVERS, kafka.brokerList())
+                            .with(KafkaDatabaseHistory.TOPIC, topicName)
+                            .build();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.Serializable;
+import java.sql.Types;
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import io.debezium.relational.Column;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+
+/**
+ * @author Randall Hauch
+ */
+public class PartialRowImagesTest {
+
+    private Table table;
+    private PartialRowImages images;
+
+    @Before
+    public void beforeEach() {
+        table = Table.editor()
+                     .tableId(new TableId("db", null, "products"))
+                     .addColumns(Column.editor().name("id").typeName("INT").jdbcType(Types.INTEGER).optional(false).create(),
+                                 Column.editor().name("name").typeName("VARCHAR").jdbcType(Types.VARCHAR).length(255)
+                                       .optional(false).create(),
+                                 Column.editor().name("description").typeName("TEXT").jdbcType(Types.VARCHAR)
+                                       .optional(true).create(),
+                                 Column.editor().name("weight").typeName("FLOAT").jdbcType(Types.FLOAT).optional(false)
+                                       .create())
+                     .setPrimaryKeyNames("id")
+                     .create();
+        images = new PartialRowImages(table);
+    }
+
+    @Test
+    public void shouldNotExpandCompleteRows() {
+        Serializable[] row = { 1, "scooter", "small scooter", 3.14f };
+        assertThat(images.columnCount()).isEqualTo(4);
+        assertThat(images.isComplete(columns(0, 1, 2, 3))).isTrue();
+        assertThat(images.isComplete(null)).isTrue();
+        assertThat(images.expand(row, columns(0, 1, 2, 3))).isSameAs(row);
+        assertThat(images.absentColumns(columns(0, 1, 2, 3))).isEmpty();
+    }
+
+    @Test
+    public void shouldExpandPartialRowsIntoColumnPositions() {
+        BitSet included = columns(0, 3);
+        assertThat(images.isComplete(included)).isFalse();
+        Serializable[] row = images.expand(new Serializable[] { 1, 3.14f }, included);
+        assertThat(row).isEqualTo(new Serializable[] { 1, null, null, 3.14f });
+        assertThat(images.absentColumns(included)).containsExactly("name", "description");
+    }
+
+    @Test
+    public void shouldMergeAfterImageWithBeforeImage() {
+        // MINIMAL images have only the primary key before the update, and only the changed columns after the update ...
+        BitSet includedBefore = columns(0);
+        BitSet includedAfter = columns(1);
+        Serializable[] after = images.merge(new Serializable[] { "bicycle" }, includedAfter,
+                                            new Serializable[] { 1 }, includedBefore);
+        assertThat(after).isEqualTo(new Serializable[] { 1, "bicycle", null, null });
+        assertThat(images.absentColumns(includedAfter, includedBefore)).containsExactly("description", "weight");
+        assertThat(images.absentColumns(includedBefore)).containsExactly("name", "description", "weight");
+    }
+
+    @Test
+    public void shouldMakeNonKeyColumnsOptional() {
+        Table optional = PartialRowImages.withOptionalColumns(table);
+        assertThat(optional.columnWithName("id").isOptional()).isFalse();
+        assertThat(optional.columnWithName("name").isOptional()).isTrue();
+        assertThat(optional.columnWithName("description").isOptional()).isTrue();
+        assertThat(optional.columnWithName("weight").isOptional()).isTrue();
+        assertThat(optional.columnWithName("weight").position()).isEqualTo(4);
+        assertThat(PartialRowImages.withOptionalColumns(optional)).isSameAs(optional);
+    }
+
+    protected static BitSet columns(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ */
+public class QueryClassifierTest {
+
+    @Test
+    public void shouldClassifyStatementsThatMayChangeSchema() {
+        assertMayChangeSchema("CREATE TABLE foo (id INT)");
+        assertMayChangeSchema("create table foo (id INT)");
+        assertMayChangeSchema("  \n\tALTER TABLE foo ADD COLUMN c INT");
+        assertMayChangeSchema("DROP TABLE foo");
+        assertMayChangeSchema("RENAME TABLE foo TO bar");
+        assertMayChangeSchema("DROP/* comment */TABLE foo");
+    }
+
+    @Test
+    public void shouldClassifyStatementsThatCannotChangeSchema() {
+        assertCannotChangeSchema("INSERT INTO foo VALUES (1)");
+        assertCannotChangeSchema("UPDATE foo SET c = 'CREATE TABLE bar'");
+        assertCannotChangeSchema("DELETE FROM foo");
+        assertCannotChangeSchema("SAVEPOINT sp1");
+        assertCannotChangeSchema("GRANT ALL ON *.* TO 'bob'");
+        assertCannotChangeSchema("SET @x = 1");
+        assertCannotChangeSchema("CREATED");
+        assertCannotChangeSchema("CREATE_TABLE");
+        assertCannotChangeSchema("");
+        assertCannotChangeSchema("   ");
+        assertCannotChangeSchema(null);
+    }
+
+    @Test
+    public void shouldSkipLeadingComments() {
+        assertMayChangeSchema("/* app=web */ CREATE TABLE foo (id INT)");
+        assertMayChangeSchema("-- create it\nCREATE TABLE foo (id INT)");
+        assertMayChangeSchema("# create it\n/* twice */ ALTER TABLE foo ADD COLUMN c INT");
+        assertCannotChangeSchema("/* CREATE TABLE foo */ INSERT INTO foo VALUES (1)");
+        assertCannotChangeSchema("-- DROP TABLE foo");
+        assertCannotChangeSchema("/* unterminated DROP TABLE foo");
+    }
+
+    @Test
+    public void shouldAssumeExecutableCommentsMayChangeSchema() {
+        assertMayChangeSchema("/*!40000 ALTER TABLE foo DISABLE KEYS */");
+        assertMayChangeSchema("/*!50003 SET @x = 1 */");
+    }
+
+    protected void assertMayChangeSchema(String sql) {
+        assertThat(QueryClassifier.mayChangeSchema(sql)).isTrue();
+    }
+
+    protected void assertCannotChangeSchema(String sql) {
+        assertThat(QueryClassifier.mayChangeSchema(sql)).isFalse();
+    }
+}
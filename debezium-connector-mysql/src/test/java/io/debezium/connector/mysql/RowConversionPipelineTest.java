@@ -0,0 +1,221 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.QueryEventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+
+import io.debezium.connector.mysql.MySqlConnectorTask.EventHandler;
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.MemoryDatabaseHistory;
+import io.debezium.util.Clock;
+
+/**
+ * @author Randall Hauch
+ */
+public class RowConversionPipelineTest {
+
+    private static final String SERVER_NAME = "myserver";
+    private static final String CREATE_TABLES = "CREATE TABLE customers (id INT NOT NULL PRIMARY KEY, name VARCHAR(255), "
+            + "email VARCHAR(255), balance BIGINT);"
+            + "CREATE TABLE orders (id INT NOT NULL PRIMARY KEY, customer INT, quantity INT, description VARCHAR(255));";
+
+    private RowConversionPipeline pipeline;
+    private long position;
+
+    @Before
+    public void beforeEach() {
+        position = 4;
+    }
+
+    @After
+    public void afterEach() {
+        if (pipeline != null) pipeline.shutdown();
+    }
+
+    @Test
+    public void shouldProduceSameRecordsInSameOrderAsSerialConversion() throws InterruptedException {
+        List<Event> events = generateEvents(20, 50);
+        List<SourceRecord> expected = convertSerially(events);
+        List<SourceRecord> actual = convertConcurrently(events, 4);
+        assertThat(expected.isEmpty()).isFalse();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldProduceSameOffsetsForEachRowAsSerialConversion() throws InterruptedException {
+        List<Event> events = generateEvents(10, 100);
+        List<SourceRecord> expected = convertSerially(events);
+        List<SourceRecord> actual = convertConcurrently(events, 3);
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i != expected.size(); ++i) {
+            assertThat(actual.get(i).sourceOffset()).isEqualTo(expected.get(i).sourceOffset());
+            assertThat(actual.get(i).topic()).isEqualTo(expected.get(i).topic());
+        }
+    }
+
+    @Test
+    public void shouldProduceNoRecordsForEmptyBatch() throws InterruptedException {
+        TableConverters converters = createConverters();
+        pipeline = new RowConversionPipeline(converters, 2, SERVER_NAME);
+        assertThat(pipeline.complete()).isEmpty();
+    }
+
+    protected List<SourceRecord> convertSerially(List<Event> events) {
+        TableConverters converters = createConverters();
+        Map<EventType, EventHandler> handlers = handlersFor(converters);
+        SourceInfo source = createSource();
+        List<SourceRecord> records = new ArrayList<>();
+        events.forEach(event -> {
+            positionSourceAt(source, event);
+            EventHandler handler = handlers.get(event.getHeader().getEventType());
+            if (handler != null) handler.handle(event, source, records::add);
+        });
+        return records;
+    }
+
+    protected List<SourceRecord> convertConcurrently(List<Event> events, int threads) throws InterruptedException {
+        TableConverters converters = createConverters();
+        Map<EventType, EventHandler> handlers = handlersFor(converters);
+        SourceInfo source = createSource();
+        if (pipeline != null) pipeline.shutdown();
+        pipeline = new RowConversionPipeline(converters, threads, SERVER_NAME);
+        events.forEach(event -> {
+            positionSourceAt(source, event);
+            pipeline.submit(event, source, handlers.get(event.getHeader().getEventType()));
+        });
+        return pipeline.complete();
+    }
+
+    protected TableConverters createConverters() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse(CREATE_TABLES, tables);
+        tables.drainChanges();
+        Clock clock = () -> 1000L;
+        TableConverters converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), false,
+                clock, (dbName) -> true, tables, null, null, null);
+        converters.loadTables();
+        return converters;
+    }
+
+    protected Map<EventType, EventHandler> handlersFor(TableConverters converters) {
+        Map<EventType, EventHandler> handlers = new EnumMap<>(EventType.class);
+        handlers.put(EventType.TABLE_MAP, converters::updateTableMetadata);
+        handlers.put(EventType.QUERY, converters::updateTableCommand);
+        handlers.put(EventType.EXT_WRITE_ROWS, converters::handleInsert);
+        handlers.put(EventType.EXT_UPDATE_ROWS, converters::handleUpdate);
+        handlers.put(EventType.EXT_DELETE_ROWS, converters::handleDelete);
+        return handlers;
+    }
+
+    protected SourceInfo createSource() {
+        SourceInfo source = new SourceInfo();
+        source.setServerName(SERVER_NAME);
+        source.setBinlogFilename("mysql-bin.000001");
+        return source;
+    }
+
+    protected void positionSourceAt(SourceInfo source, Event event) {
+        EventHeaderV4 header = event.getHeader();
+        source.setBinlogTimestamp(header.getTimestamp());
+        source.setBinlogServerId(header.getServerId());
+        source.setBinlogPosition(header.getNextPosition());
+        source.setRowInEvent(0);
+    }
+
+    protected List<Event> generateEvents(int transactions, int rowsPerEvent) {
+        List<Event> events = new ArrayList<>();
+        BitSet includedColumns = new BitSet();
+        includedColumns.set(0, 4);
+        for (int txn = 0; txn != transactions; ++txn) {
+            events.add(event(EventType.QUERY, query("BEGIN")));
+            events.add(event(EventType.TABLE_MAP, tableMap(100, "customers")));
+            events.add(event(EventType.TABLE_MAP, tableMap(101, "orders")));
+            List<Serializable[]> customers = new ArrayList<>();
+            List<Serializable[]> orders = new ArrayList<>();
+            List<Map.Entry<Serializable[], Serializable[]>> updates = new ArrayList<>();
+            for (int row = 0; row != rowsPerEvent; ++row) {
+                int id = txn * rowsPerEvent + row;
+                customers.add(new Serializable[] { id, "name" + id, "user" + id + "@example.com", (long) id * 100 });
+                orders.add(new Serializable[] { id, id, row, "Order number " + id });
+                Serializable[] before = new Serializable[] { id, "name" + id, "user" + id + "@example.com", (long) id * 100 };
+                Serializable[] after = new Serializable[] { row % 10 == 0 ? id + 1_000_000 : id, "name" + id,
+                        "user" + id + "@example.org", (long) id * 200 };
+                updates.add(new AbstractMap.SimpleEntry<>(before, after));
+            }
+            WriteRowsEventData insertCustomers = new WriteRowsEventData();
+            insertCustomers.setTableId(100);
+            insertCustomers.setIncludedColumns(includedColumns);
+            insertCustomers.setRows(customers);
+            events.add(event(EventType.EXT_WRITE_ROWS, insertCustomers));
+            WriteRowsEventData insertOrders = new WriteRowsEventData();
+            insertOrders.setTableId(101);
+            insertOrders.setIncludedColumns(includedColumns);
+            insertOrders.setRows(orders);
+            events.add(event(EventType.EXT_WRITE_ROWS, insertOrders));
+            UpdateRowsEventData updateCustomers = new UpdateRowsEventData();
+            updateCustomers.setTableId(100);
+            updateCustomers.setIncludedColumns(includedColumns);
+            updateCustomers.setIncludedColumnsBeforeUpdate(includedColumns);
+            updateCustomers.setRows(updates);
+            events.add(event(EventType.EXT_UPDATE_ROWS, updateCustomers));
+            DeleteRowsEventData deleteOrders = new DeleteRowsEventData();
+            deleteOrders.setTableId(101);
+            deleteOrders.setIncludedColumns(includedColumns);
+            deleteOrders.setRows(orders);
+            events.add(event(EventType.EXT_DELETE_ROWS, deleteOrders));
+        }
+        return events;
+    }
+
+    protected Event event(EventType type, EventData data) {
+        EventHeaderV4 header = new EventHeaderV4();
+        header.setEventType(type);
+        header.setServerId(1);
+        header.setTimestamp(position);
+        header.setNextPosition(position += 100);
+        return new Event(header, data);
+    }
+
+    protected TableMapEventData tableMap(long tableNumber, String tableName) {
+        TableMapEventData data = new TableMapEventData();
+        data.setTableId(tableNumber);
+        data.setDatabase("db");
+        data.setTable(tableName);
+        return data;
+    }
+
+    protected QueryEventData query(String sql) {
+        QueryEventData data = new QueryEventData();
+        data.setDatabase("db");
+        data.setSql(sql);
+        return data;
+    }
+}
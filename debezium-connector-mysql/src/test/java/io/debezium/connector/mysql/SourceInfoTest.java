@@ -0,0 +1,110 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import io.debezium.util.Collect;
+
+/**
+ * @author Randall Hauch
+ */
+public class SourceInfoTest {
+
+    private SourceInfo source;
+
+    @Before
+    public void beforeEach() {
+        source = new SourceInfo();
+        source.setServerName("my-server");
+        source.setBinlogFilename("mysql-bin.000003");
+        source.setBinlogPosition(105586);
+        source.setBinlogServerId(1);
+        source.setBinlogTimestamp(1000);
+    }
+
+    @Test
+    public void shouldProduceOffsetEqualToMapOfSameValues() {
+        Map<String, ?> offset = source.offset(2);
+        Map<String, Object> expected = Collect.hashMapOf(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, "mysql-bin.000003",
+                                                         SourceInfo.BINLOG_POSITION_OFFSET_KEY, 105586L,
+                                                         SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, 2);
+        assertThat(offset).isEqualTo(expected);
+        assertThat(expected).isEqualTo(offset);
+        assertThat(offset.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(new HashMap<>(offset)).isEqualTo(expected);
+        assertThat(offset.get(SourceInfo.BINLOG_POSITION_OFFSET_KEY)).isEqualTo(105586L);
+        assertThat(offset.get("other")).isNull();
+    }
+
+    @Test
+    public void shouldReuseOffsetAndStructForSameRow() {
+        Map<String, ?> offset = source.offset(0);
+        Struct struct = source.struct();
+        assertThat(source.offset(0)).isSameAs(offset);
+        assertThat(source.offset()).isSameAs(offset);
+        assertThat(source.struct()).isSameAs(struct);
+    }
+
+    @Test
+    public void shouldDeriveOffsetAndStructForOtherRowsInSameEvent() {
+        Map<String, ?> first = source.offset(0);
+        Struct firstStruct = source.struct();
+        Map<String, ?> second = source.offset(1);
+        Struct secondStruct = source.struct();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.get(SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY)).isEqualTo(1);
+        assertThat(second.get(SourceInfo.BINLOG_POSITION_OFFSET_KEY)).isEqualTo(105586L);
+        assertThat(first.get(SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY)).isEqualTo(0);
+        assertThat(secondStruct).isNotSameAs(firstStruct);
+        assertThat(secondStruct.getInt32(SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY)).isEqualTo(1);
+        assertThat(firstStruct.getInt32(SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRebuildOffsetAndStructWhenPositionChanges() {
+        Map<String, ?> offset = source.offset(0);
+        Struct struct = source.struct();
+        source.setBinlogPosition(200000);
+        assertThat(source.offset(0)).isNotSameAs(offset);
+        assertThat(source.offset().get(SourceInfo.BINLOG_POSITION_OFFSET_KEY)).isEqualTo(200000L);
+        assertThat(source.struct()).isNotSameAs(struct);
+        assertThat(source.struct().getInt64(SourceInfo.BINLOG_POSITION_OFFSET_KEY)).isEqualTo(200000L);
+
+        source.setBinlogFilename("mysql-bin.000004");
+        assertThat(source.offset().get(SourceInfo.BINLOG_FILENAME_OFFSET_KEY)).isEqualTo("mysql-bin.000004");
+        assertThat(source.struct().getString(SourceInfo.BINLOG_FILENAME_OFFSET_KEY)).isEqualTo("mysql-bin.000004");
+    }
+
+    @Test
+    public void shouldRebuildStructWhenTimestampChanges() {
+        Struct struct = source.struct();
+        source.setBinlogTimestamp(1000);
+        assertThat(source.struct()).isSameAs(struct);
+        source.setBinlogTimestamp(2000);
+        assertThat(source.struct()).isNotSameAs(struct);
+        assertThat(source.struct().getInt64(SourceInfo.BINLOG_EVENT_TIMESTAMP_KEY)).isEqualTo(2000L);
+    }
+
+    @Test
+    public void shouldRestoreOffsetFromPreviouslyProducedOffset() {
+        Map<String, ?> offset = source.offset(7);
+        SourceInfo restored = new SourceInfo();
+        restored.setServerName("my-server");
+        restored.setOffset(new HashMap<>(offset));
+        assertThat(restored.binlogFilename()).isEqualTo("mysql-bin.000003");
+        assertThat(restored.binlogPosition()).isEqualTo(105586L);
+        assertThat(restored.eventRowNumber()).isEqualTo(7);
+        assertThat(restored.offset()).isEqualTo(offset);
+    }
+}
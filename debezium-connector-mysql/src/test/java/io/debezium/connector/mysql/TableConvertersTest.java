@@ -5,40 +5,223 @@
  */
 package io.debezium.connector.mysql;
 
-import static org.junit.Assert.fail;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
-import org.junit.Ignore;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.Before;
 import org.junit.Test;
 
+import static org.fest.assertions.Assertions.assertThat;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.QueryEventData;
+import com.github.shyiko.mysql.binlog.event.RotateEventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.MemoryDatabaseHistory;
+
 /**
  * @author Randall Hauch
  */
-@Ignore
 public class TableConvertersTest {
 
+    private Tables tables;
+    private TableConverters converters;
+    private SourceInfo source;
+    private List<SourceRecord> records;
+    private long position;
+
+    @Before
+    public void beforeEach() {
+        tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse("CREATE TABLE customers (id INT NOT NULL PRIMARY KEY, name VARCHAR(255));", tables);
+        tables.drainChanges();
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), false,
+                () -> 1000L, (dbName) -> true, tables, null, null, null);
+        converters.loadTables();
+        source = new SourceInfo();
+        source.setServerName("myserver");
+        source.setBinlogFilename("mysql-bin.000001");
+        records = new ArrayList<>();
+        position = 4;
+    }
+
     @Test
-    public void shouldHandleMetadataEventToUpdateTables() {
-        fail("Not yet implemented");
+    public void shouldReuseConverterAfterRotatingLogs() {
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(100)), source, records::add);
+        assertThat(converters.converterCacheMisses()).isEqualTo(1);
+        assertThat(converters.converterCacheHits()).isEqualTo(0);
+
+        converters.rotateLogs(event(EventType.ROTATE, rotate("mysql-bin.000002")), source, records::add);
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(1)), source, records::add);
+        assertThat(converters.converterCacheMisses()).isEqualTo(1);
+        assertThat(converters.converterCacheHits()).isEqualTo(1);
+
+        // The converter must be bound to the new table number ...
+        converters.handleInsert(event(EventType.EXT_WRITE_ROWS, insert(1)), source, records::add);
+        assertThat(records.size()).isEqualTo(1);
+        assertThat(records.get(0).topic()).isEqualTo("myserver.db.customers");
     }
 
     @Test
-    public void shouldProduceSourceRecorForMetadataEventWhenConfigured() {
-        fail("Not yet implemented");
+    public void shouldCreateNewConverterAfterTableChanges() {
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(100)), source, records::add);
+        converters.updateTableCommand(event(EventType.QUERY, query("ALTER TABLE customers ADD COLUMN email VARCHAR(255)")),
+                                      source, records::add);
+        converters.rotateLogs(event(EventType.ROTATE, rotate("mysql-bin.000002")), source, records::add);
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(1)), source, records::add);
+        assertThat(converters.converterCacheMisses()).isEqualTo(2);
+        assertThat(converters.converterCacheHits()).isEqualTo(0);
     }
 
     @Test
-    public void shouldProduceSourceRecorForInsertEvent() {
-        fail("Not yet implemented");
+    public void shouldNotCreateConvertersForExcludedTables() {
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), false,
+                () -> 1000L, (dbName) -> true, tables, (id) -> !id.table().equals("customers"), null, null);
+        converters.loadTables(id -> true);
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(100)), source, records::add);
+        converters.handleInsert(event(EventType.EXT_WRITE_ROWS, insert(100)), source, records::add);
+        assertThat(records).isEmpty();
+        assertThat(converters.converterCacheMisses()).isEqualTo(0);
     }
 
     @Test
-    public void shouldProduceSourceRecorForUpdateEvent() {
-        fail("Not yet implemented");
+    public void shouldCreateSchemaFromCurrentTableDefinitionWhenFirstNeeded() {
+        converters.updateTableCommand(event(EventType.QUERY, query("ALTER TABLE customers ADD COLUMN email VARCHAR(255)")),
+                                      source, records::add);
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(100)), source, records::add);
+        converters.handleInsert(event(EventType.EXT_WRITE_ROWS, insert(100)), source, records::add);
+        assertThat(records.size()).isEqualTo(1);
+        Struct after = ((Struct) records.get(0).value()).getStruct("after");
+        assertThat(after.schema().field("email")).isNotNull();
+        assertThat(after.getString("name")).isEqualTo("Sally");
     }
 
     @Test
-    public void shouldProduceSourceRecorForDeleteEvent() {
-        fail("Not yet implemented");
+    public void shouldNotParseOrRecordStatementsThatCannotChangeSchema() {
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), true,
+                () -> 1000L, (dbName) -> true, tables, null, null, null, null, false, false, 0, false);
+        converters.updateTableCommand(event(EventType.QUERY, query("INSERT INTO customers VALUES (2, 'Bob')")), source, records::add);
+        converters.updateTableCommand(event(EventType.QUERY, query("/* app */ SAVEPOINT sp1")), source, records::add);
+        assertThat(converters.nonSchemaStatements()).isEqualTo(2);
+        assertThat(records).isEmpty();
+
+        converters.updateTableCommand(event(EventType.QUERY, query("ALTER TABLE customers ADD COLUMN email VARCHAR(255)")),
+                                      source, records::add);
+        assertThat(converters.nonSchemaStatements()).isEqualTo(2);
+        assertThat(records.size()).isEqualTo(1);
+        assertThat(tables.forTable("db", null, "customers").columnWithName("email")).isNotNull();
+    }
+
+    @Test
+    public void shouldRecordStatementsThatCannotChangeSchemaByDefault() {
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), true,
+                () -> 1000L, (dbName) -> true, tables, null, null, null);
+        converters.updateTableCommand(event(EventType.QUERY, query("GRANT ALL ON db.* TO 'bob'")), source, records::add);
+        assertThat(converters.nonSchemaStatements()).isEqualTo(1);
+        assertThat(records.size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldRecordOnlyColumnsAbsentFromBothImagesWhenUpdateChangesPrimaryKey() {
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), false,
+                () -> 1000L, (dbName) -> true, tables, null, null, null, null, true);
+        converters.updateTableCommand(event(EventType.QUERY, query("ALTER TABLE customers ADD COLUMN email VARCHAR(255)")),
+                                      source, records::add);
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap(100)), source, records::add);
+
+        // The before image has the id and name, while the after image has only the changed id ...
+        BitSet includedBefore = new BitSet();
+        includedBefore.set(0, 2);
+        BitSet includedAfter = new BitSet();
+        includedAfter.set(0);
+        converters.handleUpdate(event(EventType.EXT_UPDATE_ROWS, update(100, includedBefore, new Serializable[] { 1, "Sally" },
+                                                                          includedAfter, new Serializable[] { 2 })),
+                                source, records::add);
+        assertThat(records.size()).isEqualTo(3);
+
+        // The create event has the merged name, and only the email is unknown ...
+        Struct create = (Struct) records.get(0).value();
+        assertThat(create.getStruct("after").getInt32("id")).isEqualTo(2);
+        assertThat(create.getStruct("after").getString("name")).isEqualTo("Sally");
+        assertThat(create.get(PartialRowImages.AFTER_ABSENT_FIELD)).isEqualTo(Collections.singletonList("email"));
+        assertThat(create.get(PartialRowImages.BEFORE_ABSENT_FIELD)).isNull();
+
+        // The delete event for the old key has only the before image ...
+        Struct delete = (Struct) records.get(1).value();
+        assertThat(delete.getStruct("before").getInt32("id")).isEqualTo(1);
+        assertThat(delete.get(PartialRowImages.BEFORE_ABSENT_FIELD)).isEqualTo(Collections.singletonList("email"));
+        assertThat(delete.get(PartialRowImages.AFTER_ABSENT_FIELD)).isNull();
+        assertThat(records.get(2).value()).isNull();
+    }
+
+    protected Event event(EventType type, EventData data) {
+        EventHeaderV4 header = new EventHeaderV4();
+        header.setEventType(type);
+        header.setServerId(1);
+        header.setTimestamp(position);
+        header.setNextPosition(position += 100);
+        return new Event(header, data);
+    }
+
+    protected TableMapEventData tableMap(long tableNumber) {
+        TableMapEventData data = new TableMapEventData();
+        data.setTableId(tableNumber);
+        data.setDatabase("db");
+        data.setTable("customers");
+        return data;
+    }
+
+    protected RotateEventData rotate(String filename) {
+        RotateEventData data = new RotateEventData();
+        data.setBinlogFilename(filename);
+        data.setBinlogPosition(4);
+        return data;
+    }
+
+    protected QueryEventData query(String sql) {
+        QueryEventData data = new QueryEventData();
+        data.setDatabase("db");
+        data.setSql(sql);
+        return data;
+    }
+
+    protected WriteRowsEventData insert(long tableNumber) {
+        BitSet includedColumns = new BitSet();
+        includedColumns.set(0, 2);
+        List<Serializable[]> rows = new ArrayList<>();
+        rows.add(new Serializable[] { 1, "Sally" });
+        WriteRowsEventData data = new WriteRowsEventData();
+        data.setTableId(tableNumber);
+        data.setIncludedColumns(includedColumns);
+        data.setRows(rows);
+        return data;
+    }
+
+    protected UpdateRowsEventData update(long tableNumber, BitSet includedBefore, Serializable[] before,
+                                         BitSet includedAfter, Serializable[] after) {
+        List<Map.Entry<Serializable[], Serializable[]>> rows = new ArrayList<>();
+        rows.add(new AbstractMap.SimpleEntry<>(before, after));
+        UpdateRowsEventData data = new UpdateRowsEventData();
+        data.setTableId(tableNumber);
+        data.setIncludedColumnsBeforeUpdate(includedBefore);
+        data.setIncludedColumns(includedAfter);
+        data.setRows(rows);
+        return data;
+    }
 }
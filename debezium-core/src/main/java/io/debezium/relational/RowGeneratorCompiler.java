@@ -0,0 +1,393 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.annotation.ThreadSafe;
+import io.debezium.relational.TableSchema.KeyAndValue;
+import io.debezium.relational.mapping.ColumnMappers;
+
+/**
+ * Compiles the key and value generators for a single table into specialized functions, as an alternative to the generic
+ * generators created by {@link TableSchemaBuilder} that loop over arrays of fields and {@link ValueConverter}s.
+ * <p>
+ * The generator for a table is a chain of {@link MethodHandle}s with one link per included column, so the loop over the columns
+ * is unrolled and the row index, converter, and fields of each column are constants that the JIT compiler can inline. For the
+ * JDBC types whose standard conversion returns values of the expected Java class unchanged (e.g., {@link Integer} values of
+ * {@link Types#INTEGER} columns), the conversion is skipped altogether for values of that class. And any converted value whose
+ * class is exactly that required by the field's {@link Schema} is written directly into the {@link Struct} without the schema
+ * validation performed by {@link Struct#put(Field, Object)}; all other values are still put and validated as usual.
+ * <p>
+ * Writing directly into a {@link Struct} requires access to its internal array of values. When that is not possible,
+ * {@link #isAvailable()} returns {@code false} and callers should use the generic generators.
+ *
+ * @author Randall Hauch
+ */
+@ThreadSafe
+@Immutable
+final class RowGeneratorCompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowGeneratorCompiler.class);
+    private static final MethodHandle STRUCT_VALUES = structValuesGetter();
+    private static final MethodHandle ELEMENT = MethodHandles.arrayElementGetter(Object[].class);
+    private static final MethodHandle IDENTITY = MethodHandles.identity(Object.class);
+    private static final MethodHandle CONVERT;
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle HAS_CLASS;
+    private static final MethodHandle NO_OP;
+    private static final MethodHandle WRITE;
+
+    static {
+        try {
+            Lookup lookup = MethodHandles.lookup();
+            CONVERT = lookup.findVirtual(ValueConverter.class, "convert", MethodType.methodType(Object.class, Object.class));
+            IS_NULL = lookup.findStatic(RowGeneratorCompiler.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+            HAS_CLASS = lookup.findStatic(RowGeneratorCompiler.class, "hasClass",
+                                          MethodType.methodType(boolean.class, Class.class, Object.class));
+            MethodType writerType = MethodType.methodType(void.class, Object[].class, Struct.class, Object[].class, Struct.class,
+                                                          Object[].class);
+            NO_OP = lookup.findStatic(RowGeneratorCompiler.class, "noOp", writerType);
+            WRITE = lookup.findVirtual(ColumnWriter.class, "write", writerType.changeParameterType(0, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle structValuesGetter() {
+        try {
+            java.lang.reflect.Field values = Struct.class.getDeclaredField("values");
+            values.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(values).asType(MethodType.methodType(Object[].class, Struct.class));
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            LOGGER.warn("Unable to access the values of Kafka Connect Struct objects, so specialized row generators will not be used",
+                        e);
+            return null;
+        }
+    }
+
+    /**
+     * Determine whether specialized generators can be compiled in this environment.
+     *
+     * @return {@code true} if specialized generators are available, or {@code false} otherwise
+     */
+    public static boolean isAvailable() {
+        return STRUCT_VALUES != null;
+    }
+
+    private final TableId tableId;
+    private final List<Column> columns;
+    private final Schema keySchema;
+    private final Schema valueSchema;
+    private final int[] recordIndexes;
+    private final Field[] keyFields;
+    private final Field[] valueFields;
+    private final ValueConverter[] converters;
+    private final ValueConverter[] mappingConverters;
+    private final boolean inlineStandardConversions;
+
+    /**
+     * Create a compiler for the given table.
+     *
+     * @param builder the builder that creates the {@link ValueConverter}s for the columns; may not be null
+     * @param table the table definition; may not be null
+     * @param keySchema the Kafka Connect schema for the key; may be null if the table has no primary key
+     * @param valueSchema the Kafka Connect schema for the value; may be null if there is no known schema
+     * @param filter the filter that specifies whether columns in the table should be included in the value; may be null if all
+     *            columns are to be included
+     * @param mappers the mapping functions for columns in the value; may be null if none of the columns are to be mapped to
+     *            different values
+     */
+    RowGeneratorCompiler(TableSchemaBuilder builder, Table table, Schema keySchema, Schema valueSchema,
+            Predicate<ColumnId> filter, ColumnMappers mappers) {
+        this.tableId = table.id();
+        this.columns = table.columns();
+        this.keySchema = keySchema;
+        this.valueSchema = valueSchema;
+        int numColumns = columns.size();
+        this.recordIndexes = builder.indexesForColumns(columns);
+        this.keyFields = new Field[numColumns];
+        this.valueFields = new Field[numColumns];
+        this.converters = new ValueConverter[numColumns];
+        this.mappingConverters = new ValueConverter[numColumns];
+        for (int i = 0; i != numColumns; ++i) {
+            Column column = columns.get(i);
+            if (keySchema != null && table.isPrimaryKeyColumn(column.name())) {
+                keyFields[i] = keySchema.field(column.name());
+            }
+            if (valueSchema != null && (filter == null || filter.test(new ColumnId(tableId, column.name())))) {
+                valueFields[i] = valueSchema.field(column.name());
+                if (mappers != null) mappingConverters[i] = mappers.mappingConverterFor(tableId, column);
+            }
+            Field field = valueFields[i] != null ? valueFields[i] : keyFields[i];
+            if (field != null) converters[i] = builder.createValueConverterFor(column, field);
+        }
+        this.inlineStandardConversions = usesStandardConverters(builder);
+    }
+
+    /**
+     * Compile the function that produces only the Kafka Connect key for a row of data.
+     *
+     * @return the key-generating function, or null if there is no key schema
+     */
+    public Function<Object[], Object> keyGenerator() {
+        if (keySchema == null) return null;
+        Function<Object[], KeyAndValue> generator = compile(true, false);
+        return (row) -> generator.apply(row).key();
+    }
+
+    /**
+     * Compile the function that produces only the Kafka Connect value for a row of data.
+     *
+     * @return the value-generating function, or null if there is no value schema
+     */
+    public Function<Object[], Struct> valueGenerator() {
+        if (valueSchema == null) return null;
+        Function<Object[], KeyAndValue> generator = compile(false, true);
+        return (row) -> generator.apply(row).value();
+    }
+
+    /**
+     * Compile the function that produces both the Kafka Connect key and value for a row of data, converting each column only
+     * once.
+     *
+     * @return the function that generates both the key and value, or null if there is no key schema and no value schema
+     */
+    public Function<Object[], KeyAndValue> keyAndValueGenerator() {
+        if (keySchema == null && valueSchema == null) return null;
+        return compile(keySchema != null, valueSchema != null);
+    }
+
+    private Function<Object[], KeyAndValue> compile(boolean includeKey, boolean includeValue) {
+        // Build the chain from the last column to the first, so that the columns are written in order ...
+        MethodHandle writer = NO_OP;
+        for (int i = columns.size() - 1; i >= 0; --i) {
+            Field keyField = includeKey ? keyFields[i] : null;
+            Field valueField = includeValue ? valueFields[i] : null;
+            if (converters[i] == null || (keyField == null && valueField == null)) continue;
+            Column column = columns.get(i);
+            MethodHandle columnValue = MethodHandles.insertArguments(ELEMENT, 1, recordIndexes[i]);
+            columnValue = MethodHandles.filterReturnValue(columnValue, conversion(converters[i], naturalClassFor(column)));
+            ColumnWriter columnWriter = new ColumnWriter(tableId, column, keyField, valueField, mappingConverters[i]);
+            MethodHandle write = MethodHandles.filterArguments(WRITE.bindTo(columnWriter), 0, columnValue);
+            writer = MethodHandles.foldArguments(writer, write);
+        }
+        Schema keySchema = includeKey ? this.keySchema : null;
+        Schema valueSchema = includeValue ? this.valueSchema : null;
+        MethodHandle rowWriter = writer;
+        return (row) -> {
+            Struct key = keySchema != null ? new Struct(keySchema) : null;
+            Struct value = valueSchema != null ? new Struct(valueSchema) : null;
+            try {
+                rowWriter.invokeExact(row, key, valuesOf(key), value, valuesOf(value));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Unexpected error converting row for " + tableId, t);
+            }
+            return new KeyAndValue(key, value);
+        };
+    }
+
+    private MethodHandle conversion(ValueConverter converter, Class<?> naturalClass) {
+        // Null values are never converted ...
+        MethodHandle conversion = MethodHandles.guardWithTest(IS_NULL, IDENTITY, CONVERT.bindTo(converter));
+        if (inlineStandardConversions && naturalClass != null) {
+            // and the standard conversion returns values of the natural class unchanged ...
+            conversion = MethodHandles.guardWithTest(HAS_CLASS.bindTo(naturalClass), IDENTITY, conversion);
+        }
+        return conversion;
+    }
+
+    /**
+     * Get the class of values that the {@link TableSchemaBuilder#createValueConverterFor(Column, Field) standard conversion} for
+     * the column returns unchanged.
+     *
+     * @param column the column definition; may not be null
+     * @return the class of values that need no conversion, or null if all values must be converted
+     */
+    static Class<?> naturalClassFor(Column column) {
+        switch (column.jdbcType()) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return Boolean.class;
+            case Types.BLOB:
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return byte[].class;
+            case Types.TINYINT:
+                return Byte.class;
+            case Types.SMALLINT:
+                return Short.class;
+            case Types.INTEGER:
+                return Integer.class;
+            case Types.BIGINT:
+                return Long.class;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return Double.class;
+            case Types.REAL:
+                return Float.class;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return BigDecimal.class;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.CLOB:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.NCLOB:
+            case Types.DATALINK:
+            case Types.SQLXML:
+                return String.class;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the only class of values that Kafka Connect accepts for the given schema.
+     *
+     * @param schema the field's schema; may not be null
+     * @return the class of valid values, or null if values for the schema must always be validated
+     */
+    static Class<?> expectedClassFor(Schema schema) {
+        if (schema.name() != null) {
+            switch (schema.name()) {
+                case Decimal.LOGICAL_NAME:
+                    return BigDecimal.class;
+                case Date.LOGICAL_NAME:
+                case Time.LOGICAL_NAME:
+                case Timestamp.LOGICAL_NAME:
+                    return java.util.Date.class;
+            }
+        }
+        switch (schema.type()) {
+            case INT8:
+                return Byte.class;
+            case INT16:
+                return Short.class;
+            case INT32:
+                return Integer.class;
+            case INT64:
+                return Long.class;
+            case FLOAT32:
+                return Float.class;
+            case FLOAT64:
+                return Double.class;
+            case BOOLEAN:
+                return Boolean.class;
+            case STRING:
+                return String.class;
+            case BYTES:
+                return byte[].class;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean usesStandardConverters(TableSchemaBuilder builder) {
+        for (Class<?> clazz = builder.getClass(); clazz != TableSchemaBuilder.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("createValueConverterFor", Column.class, Field.class);
+                return false;
+            } catch (NoSuchMethodException e) {
+                // not overridden in this class ...
+            }
+        }
+        return true;
+    }
+
+    private static Object[] valuesOf(Struct struct) throws Throwable {
+        return struct != null ? (Object[]) STRUCT_VALUES.invokeExact(struct) : null;
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean isNull(Object value) {
+        return value == null;
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean hasClass(Class<?> clazz, Object value) {
+        return value != null && value.getClass() == clazz;
+    }
+
+    @SuppressWarnings("unused")
+    private static void noOp(Object[] row, Struct key, Object[] keyValues, Struct value, Object[] valueValues) {
+    }
+
+    /**
+     * Writes the converted value of a single column into the key and/or value.
+     */
+    @Immutable
+    private static final class ColumnWriter {
+        private final TableId tableId;
+        private final Column column;
+        private final Field keyField;
+        private final Class<?> keyClass;
+        private final Field valueField;
+        private final Class<?> valueClass;
+        private final ValueConverter mapping;
+
+        protected ColumnWriter(TableId tableId, Column column, Field keyField, Field valueField, ValueConverter mapping) {
+            this.tableId = tableId;
+            this.column = column;
+            this.keyField = keyField;
+            this.keyClass = keyField != null ? expectedClassFor(keyField.schema()) : null;
+            this.valueField = valueField;
+            this.valueClass = valueField != null ? expectedClassFor(valueField.schema()) : null;
+            this.mapping = mapping;
+        }
+
+        public void write(Object converted, Struct key, Object[] keyValues, Struct value, Object[] valueValues) {
+            if (keyField != null) {
+                put(key, keyValues, keyField, keyClass, converted, "key");
+            }
+            if (valueField != null) {
+                Object mapped = converted;
+                if (mapped != null && mapping != null) mapped = mapping.convert(mapped);
+                put(value, valueValues, valueField, valueClass, mapped, "data");
+            }
+        }
+
+        private void put(Struct struct, Object[] values, Field field, Class<?> expectedClass, Object value, String kind) {
+            if (value == null ? field.schema().isOptional() : value.getClass() == expectedClass) {
+                // The value is already valid for the field's schema ...
+                values[field.index()] = value;
+                return;
+            }
+            try {
+                struct.put(field, value);
+            } catch (DataException e) {
+                LOGGER.error("Failed to properly convert " + kind + " value for '" + tableId + "." + column.name() + "' of type "
+                        + column.typeName() + ":", e);
+            }
+        }
+    }
+}
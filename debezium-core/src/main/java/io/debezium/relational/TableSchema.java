@@ -5,6 +5,7 @@
  */
 package io.debezium.relational;
 
+import java.util.Objects;
 import java.util.function.Function;
 
 import org.apache.kafka.connect.data.Schema;
@@ -33,7 +34,9 @@
  * Schema valueSchema = tableSchema.valueSchema();
  * </pre>
  * 
- * all of which can be handed to Kafka Connect to create a new record.
+ * all of which can be handed to Kafka Connect to create a new record. When both the key and value are needed for the same row,
+ * {@link #keyAndValueFromColumnData(Object[])} produces both while converting each column's value only once, and
+ * {@link #keyChanged(Object[], Object[])} can determine whether two rows have the same key without converting any values.
  * <p>
  * When the table structure changes, simply obtain a new or updated {@link Table} definition (e.g., via an {@link Table#edit()
  * editor}), rebuild the {@link TableSchema} for that {@link Table}, and use the new {@link TableSchema} instance for subsequent
@@ -49,6 +52,8 @@ public class TableSchema {
     private final Schema valueSchema;
     private final Function<Object[], Object> keyGenerator;
     private final Function<Object[], Struct> valueGenerator;
+    private final Function<Object[], KeyAndValue> keyAndValueGenerator;
+    private final int[] keyIndexes;
 
     /**
      * Create an instance with the specified {@link Schema}s for the keys and values, and the functions that generate the
@@ -63,10 +68,34 @@ public class TableSchema {
      */
     public TableSchema(Schema keySchema, Function<Object[], Object> keyGenerator,
             Schema valueSchema, Function<Object[], Struct> valueGenerator) {
+        this(keySchema, keyGenerator, valueSchema, valueGenerator, null, null);
+    }
+
+    /**
+     * Create an instance with the specified {@link Schema}s for the keys and values, the functions that generate the
+     * key and value for a given row of data, and the function that generates both the key and value for a given row of data.
+     * 
+     * @param keySchema the schema for the primary key; may be null
+     * @param keyGenerator the function that converts a row into a single key object for Kafka Connect; may not be null but may
+     *            return nulls
+     * @param valueSchema the schema for the values; may be null
+     * @param valueGenerator the function that converts a row into a single value object for Kafka Connect; may not be null but
+     *            may return nulls
+     * @param keyAndValueGenerator the function that converts a row into both the key and value objects for Kafka Connect; may be
+     *            null if the key and value generators are to be used
+     * @param keyIndexes the indexes within each row of the values of the columns that make up the primary key; may be null if
+     *            rows' keys are to be compared by generating them
+     */
+    public TableSchema(Schema keySchema, Function<Object[], Object> keyGenerator,
+            Schema valueSchema, Function<Object[], Struct> valueGenerator,
+            Function<Object[], KeyAndValue> keyAndValueGenerator, int[] keyIndexes) {
         this.keySchema = keySchema;
         this.valueSchema = valueSchema;
         this.keyGenerator = keyGenerator != null ? keyGenerator : (row) -> null;
         this.valueGenerator = valueGenerator != null ? valueGenerator : (row) -> null;
+        this.keyAndValueGenerator = keyAndValueGenerator != null ? keyAndValueGenerator
+                : (row) -> new KeyAndValue(this.keyGenerator.apply(row), this.valueGenerator.apply(row));
+        this.keyIndexes = keyIndexes;
     }
 
     /**
@@ -108,4 +137,75 @@ public Object keyFromColumnData(Object[] columnData) {
     public Struct valueFromColumnData(Object[] columnData) {
         return columnData == null ? null : valueGenerator.apply(columnData);
     }
+
+    /**
+     * Convert the specified row of values into both a Kafka Connect key and value, converting the value of each column only once
+     * even when the column is part of both the key and the value. The row is expected to conform to the structured defined by
+     * the table.
+     * 
+     * @param columnData the column values for the table
+     * @return the key and value, or null if the {@code columnData} is null
+     */
+    public KeyAndValue keyAndValueFromColumnData(Object[] columnData) {
+        return columnData == null ? null : keyAndValueGenerator.apply(columnData);
+    }
+
+    /**
+     * Determine whether the two rows have different keys. When the table's primary key columns are known, this compares the
+     * rows' raw values of those columns without converting any values; otherwise, the keys of both rows are generated and
+     * compared.
+     * <p>
+     * Two rows whose raw key values differ may still produce equal keys (e.g., when the conversion loses precision), so callers
+     * that need to be exact should compare the generated keys when this method returns {@code true}.
+     * 
+     * @param before the column values of the first row; may be null
+     * @param after the column values of the second row; may be null
+     * @return {@code true} if the keys might differ, or {@code false} if the rows definitely have the same key
+     */
+    public boolean keyChanged(Object[] before, Object[] after) {
+        if (before == null || after == null) return before != after;
+        if (keySchema == null) return false;
+        if (keyIndexes == null) return !Objects.equals(keyGenerator.apply(before), keyGenerator.apply(after));
+        for (int index : keyIndexes) {
+            if (!Objects.deepEquals(before[index], after[index])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The key and value for a single row.
+     */
+    @Immutable
+    public static final class KeyAndValue {
+        private final Object key;
+        private final Struct value;
+
+        public KeyAndValue(Object key, Struct value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Get the Kafka Connect key for the row.
+         * 
+         * @return the key; may be null if the table has no primary key
+         */
+        public Object key() {
+            return key;
+        }
+
+        /**
+         * Get the Kafka Connect value for the row.
+         * 
+         * @return the value; may be null
+         */
+        public Struct value() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "{key=" + key + ", value=" + value + "}";
+        }
+    }
 }
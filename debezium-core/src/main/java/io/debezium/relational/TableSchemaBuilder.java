@@ -41,6 +41,7 @@
 import io.debezium.data.IsoTime;
 import io.debezium.data.IsoTimestamp;
 import io.debezium.jdbc.JdbcConnection;
+import io.debezium.relational.TableSchema.KeyAndValue;
 import io.debezium.relational.mapping.ColumnMapper;
 import io.debezium.relational.mapping.ColumnMappers;
 
@@ -64,10 +65,27 @@ public class TableSchemaBuilder {
     private static final Logger LOGGER = LoggerFactory.getLogger(TableSchemaBuilder.class);
     private static final LocalDate EPOCH_DAY = LocalDate.ofEpochDay(0);
 
+    private final Predicate<TableId> specializedTables;
+
     /**
      * Create a new instance of the builder.
      */
     public TableSchemaBuilder() {
+        this(null);
+    }
+
+    /**
+     * Create a new instance of the builder that uses specialized key and value generators for some tables. Specialized
+     * generators are compiled for each table rather than looping over the table's columns, and they avoid converting and
+     * validating values that are already of the expected type, but they take longer to create. They are therefore best
+     * used only for tables with high volumes of changes. The generic generators are used for all other tables, and for all
+     * tables when specialized generators cannot be used in the current environment.
+     * 
+     * @param specializedTables the predicate that determines the tables for which specialized generators are to be used; may
+     *            be null if the generic generators are to be used for all tables
+     */
+    public TableSchemaBuilder(Predicate<TableId> specializedTables) {
+        this.specializedTables = specializedTables;
     }
 
     /**
@@ -151,9 +169,28 @@ public TableSchema create(Table table, Predicate<ColumnId> filter, ColumnMappers
         // Create the generators ...
         Function<Object[], Object> keyGenerator = createKeyGenerator(keySchema, tableId, table.primaryKeyColumns());
         Function<Object[], Struct> valueGenerator = createValueGenerator(valSchema, tableId, table.columns(), filter, mappers);
+        Function<Object[], KeyAndValue> keyAndValueGenerator = createKeyAndValueGenerator(keySchema, valSchema, tableId,
+                                                                                          table, filter, mappers);
+        int[] keyIndexes = keySchema != null ? indexesForColumns(table.primaryKeyColumns()) : null;
+
+        // Replace them with specialized generators if possible ...
+        if (specializedTables != null && specializedTables.test(tableId) && RowGeneratorCompiler.isAvailable()) {
+            try {
+                RowGeneratorCompiler compiler = new RowGeneratorCompiler(this, table, keySchema, valSchema, filter, mappers);
+                Function<Object[], Object> specializedKeyGenerator = compiler.keyGenerator();
+                Function<Object[], Struct> specializedValueGenerator = compiler.valueGenerator();
+                Function<Object[], KeyAndValue> specializedKeyAndValueGenerator = compiler.keyAndValueGenerator();
+                keyGenerator = specializedKeyGenerator;
+                valueGenerator = specializedValueGenerator;
+                keyAndValueGenerator = specializedKeyAndValueGenerator;
+                LOGGER.debug("Using specialized key and value generators for table {}", tableId);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to create specialized key and value generators for table {}; using generic generators", tableId, e);
+            }
+        }
 
         // And the table schema ...
-        return new TableSchema(keySchema, keyGenerator, valSchema, valueGenerator);
+        return new TableSchema(keySchema, keyGenerator, valSchema, valueGenerator, keyAndValueGenerator, keyIndexes);
     }
 
     /**
@@ -238,6 +275,79 @@ protected Function<Object[], Struct> createValueGenerator(Schema schema, TableId
         return null;
     }
 
+    /**
+     * Creates the function that produces both the Kafka Connect key and value objects for a row of data, converting each column's
+     * value only once and using that converted value in both the key and the value.
+     * 
+     * @param keySchema the Kafka Connect schema for the key; may be null if the table has no primary key
+     * @param valueSchema the Kafka Connect schema for the value; may be null if there is no known schema
+     * @param tableId the table identifier; may not be null
+     * @param table the table definition; may not be null
+     * @param filter the filter that specifies whether columns in the table should be included in the value; may be null if all
+     *            columns are to be included
+     * @param mappers the mapping functions for columns in the value; may be null if none of the columns are to be mapped to
+     *            different values
+     * @return the function that generates both the key and value, or null if there is no key schema and no value schema
+     */
+    protected Function<Object[], KeyAndValue> createKeyAndValueGenerator(Schema keySchema, Schema valueSchema, TableId tableId,
+                                                                         Table table, Predicate<ColumnId> filter,
+                                                                         ColumnMappers mappers) {
+        if (keySchema == null && valueSchema == null) return null;
+        List<Column> columns = table.columns();
+        int numColumns = columns.size();
+        int[] recordIndexes = indexesForColumns(columns);
+        Field[] keyFields = new Field[numColumns];
+        Field[] valueFields = new Field[numColumns];
+        ValueConverter[] converters = new ValueConverter[numColumns];
+        ValueConverter[] mappingConverters = new ValueConverter[numColumns];
+        for (int i = 0; i != numColumns; ++i) {
+            Column column = columns.get(i);
+            if (keySchema != null && table.isPrimaryKeyColumn(column.name())) {
+                keyFields[i] = keySchema.field(column.name());
+            }
+            if (valueSchema != null && (filter == null || filter.test(new ColumnId(tableId, column.name())))) {
+                valueFields[i] = valueSchema.field(column.name());
+                if (mappers != null) mappingConverters[i] = mappers.mappingConverterFor(tableId, column);
+            }
+            Field field = valueFields[i] != null ? valueFields[i] : keyFields[i];
+            if (field != null) {
+                converters[i] = createValueConverterFor(column, field);
+                assert converters[i] != null;
+            }
+        }
+        return (row) -> {
+            Struct key = keySchema != null ? new Struct(keySchema) : null;
+            Struct value = valueSchema != null ? new Struct(valueSchema) : null;
+            for (int i = 0; i != numColumns; ++i) {
+                ValueConverter converter = converters[i];
+                if (converter == null) continue;
+                Object converted = row[recordIndexes[i]];
+                if (converted != null) converted = converter.convert(converted);
+                if (keyFields[i] != null) {
+                    try {
+                        key.put(keyFields[i], converted);
+                    } catch (DataException e) {
+                        Column col = columns.get(i);
+                        LOGGER.error("Failed to properly convert key value for '" + tableId + "." + col.name() + "' of type "
+                                + col.typeName() + ":", e);
+                    }
+                }
+                if (valueFields[i] != null) {
+                    Object mapped = converted;
+                    if (mapped != null && mappingConverters[i] != null) mapped = mappingConverters[i].convert(mapped);
+                    try {
+                        value.put(valueFields[i], mapped);
+                    } catch (DataException e) {
+                        Column col = columns.get(i);
+                        LOGGER.error("Failed to properly convert data value for '" + tableId + "." + col.name() + "' of type "
+                                + col.typeName() + ":", e);
+                    }
+                }
+            }
+            return new KeyAndValue(key, value);
+        };
+    }
+
     protected int[] indexesForColumns(List<Column> columns) {
         int[] recordIndexes = new int[columns.size()];
         AtomicInteger i = new AtomicInteger(0);
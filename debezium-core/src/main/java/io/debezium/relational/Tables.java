@@ -107,6 +107,7 @@ public Table overwriteTable(TableId tableId, List<Column> columnDefs, List<Strin
                 return tablesByTableId.put(tableId, updated);
             } finally {
                 changes.add(tableId);
+                changed(tableId, updated);
             }
         });
     }
@@ -124,6 +125,7 @@ public Table overwriteTable(Table table) {
                 return tablesByTableId.put(updated.id(), updated);
             } finally {
                 changes.add(updated.id());
+                changed(updated.id(), updated);
             }
         });
     }
@@ -139,13 +141,15 @@ public Table renameTable(TableId existingTableId, TableId newTableId) {
         return lock.write(() -> {
             Table existing = forTable(existingTableId);
             if (existing == null) return null;
-            tablesByTableId.remove(existing);
+            tablesByTableId.remove(existingTableId);
             TableImpl updated = new TableImpl(newTableId, existing.columns(), existing.primaryKeyColumnNames());
             try {
                 return tablesByTableId.put(updated.id(), updated);
             } finally {
                 changes.add(existingTableId);
                 changes.add(updated.id());
+                changed(existingTableId, null);
+                changed(updated.id(), updated);
             }
         });
     }
@@ -163,7 +167,9 @@ public Table updateTable(TableId tableId, Function<Table, Table> changer) {
             TableImpl existing = tablesByTableId.get(tableId);
             Table updated = changer.apply(existing);
             if (updated != existing) {
-                tablesByTableId.put(tableId, new TableImpl(tableId, updated.columns(), updated.primaryKeyColumnNames()));
+                TableImpl impl = new TableImpl(tableId, updated.columns(), updated.primaryKeyColumnNames());
+                tablesByTableId.put(tableId, impl);
+                changed(tableId, impl);
             }
             changes.add(tableId);
             return existing;
@@ -187,6 +193,7 @@ public Table updateTable(TableId tableId, TableChanger changer) {
             TableImpl updated = new TableImpl(tableId, columns, pkColumnNames);
             tablesByTableId.put(tableId, updated);
             changes.add(tableId);
+            changed(tableId, updated);
             return existing;
         });
     }
@@ -204,10 +211,23 @@ public static interface TableChanger {
     public Table removeTable(TableId tableId) {
         return lock.write(() -> {
             changes.add(tableId);
-            return tablesByTableId.remove(tableId);
+            Table removed = tablesByTableId.remove(tableId);
+            if (removed != null) changed(tableId, null);
+            return removed;
         });
     }
 
+    /**
+     * Called while this object is locked for writing, immediately after the definition of the identified table has been added,
+     * changed, or removed. This method does nothing by default.
+     * 
+     * @param tableId the identifier of the table; never null
+     * @param table the new immutable definition of the table, or null if the table was removed
+     */
+    protected void changed(TableId tableId, Table table) {
+        // do nothing by default
+    }
+
     /**
      * Obtain the definition of the identified table.
      * 
@@ -0,0 +1,184 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import io.debezium.annotation.GuardedBy;
+import io.debezium.annotation.Immutable;
+import io.debezium.annotation.ThreadSafe;
+import io.debezium.util.FunctionalReadWriteLock;
+
+/**
+ * A {@link Tables} that also remembers the earlier definitions of each table, so that the definition of a table at a given
+ * position in the source can be obtained without recovering the schema from the database history.
+ * <p>
+ * Every change to a table definition is recorded at the {@link #setPosition(Object) current position}, and each table has a
+ * chain of the definitions at each position where it changed. The definitions are immutable, so a version is only a reference
+ * to a definition that shares its (also immutable) columns with the versions before and after it. Versions that can no longer
+ * be needed, such as those before the last committed offset, can be {@link #prune(Object) pruned}.
+ * 
+ * @param <P> the type of source position
+ * @author Randall Hauch
+ */
+@ThreadSafe
+public class VersionedTables<P> extends Tables {
+
+    private final FunctionalReadWriteLock lock = FunctionalReadWriteLock.reentrant();
+    private final Comparator<? super P> positionComparator;
+    @GuardedBy("lock")
+    private final Map<TableId, Version<P>> latestVersions = new HashMap<>();
+    private volatile P position;
+
+    /**
+     * Create an empty set of definitions.
+     * 
+     * @param positionComparator the comparator that orders source positions; may not be null
+     */
+    public VersionedTables(Comparator<? super P> positionComparator) {
+        this.positionComparator = positionComparator;
+    }
+
+    /**
+     * Set the position in the source at which all subsequent changes to the table definitions are made. The position should
+     * never move backwards; changes made before any position is set are treated as being made before all positions.
+     * 
+     * @param position the current position; may be null
+     */
+    public void setPosition(P position) {
+        this.position = position;
+    }
+
+    /**
+     * Get the position in the source at which changes to the table definitions are being made.
+     * 
+     * @return the current position; may be null
+     */
+    public P position() {
+        return position;
+    }
+
+    /**
+     * Obtain the definition of the identified table at the given position in the source.
+     * 
+     * @param tableId the identifier of the table
+     * @param position the position in the source; may not be null
+     * @return the table definition, or null if the table did not exist at that position or if the definitions at that
+     *         position have been pruned
+     */
+    public Table forTable(TableId tableId, P position) {
+        return lock.read(() -> {
+            Version<P> version = latestVersions.get(tableId);
+            while (version != null) {
+                if (isAtOrBefore(version.position, position)) return version.table;
+                version = version.previous;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Get the number of versions of the identified table that are retained.
+     * 
+     * @param tableId the identifier of the table
+     * @return the number of versions, including those that record the removal of the table
+     */
+    public int versionCount(TableId tableId) {
+        return lock.read(() -> {
+            int count = 0;
+            for (Version<P> version = latestVersions.get(tableId); version != null; version = version.previous) {
+                ++count;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Discard all versions that are not needed to obtain definitions at or after the given position. This is typically the last
+     * position whose offset has been committed, since the connector will never have to reprocess anything before it.
+     * 
+     * @param position the earliest position at which definitions will be needed; may not be null
+     * @return the number of versions that were discarded
+     */
+    public int prune(P position) {
+        return lock.write(() -> {
+            int pruned = 0;
+            Iterator<Map.Entry<TableId, Version<P>>> iter = latestVersions.entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry<TableId, Version<P>> entry = iter.next();
+                // Find the version in effect at the position, which is the last one that must be kept ...
+                Version<P> version = entry.getValue();
+                while (version != null && !isAtOrBefore(version.position, position)) {
+                    version = version.previous;
+                }
+                if (version == null) continue;
+                for (Version<P> older = version.previous; older != null; older = older.previous) {
+                    ++pruned;
+                }
+                if (version == entry.getValue() && version.table == null) {
+                    // The table was removed at or before the position, so nothing about it is needed ...
+                    iter.remove();
+                    ++pruned;
+                } else {
+                    entry.setValue(entry.getValue().without(version));
+                }
+            }
+            return pruned;
+        });
+    }
+
+    @Override
+    protected void changed(TableId tableId, Table table) {
+        P position = this.position;
+        lock.write(() -> {
+            Version<P> latest = latestVersions.get(tableId);
+            if (latest == null && table == null) return;
+            if (latest != null && isSamePosition(latest.position, position)) {
+                // Replace the version made at the same position ...
+                latestVersions.put(tableId, new Version<>(position, table, latest.previous));
+            } else {
+                latestVersions.put(tableId, new Version<>(position, table, latest));
+            }
+        });
+    }
+
+    private boolean isSamePosition(P versionPosition, P position) {
+        if (versionPosition == null || position == null) return versionPosition == position;
+        return positionComparator.compare(versionPosition, position) == 0;
+    }
+
+    private boolean isAtOrBefore(P versionPosition, P position) {
+        if (versionPosition == null) return true;
+        return position != null && positionComparator.compare(versionPosition, position) <= 0;
+    }
+
+    /**
+     * One definition of a table, and the position at which that definition was made.
+     */
+    @Immutable
+    private static final class Version<P> {
+        protected final P position;
+        protected final Table table;
+        protected final Version<P> previous;
+
+        protected Version(P position, Table table, Version<P> previous) {
+            this.position = position;
+            this.table = table;
+            this.previous = previous;
+        }
+
+        /**
+         * Obtain the chain of versions from this version through the given version, without any versions older than it.
+         */
+        protected Version<P> without(Version<P> oldest) {
+            if (this == oldest) return previous == null ? this : new Version<>(position, table, null);
+            return new Version<>(position, table, previous.without(oldest));
+        }
+    }
+}
@@ -94,6 +94,30 @@ public DataType match(TokenStream stream, Consumer<ParsingException> errors) {
             return null;
         }
 
+        /**
+         * Determine the number of tokens, starting at the current token, that make up a matching data type, without consuming
+         * any tokens from the stream. This matches exactly the same data types as {@link #match(TokenStream, Consumer)}, but it
+         * neither throws nor records exceptions when the tokens do not match, and never has to rewind the stream.
+         * 
+         * @param stream the stream of tokens containing the data type definition
+         * @return the number of tokens in the matching data type, or -1 if there is no match
+         * @see #create()
+         */
+        public int matchAhead(TokenStream stream) {
+            builder.reset();
+            builder.jdbcType = jdbcType;
+            return pattern.matchAhead(stream, 0, builder);
+        }
+
+        /**
+         * Create the data type that was last {@link #matchAhead(TokenStream) matched} by this pattern.
+         * 
+         * @return the data type; never null
+         */
+        public DataType create() {
+            return builder.create();
+        }
+
         public void forEachFirstToken(Consumer<String> tokens) {
             pattern.determineFirstTokens(tokens);
         }
@@ -317,6 +341,18 @@ public DataType create() {
     protected static interface Pattern {
         boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<ParsingException> error);
 
+        /**
+         * Match the tokens starting at the given offset from the stream's current token, without consuming any tokens. This
+         * must match exactly what {@link #match(TokenStream, DataTypeBuilder, Consumer)} does, and update the builder in the
+         * same way, except that a failure to match is never signalled with an exception.
+         * 
+         * @param stream the stream of tokens
+         * @param offset the offset of the first token to be matched
+         * @param builder the builder of the data type
+         * @return the offset of the token after those that were matched, or -1 if the tokens do not match
+         */
+        int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder);
+
         default boolean isOptional() {
             return false;
         }
@@ -346,6 +382,12 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return false;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            int next = pattern1.matchAhead(stream, offset, builder);
+            return next < 0 ? -1 : pattern2.matchAhead(stream, next, builder);
+        }
+
         @Override
         public boolean determineFirstTokens(Consumer<String> tokens) {
             if (!pattern1.determineFirstTokens(tokens)) return false;
@@ -381,6 +423,12 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return false;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            int next = pattern1.matchAhead(stream, offset, builder);
+            return next >= 0 ? next : pattern2.matchAhead(stream, offset, builder);
+        }
+
         @Override
         public boolean determineFirstTokens(Consumer<String> tokens) {
             return false;
@@ -412,6 +460,13 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return true;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            if (!stream.matchesAt(offset, literal)) return -1;
+            if (addToBuilder) builder.addToName(literal);
+            return offset + 1;
+        }
+
         @Override
         public boolean determineFirstTokens(Consumer<String> tokens) {
             tokens.accept(literal);
@@ -441,6 +496,13 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return true;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            if (!stream.hasNext(offset)) return -1;
+            if (addToBuilder) builder.addToName(stream.peek(offset));
+            return offset + 1;
+        }
+
         @Override
         public boolean determineFirstTokens(Consumer<String> tokens) {
             return false;
@@ -477,6 +539,21 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return true;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            if (stream.matchesAt(offset, ')')) {
+                // empty list ...
+                return offset;
+            }
+            if (!stream.hasNext(offset)) return -1;
+            ++offset; // first item
+            while (stream.matchesAt(offset, delimiter)) {
+                if (!stream.hasNext(offset + 1)) return -1;
+                offset += 2;
+            }
+            return offset;
+        }
+
         @Override
         public boolean determineFirstTokens(Consumer<String> tokens) {
             return false;
@@ -511,6 +588,13 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return true;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            if (!stream.hasNext(offset)) return offset;
+            int next = pattern.matchAhead(stream, offset, builder);
+            return next >= 0 ? next : offset;
+        }
+
         @Override
         public boolean isOptional() {
             return true;
@@ -544,6 +628,17 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return false;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            Long value = longAt(stream, offset);
+            if (value != null && value >= 0) {
+                // Must be non-negative ...
+                builder.length(value);
+                return offset + 1;
+            }
+            return -1;
+        }
+
         @Override
         public String toString() {
             return "L";
@@ -561,6 +656,14 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return true;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            Integer value = integerAt(stream, offset);
+            if (value == null) return -1;
+            builder.scale(value); // can be positive or negative
+            return offset + 1;
+        }
+
         @Override
         public String toString() {
             return "S";
@@ -583,6 +686,14 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return false;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            Long value = longAt(stream, offset);
+            if (value == null || value != literal) return -1;
+            builder.length(literal);
+            return offset + 1;
+        }
+
         @Override
         public String toString() {
             return Long.toString(literal);
@@ -605,6 +716,14 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return false;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            Integer value = integerAt(stream, offset);
+            if (value == null || value != literal) return -1;
+            builder.scale(literal);
+            return offset + 1;
+        }
+
         @Override
         public String toString() {
             return Integer.toString(literal);
@@ -626,9 +745,48 @@ public boolean match(TokenStream stream, DataTypeBuilder builder, Consumer<Parsi
             return true;
         }
 
+        @Override
+        public int matchAhead(TokenStream stream, int offset, DataTypeBuilder builder) {
+            while (stream.matchesAt(offset, '[')) {
+                Integer dimension = integerAt(stream, offset + 1);
+                if (dimension == null || !stream.matchesAt(offset + 2, ']')) return -1;
+                builder.addArrayDimension(dimension);
+                offset += 3;
+            }
+            return offset;
+        }
+
         @Override
         public String toString() {
             return "arrayDims";
         }
     }
+
+    /**
+     * Get the value of the token at the given offset as a long, in the same way as {@link TokenStream#consumeLong()}.
+     * 
+     * @return the value, or null if there is no token or it is not a long
+     */
+    protected static Long longAt(TokenStream stream, int offset) {
+        if (!stream.hasNext(offset)) return null;
+        try {
+            return Long.parseLong(stream.peek(offset));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the value of the token at the given offset as an integer, in the same way as {@link TokenStream#consumeInteger()}.
+     * 
+     * @return the value, or null if there is no token or it is not an integer
+     */
+    protected static Integer integerAt(TokenStream stream, int offset) {
+        if (!stream.hasNext(offset)) return null;
+        try {
+            return Integer.parseInt(stream.peek(offset));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
@@ -82,6 +82,53 @@ public DataTypeParser register(int jdbcType, String grammar) {
      * @return the data type if one was found, or null if none were found
      */
     public DataType parse(TokenStream stream, Consumer<Collection<ParsingException>> errorHandler) {
+        if (stream.hasNext()) {
+            // Look for all patterns that begin with the first token ...
+            Collection<DataTypePattern> matchingPatterns = patterns.get(stream.peek().toUpperCase());
+            if (matchingPatterns != null) {
+                // At least one registered type begins with the first token, so look ahead with each of them in order ...
+                int mostReadLength = -1;
+                DataType mostReadType = null;
+                for (DataTypePattern pattern : matchingPatterns) {
+                    int length = pattern.matchAhead(stream);
+                    if (length >= 0) {
+                        // We found a match, so record it if it is better than our previous best ...
+                        if (!stream.hasNext(length)) {
+                            // There's no more to read, so we should be done ...
+                            stream.skip(length);
+                            return pattern.create();
+                        }
+                        if (length > mostReadLength) {
+                            mostReadLength = length;
+                            mostReadType = pattern.create();
+                        }
+                    }
+                }
+                if (mostReadType != null) {
+                    // We've found at least one, so advance the stream past the tokens of the type that consumes the most ...
+                    stream.skip(mostReadLength);
+                    return mostReadType;
+                }
+                // We still haven't found a data type, so match again to collect the errors that explain why ...
+                return parseWithBacktracking(stream, errorHandler);
+            }
+        }
+        // Ultimately did not find a match ...
+        return null;
+    }
+
+    /**
+     * Examine the stream starting at its current position for a matching data type, by matching each of the registered patterns
+     * against the stream and rewinding the stream after each. This finds the same data type as
+     * {@link #parse(TokenStream, Consumer)}, but it is much slower because a pattern that does not match throws a
+     * {@link ParsingException}. It is therefore used only to collect the errors when no data type matches.
+     * 
+     * @param stream the stream of tokens; may not be null
+     * @param errorHandler a function that should be called when no data type was found because at least one
+     *            {@link ParsingException} occurred; may be null
+     * @return the data type if one was found, or null if none were found
+     */
+    DataType parseWithBacktracking(TokenStream stream, Consumer<Collection<ParsingException>> errorHandler) {
         if (stream.hasNext()) {
             // Look for all patterns that begin with the first token ...
             Collection<DataTypePattern> matchingPatterns = patterns.get(stream.peek().toUpperCase());
@@ -0,0 +1,276 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.ddl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.annotation.NotThreadSafe;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.util.Collect;
+
+/**
+ * A bounded cache of the results of parsing DDL content, so that applications that repeatedly submit the same DDL statements
+ * (e.g., {@code CREATE TABLE IF NOT EXISTS ...} upon each startup, or identical {@code ALTER TABLE} statements for many schemas)
+ * do not require tokenizing and parsing those statements each time.
+ * <p>
+ * Each entry is keyed by the DDL content and the parser's current schema, and records the definitions of the tables that the
+ * parser read before it changed them, the resulting definitions of all tables that the parser changed, and the events the
+ * parser signalled. An entry is reused only when all of the tables it read still have the same definitions, so the results of
+ * statements that depend upon existing tables (e.g., {@code ALTER TABLE}, {@code CREATE TABLE ... LIKE}, or
+ * {@code CREATE TABLE IF NOT EXISTS}) are replayed only when they would be the same as parsing the statement again.
+ * 
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class DdlParseCache {
+
+    /**
+     * The maximum length of the DDL content that is cached. Larger content, such as a complete schema dump, is rarely repeated.
+     */
+    private static final int MAX_CACHED_LENGTH = 16 * 1024;
+
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+
+    DdlParseCache(int maximumEntries) {
+        this.entries = Collect.fixedSizeMap(maximumEntries);
+    }
+
+    /**
+     * Apply the supplied DDL content to the table definitions, either by replaying the cached results of previously parsing the
+     * same content or by parsing the content.
+     * 
+     * @param parser the parser; may not be null
+     * @param ddlContent the DDL content; may not be null
+     * @param databaseTables the table definitions; may not be null
+     */
+    void parse(DdlParser parser, String ddlContent, Tables databaseTables) {
+        String content = ddlContent.trim();
+        if (content.length() > MAX_CACHED_LENGTH) {
+            parser.parse(parser.tokenize(ddlContent), databaseTables);
+            return;
+        }
+        Key key = new Key(content, parser.currentSchema());
+        Entry entry = entries.get(key);
+        if (entry != null && entry.appliesTo(databaseTables)) {
+            ++hits;
+            entry.replay(parser, databaseTables);
+            return;
+        }
+        ++misses;
+        // Parse into a copy of only those tables that are read or changed ...
+        RecordingTables recording = new RecordingTables(databaseTables);
+        List<DdlParserListener.Event> events = new ArrayList<>();
+        boolean parsed = false;
+        parser.recordEvents(events);
+        try {
+            parser.parse(parser.tokenize(ddlContent), recording);
+            parsed = true;
+        } finally {
+            parser.recordEvents(null);
+            // Apply all of the changes, even when parsing failed part way through the content ...
+            recording.applyTo(databaseTables);
+        }
+        if (parsed && recording.isCacheable()) {
+            entries.put(key, new Entry(recording.read, recording.changed, events, parser.currentSchema()));
+        } else {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Discard all cached results.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of times that DDL content was applied by replaying the results of previously parsing the same content.
+     * 
+     * @return the number of cache hits
+     */
+    long hits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of times that DDL content was parsed.
+     * 
+     * @return the number of cache misses
+     */
+    long misses() {
+        return misses;
+    }
+
+    @Immutable
+    private static final class Key {
+        private final String content;
+        private final String schemaName;
+        private final int hash;
+
+        protected Key(String content, String schemaName) {
+            this.content = content;
+            this.schemaName = schemaName;
+            this.hash = Objects.hash(content, schemaName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj instanceof Key) {
+                Key that = (Key) obj;
+                return this.hash == that.hash && this.content.equals(that.content) && Objects.equals(this.schemaName, that.schemaName);
+            }
+            return false;
+        }
+    }
+
+    @Immutable
+    private static final class Entry {
+        private final Map<TableId, Table> read;
+        private final Map<TableId, Table> changed;
+        private final List<DdlParserListener.Event> events;
+        private final String schemaName;
+
+        protected Entry(Map<TableId, Table> read, Map<TableId, Table> changed, List<DdlParserListener.Event> events,
+                String schemaName) {
+            this.read = read;
+            this.changed = changed;
+            this.events = events;
+            this.schemaName = schemaName;
+        }
+
+        /**
+         * Determine whether all of the tables that were read when parsing have the same definitions in the supplied tables.
+         */
+        protected boolean appliesTo(Tables databaseTables) {
+            for (Map.Entry<TableId, Table> entry : read.entrySet()) {
+                if (!Objects.equals(databaseTables.forTable(entry.getKey()), entry.getValue())) return false;
+            }
+            return true;
+        }
+
+        protected void replay(DdlParser parser, Tables databaseTables) {
+            apply(changed, databaseTables);
+            parser.setCurrentSchema(schemaName);
+            events.forEach(parser::signalEvent);
+        }
+    }
+
+    private static void apply(Map<TableId, Table> changed, Tables databaseTables) {
+        changed.forEach((tableId, table) -> {
+            if (table == null) {
+                databaseTables.removeTable(tableId);
+            } else {
+                databaseTables.overwriteTable(table);
+            }
+        });
+    }
+
+    /**
+     * A set of table definitions that initially contains nothing, but that copies each table definition from another set of
+     * definitions when the table is first read, and that records which tables were read before being changed and the resulting
+     * definition of each table that was changed.
+     */
+    @NotThreadSafe
+    private static final class RecordingTables extends Tables {
+        private final Tables source;
+        protected final Map<TableId, Table> read = new HashMap<>();
+        protected final Map<TableId, Table> changed = new LinkedHashMap<>();
+        private boolean copying;
+        private boolean cacheable = true;
+
+        protected RecordingTables(Tables source) {
+            this.source = source;
+        }
+
+        @Override
+        public Table forTable(TableId tableId) {
+            if (!read.containsKey(tableId) && !changed.containsKey(tableId)) {
+                Table existing = source.forTable(tableId);
+                read.put(tableId, existing);
+                if (existing != null) {
+                    copying = true;
+                    try {
+                        super.overwriteTable(existing);
+                    } finally {
+                        copying = false;
+                    }
+                }
+            }
+            return super.forTable(tableId);
+        }
+
+        @Override
+        public Table updateTable(TableId tableId, Function<Table, Table> changer) {
+            forTable(tableId);
+            return super.updateTable(tableId, changer);
+        }
+
+        @Override
+        public Table updateTable(TableId tableId, TableChanger changer) {
+            forTable(tableId);
+            return super.updateTable(tableId, changer);
+        }
+
+        @Override
+        public Table removeTable(TableId tableId) {
+            forTable(tableId);
+            return super.removeTable(tableId);
+        }
+
+        @Override
+        public Set<TableId> tableIds() {
+            // The result depends upon all of the tables, so it cannot be cached ...
+            cacheable = false;
+            Set<TableId> tableIds = new HashSet<>(source.tableIds());
+            changed.forEach((tableId, table) -> {
+                if (table == null) {
+                    tableIds.remove(tableId);
+                } else {
+                    tableIds.add(tableId);
+                }
+            });
+            return Collect.unmodifiableSet(tableIds);
+        }
+
+        @Override
+        public int size() {
+            return tableIds().size();
+        }
+
+        @Override
+        protected void changed(TableId tableId, Table table) {
+            if (!copying) changed.put(tableId, table);
+        }
+
+        protected boolean isCacheable() {
+            return cacheable;
+        }
+
+        protected void applyTo(Tables databaseTables) {
+            apply(changed, databaseTables);
+        }
+    }
+}
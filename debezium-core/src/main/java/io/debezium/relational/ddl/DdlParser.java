@@ -16,6 +16,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +70,9 @@ default void add(String firstToken, String... additionalTokens) {
     protected Tables databaseTables;
     protected TokenStream tokens;
     private final List<DdlParserListener> listeners = new CopyOnWriteArrayList<>();
+    private Predicate<TableId> tableFilter;
+    private DdlParseCache parseCache;
+    private List<DdlParserListener.Event> recordedEvents;
 
     /**
      * Create a new parser that uses the supplied {@link DataTypeParser}, but that does not include view definitions.
@@ -120,6 +124,67 @@ public void removeListeners() {
         listeners.clear();
     }
 
+    /**
+     * Set the maximum number of distinct DDL strings whose results are cached, so that {@link #parse(String, Tables) parsing}
+     * the same DDL content again applies the same changes to the table definitions without tokenizing or parsing the content.
+     * The cached results are used only when the tables that the DDL content depends upon have not since changed.
+     * 
+     * @param maximumEntries the maximum number of cached results, or 0 if results are not to be cached
+     */
+    public void setParseCacheSize(int maximumEntries) {
+        this.parseCache = maximumEntries > 0 ? new DdlParseCache(maximumEntries) : null;
+    }
+
+    /**
+     * Get the number of times that {@link #parse(String, Tables)} applied DDL content using the cached results of previously
+     * parsing the same content.
+     * 
+     * @return the number of cache hits, or 0 if results are not cached
+     * @see #setParseCacheSize(int)
+     */
+    public long parseCacheHits() {
+        return parseCache != null ? parseCache.hits() : 0L;
+    }
+
+    /**
+     * Get the number of times that {@link #parse(String, Tables)} had to parse DDL content because there were no usable cached
+     * results of previously parsing the same content.
+     * 
+     * @return the number of cache misses, or 0 if results are not cached
+     * @see #setParseCacheSize(int)
+     */
+    public long parseCacheMisses() {
+        return parseCache != null ? parseCache.misses() : 0L;
+    }
+
+    /**
+     * Set the filter that determines the tables whose definitions are fully parsed. The definitions of all other tables are
+     * skimmed: subclasses that support skimming record only that such tables exist, were renamed, or were removed, and skip the
+     * remainder of the statements that define them. This can dramatically reduce the work done by the parser and the memory
+     * used by the table definitions when most tables are never used, but a table that is later included will have no columns
+     * until its definition is parsed again.
+     * 
+     * @param tableFilter the predicate that returns {@code true} for each table whose definition is to be fully parsed, or null
+     *            if all table definitions are to be fully parsed
+     */
+    public void setTableFilter(Predicate<TableId> tableFilter) {
+        this.tableFilter = tableFilter;
+        // Any cached results may have been produced with a different filter ...
+        if (parseCache != null) parseCache.clear();
+    }
+
+    /**
+     * Determine whether the definition of the identified table is to be skimmed rather than fully parsed.
+     * 
+     * @param tableId the identifier of the table; may not be null
+     * @return {@code true} if only the existence and name of the table need be recorded, or {@code false} if its definition
+     *         is to be fully parsed
+     * @see #setTableFilter(Predicate)
+     */
+    protected boolean isSkimmed(TableId tableId) {
+        return tableFilter != null && !tableFilter.test(tableId);
+    }
+
     protected void initializeDataTypes(DataTypeParser dataTypeParser) {
     }
 
@@ -251,9 +316,25 @@ protected boolean skipComments() {
      * @throws ParsingException if there is a problem parsing the supplied content
      */
     public final void parse(String ddlContent, Tables databaseTables) {
+        if (parseCache != null) {
+            parseCache.parse(this, ddlContent, databaseTables);
+        } else {
+            parse(tokenize(ddlContent), databaseTables);
+        }
+    }
+
+    final TokenStream tokenize(String ddlContent) {
         TokenStream stream = new TokenStream(ddlContent, new DdlTokenizer(!skipComments(), this::determineTokenType), false);
-        stream.start();
-        parse(stream, databaseTables);
+        return stream.start();
+    }
+
+    /**
+     * Record all subsequently signalled events into the supplied list.
+     * 
+     * @param events the list into which events are to be added, or null if events are no longer to be recorded
+     */
+    final void recordEvents(List<DdlParserListener.Event> events) {
+        this.recordedEvents = events;
     }
 
     /**
@@ -371,6 +452,7 @@ protected void parseUnknownStatement(Marker marker) {
      * @param event the event; may not be null
      */
     protected void signalEvent(DdlParserListener.Event event) {
+        if (event != null && recordedEvents != null) recordedEvents.add(event);
         if (event != null && !listeners.isEmpty()) {
             listeners.forEach(listener -> listener.handle(event));
         }
@@ -5,13 +5,19 @@
  */
 package io.debezium.relational.history;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.debezium.config.Configuration;
+import io.debezium.config.Field;
 import io.debezium.relational.Tables;
 import io.debezium.relational.ddl.DdlParser;
 
@@ -21,8 +27,47 @@
  */
 public abstract class AbstractDatabaseHistory implements DatabaseHistory {
 
+    public static final Field SNAPSHOT_INTERVAL = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "snapshot.interval")
+                                                       .withDescription("The number of DDL records after which a snapshot of the definitions of all tables "
+                                                               + "is stored in the history, so that recovery can start from the most recent snapshot rather "
+                                                               + "than parsing all DDL statements since the beginning of the history. Each snapshot contains "
+                                                               + "all table definitions, so the history store must accept records of that size. "
+                                                               + "The default is 0, which never stores snapshots.")
+                                                       .withDefault(0)
+                                                       .withValidation(Field::isNonNegativeInteger);
+
+    public static final Field FORMAT = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "format")
+                                            .withDescription("The format in which records are written to the history, which is either 'json' or the more "
+                                                    + "compact 'binary' format. Records in either format can always be recovered, but only "
+                                                    + "connectors that support the binary format can read it. The default is 'json'.")
+                                            .withDefault(HistoryRecordEncoding.Format.JSON.name().toLowerCase())
+                                            .withValidation(HistoryRecordEncoding::isFormat);
+
+    public static final Field COMPRESS_DDL = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "compress.ddl")
+                                                  .withDescription("Whether larger DDL statements are compressed when records are written in the 'binary' "
+                                                          + "format. The default is 'false'.")
+                                                  .withDefault(false)
+                                                  .withValidation(Field::isBoolean);
+
+    public static final Field RECOVERY_THREADS = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "recovery.threads")
+                                                      .withDescription("The maximum number of threads used to apply the DDL records of different databases "
+                                                              + "concurrently when recovering the history. Records that may refer to tables in other "
+                                                              + "databases are always applied on their own, so the recovered schema is the same as with "
+                                                              + "a single thread. The default is 1, which applies all records serially.")
+                                                      .withDefault(1)
+                                                      .withValidation(Field::isPositiveInteger);
+
+    /**
+     * The minimum number of DDL records that are buffered during recovery while looking for a more recent snapshot.
+     */
+    private static final int MIN_BUFFERED_RECORDS = 10_000;
+
     protected Configuration config;
     protected final Logger logger = LoggerFactory.getLogger(getClass());
+    protected HistoryRecordEncoding encoding = new HistoryRecordEncoding(HistoryRecordEncoding.Format.JSON, false);
+    private final AtomicInteger recordsSinceSnapshot = new AtomicInteger();
+    private int snapshotInterval = 0;
+    private int recoveryThreads = 1;
 
     protected AbstractDatabaseHistory() {
     }
@@ -30,8 +75,13 @@ protected AbstractDatabaseHistory() {
     @Override
     public void configure(Configuration config) {
         this.config = config;
+        this.snapshotInterval = config.getInteger(SNAPSHOT_INTERVAL);
+        this.recoveryThreads = config.getInteger(RECOVERY_THREADS);
+        HistoryRecordEncoding.Format format = HistoryRecordEncoding.Format.parse(config.getString(FORMAT));
+        if (format == null) format = HistoryRecordEncoding.Format.JSON;
+        this.encoding = new HistoryRecordEncoding(format, config.getBoolean(COMPRESS_DDL));
     }
-    
+
     @Override
     public void start() {
         // do nothing
@@ -40,28 +90,100 @@ public void start() {
     @Override
     public final void record(Map<String, ?> source, Map<String, ?> position, String databaseName, Tables schema, String ddl) {
         storeRecord(new HistoryRecord(source, position, databaseName, ddl));
+        if (snapshotInterval > 0 && recordsSinceSnapshot.incrementAndGet() >= snapshotInterval) {
+            storeRecord(new HistoryRecord(source, position, SchemaSnapshot.toArray(schema)));
+            recordsSinceSnapshot.set(0);
+        }
     }
 
     @Override
-    public final void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, DdlParser ddlParser) {
-        HistoryRecord stopPoint = new HistoryRecord(source, position, null, null);
-        recoverRecords(schema,ddlParser,recovered->{
-            if (recovered.isAtOrBefore(stopPoint)) {
-                String ddl = recovered.ddl();
-                if (ddl != null) {
-                    ddlParser.setCurrentSchema(recovered.databaseName()); // may be null
-                    ddlParser.parse(ddl, schema);
+    public final void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, DdlParser ddlParser,
+                              HistoryRecordComparator comparator) {
+        recover(source, position, schema, ddlParser, null, comparator);
+    }
+
+    @Override
+    public final void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, Supplier<DdlParser> ddlParsers,
+                              HistoryRecordComparator comparator) {
+        recover(source, position, schema, ddlParsers.get(), ddlParsers, comparator);
+    }
+
+    private void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, DdlParser ddlParser,
+                         Supplier<DdlParser> ddlParsers, HistoryRecordComparator comparator) {
+        Predicate<HistoryRecord> atOrBeforeStopPoint = comparator.atOrBefore(source, position);
+        ParallelReplay parallel = ddlParsers != null && recoveryThreads > 1 ? new ParallelReplay(ddlParsers, recoveryThreads) : null;
+        try {
+            Replay replay = new Replay(schema, ddlParser, parallel, Math.max(MIN_BUFFERED_RECORDS, snapshotInterval));
+            recoverRecords(schema, ddlParser, recovered -> {
+                if (atOrBeforeStopPoint.test(recovered)) {
+                    replay.accept(recovered);
                 }
-            }
-        });
+            });
+            replay.complete();
+            recordsSinceSnapshot.set(replay.recordsSinceSnapshot);
+        } finally {
+            if (parallel != null) parallel.close();
+        }
     }
 
     protected abstract void storeRecord(HistoryRecord record);
 
     protected abstract void recoverRecords(Tables schema, DdlParser ddlParser, Consumer<HistoryRecord> records);
-    
+
     @Override
     public void stop() {
         // do nothing
     }
+
+    /**
+     * Applies recovered records to the schema. The DDL records are buffered rather than parsed immediately, since a later
+     * snapshot makes them unnecessary; the buffered records are only parsed when too many have accumulated or when all
+     * records have been recovered.
+     */
+    private static final class Replay implements Consumer<HistoryRecord> {
+        private final Tables schema;
+        private final DdlParser ddlParser;
+        private final ParallelReplay parallel;
+        private final int maxBuffered;
+        private final List<HistoryRecord> buffered = new ArrayList<>();
+        private HistoryRecord snapshot;
+        protected int recordsSinceSnapshot;
+
+        protected Replay(Tables schema, DdlParser ddlParser, ParallelReplay parallel, int maxBuffered) {
+            this.schema = schema;
+            this.ddlParser = ddlParser;
+            this.parallel = parallel;
+            this.maxBuffered = maxBuffered;
+        }
+
+        @Override
+        public void accept(HistoryRecord recovered) {
+            if (recovered.isSnapshot()) {
+                // The snapshot reflects all earlier changes, so none of them need to be applied ...
+                snapshot = recovered;
+                buffered.clear();
+                recordsSinceSnapshot = 0;
+            } else if (recovered.ddl() != null) {
+                buffered.add(recovered);
+                ++recordsSinceSnapshot;
+                if (buffered.size() >= maxBuffered) complete();
+            }
+        }
+
+        protected void complete() {
+            if (snapshot != null) {
+                SchemaSnapshot.restore(snapshot.tables(), schema);
+                snapshot = null;
+            }
+            if (parallel != null) {
+                parallel.apply(buffered, schema, ddlParser);
+            } else {
+                for (HistoryRecord recovered : buffered) {
+                    ddlParser.setCurrentSchema(recovered.databaseName()); // may be null
+                    ddlParser.parse(recovered.ddl(), schema);
+                }
+            }
+            buffered.clear();
+        }
+    }
 }
@@ -6,6 +6,7 @@
 package io.debezium.relational.history;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 import io.debezium.config.Configuration;
 import io.debezium.relational.Tables;
@@ -41,7 +42,8 @@ public interface DatabaseHistory {
      *            {@link #recover(Map, Map, Tables, DdlParser) recovering} the schema to some point in history; may not be
      *            null
      * @param databaseName the name of the database whose schema is being changed; may be null
-     * @param schema the current definition of the database schema; may not be null
+     * @param schema the current definition of the database schema, which already reflects the DDL statements and which may be
+     *            stored as a snapshot to speed up recovery; may not be null
      * @param ddl the DDL statements that describe the changes to the database schema; may not be null
      */
     void record(Map<String, ?> source, Map<String, ?> position, String databaseName, Tables schema, String ddl);
@@ -57,8 +59,52 @@ public interface DatabaseHistory {
      * @param schema the definition of the schema for the named {@code database}; may not be null
      * @param ddlParser the DDL parser that can be used to apply DDL statements to the given {@code schema}; may not be null
      */
-    void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, DdlParser ddlParser);
+    default void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, DdlParser ddlParser) {
+        recover(source, position, schema, ddlParser, HistoryRecordComparator.INSTANCE);
+    }
+
+    /**
+     * Recover the {@link Tables database schema} to a known point in its history, using the supplied comparator to determine
+     * which of the recorded changes were made at or before that point.
+     * 
+     * @param source the information about the source database; may not be null
+     * @param position the point in history at which the {@link Tables database schema} should be recovered; may not be null
+     * @param schema the definition of the schema for the named {@code database}; may not be null
+     * @param ddlParser the DDL parser that can be used to apply DDL statements to the given {@code schema}; may not be null
+     * @param comparator the comparator for the source and position of the recorded changes; may not be null
+     * @see #recover(Map, Map, Tables, DdlParser)
+     */
+    void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, DdlParser ddlParser,
+                 HistoryRecordComparator comparator);
+
+    /**
+     * Recover the {@link Tables database schema} to a known point in its history, using parsers obtained from the supplier.
+     * Implementations may use several parsers to concurrently apply the DDL statements of databases that are independent of one
+     * another, but the recovered schema must be the same as when all statements are applied in order with a single parser. By
+     * default, this method uses a single parser.
+     * 
+     * @param source the information about the source database; may not be null
+     * @param position the point in history at which the {@link Tables database schema} should be recovered; may not be null
+     * @param schema the definition of the schema for the named {@code database}; may not be null
+     * @param ddlParsers the supplier of new DDL parsers, each of which is identically configured and can be used to apply DDL
+     *            statements to the given {@code schema}; may not be null
+     * @param comparator the comparator for the source and position of the recorded changes; may not be null
+     * @see #recover(Map, Map, Tables, DdlParser, HistoryRecordComparator)
+     */
+    default void recover(Map<String, ?> source, Map<String, ?> position, Tables schema, Supplier<DdlParser> ddlParsers,
+                         HistoryRecordComparator comparator) {
+        recover(source, position, schema, ddlParsers.get(), comparator);
+    }
     
+    /**
+     * Ensure that all changes {@link #record(Map, Map, String, Tables, String) recorded} so far are durably stored. This must be
+     * called before the offsets of any source records produced after those changes are committed, since history
+     * implementations may otherwise store changes asynchronously.
+     */
+    default void flush() {
+        // do nothing by default
+    }
+
     /**
      * Stop recording history and release any resources acquired since {@link #configure(Configuration)}.
      */
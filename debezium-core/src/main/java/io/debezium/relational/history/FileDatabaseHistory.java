@@ -5,9 +5,12 @@
  */
 package io.debezium.relational.history;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -20,7 +23,6 @@
 import io.debezium.annotation.ThreadSafe;
 import io.debezium.config.Configuration;
 import io.debezium.config.Field;
-import io.debezium.document.DocumentReader;
 import io.debezium.document.DocumentWriter;
 import io.debezium.relational.Tables;
 import io.debezium.relational.ddl.DdlParser;
@@ -29,6 +31,14 @@
 
 /**
  * A {@link DatabaseHistory} implementation that stores the schema history in a local file.
+ * <p>
+ * The file is kept open while the history is running, and each record is appended to the file with a single write. The
+ * appended records can also be forced to disk in groups, after a number of records have been appended or after some time has
+ * elapsed since the last sync. Recovery reads the file one record at a time, so that the memory required does not depend upon
+ * the size of the history.
+ * <p>
+ * Records written in the JSON {@link HistoryRecordEncoding.Format format} each occupy a single line, while records written in
+ * the binary format are prefixed with {@link HistoryRecordEncoding#MAGIC} and their length. A file may contain both.
  * 
  * @author Randall Hauch
  */
@@ -39,13 +49,33 @@ public final class FileDatabaseHistory extends AbstractDatabaseHistory {
                                                .withDescription("The path to the file that will be used to record the database history")
                                                .withValidation(Field::isRequired);
 
-    public static Collection<Field> ALL_FIELDS = Collect.arrayListOf(FILE_PATH);
+    public static final Field SYNC_RECORDS = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "file.sync.records")
+                                                  .withDescription("The number of records appended to the file after which they are forced to disk. "
+                                                          + "Larger values sync less often, while 1 syncs every record. The default is 0, which "
+                                                          + "never explicitly syncs the records and instead relies upon the operating system.")
+                                                  .withDefault(0)
+                                                  .withValidation(Field::isNonNegativeInteger);
 
-    private static final Charset UTF8 = StandardCharsets.UTF_8;
+    public static final Field SYNC_INTERVAL_MS = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "file.sync.interval.ms")
+                                                      .withDescription("The maximum number of milliseconds after a record is appended to the file and "
+                                                              + "before the appended records are forced to disk, checked as each record is appended. "
+                                                              + "The default is 0, which syncs only based upon the number of records.")
+                                                      .withDefault(0)
+                                                      .withValidation(Field::isNonNegativeInteger);
+
+    public static Collection<Field> ALL_FIELDS = Collect.arrayListOf(FILE_PATH, SYNC_RECORDS, SYNC_INTERVAL_MS, SNAPSHOT_INTERVAL,
+                                                                     FORMAT, COMPRESS_DDL, RECOVERY_THREADS);
+
+    private static final byte NEWLINE = '\n';
     private final FunctionalReadWriteLock lock = FunctionalReadWriteLock.reentrant();
     private final DocumentWriter writer = DocumentWriter.defaultWriter();
-    private final DocumentReader reader = DocumentReader.defaultReader();
+    private final RecordBuffer buffer = new RecordBuffer();
     private Path path;
+    private int syncRecords;
+    private long syncIntervalMs;
+    private FileChannel channel;
+    private int unsyncedRecords;
+    private long lastSyncTime;
 
     @Override
     public void configure(Configuration config) {
@@ -56,18 +86,44 @@ public void configure(Configuration config) {
         config.validate(ALL_FIELDS, logger::error);
         super.configure(config);
         path = Paths.get(config.getString(FILE_PATH));
+        syncRecords = config.getInteger(SYNC_RECORDS);
+        syncIntervalMs = config.getInteger(SYNC_INTERVAL_MS);
     }
 
     @Override
     protected void storeRecord(HistoryRecord record) {
         lock.write(() -> {
             try {
-                String line = writer.write(record.document());
-                if (!Files.exists(path)) {
-                    Files.createDirectories(path.getParent());
-                    Files.createFile(path);
+                if (channel == null) {
+                    if (path.getParent() != null) Files.createDirectories(path.getParent());
+                    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                    lastSyncTime = System.currentTimeMillis();
+                }
+                buffer.reset();
+                if (encoding.format() == HistoryRecordEncoding.Format.JSON) {
+                    writer.write(record.document(), buffer);
+                    buffer.write(NEWLINE);
+                } else {
+                    byte[] encoded = encoding.write(record);
+                    if (encoded[0] == HistoryRecordEncoding.MAGIC) {
+                        // Binary records may contain newlines, so they are prefixed with their length instead ...
+                        buffer.write(HistoryRecordEncoding.MAGIC);
+                        buffer.writeInt(encoded.length);
+                        buffer.write(encoded);
+                    } else {
+                        buffer.write(encoded);
+                        buffer.write(NEWLINE);
+                    }
+                }
+                ByteBuffer bytes = buffer.asByteBuffer();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                ++unsyncedRecords;
+                if (syncRecords > 0 && unsyncedRecords >= syncRecords
+                        || syncIntervalMs > 0 && System.currentTimeMillis() - lastSyncTime >= syncIntervalMs) {
+                    sync();
                 }
-                Files.write(path, Collect.arrayListOf(line), UTF8, StandardOpenOption.APPEND);
             } catch (IOException e) {
                 logger.error("Failed to add record to history at {}: {}", path, record, e);
             }
@@ -77,10 +133,22 @@ protected void storeRecord(HistoryRecord record) {
     @Override
     protected void recoverRecords(Tables schema, DdlParser ddlParser, Consumer<HistoryRecord> records) {
         lock.write(() -> {
-            try {
-                if (Files.exists(path)) {
-                    for (String line : Files.readAllLines(path)) {
-                        records.accept(new HistoryRecord(reader.read(line)));
+            if (!Files.exists(path)) return;
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                int next = 0;
+                while ((next = input.read()) != -1) {
+                    if (next == HistoryRecordEncoding.MAGIC) {
+                        // A length-prefixed binary record ...
+                        byte[] encoded = new byte[input.readInt()];
+                        input.readFully(encoded);
+                        records.accept(encoding.read(encoded));
+                    } else if (next != NEWLINE) {
+                        // A JSON record on a single line ...
+                        buffer.reset();
+                        do {
+                            buffer.write(next);
+                        } while ((next = input.read()) != -1 && next != NEWLINE);
+                        records.accept(encoding.read(buffer.toByteArray()));
                     }
                 }
             } catch (IOException e) {
@@ -89,8 +157,62 @@ protected void recoverRecords(Tables schema, DdlParser ddlParser, Consumer<Histo
         });
     }
 
+    @Override
+    public void flush() {
+        lock.write(() -> {
+            try {
+                if (channel != null && unsyncedRecords > 0 && (syncRecords > 0 || syncIntervalMs > 0)) sync();
+            } catch (IOException e) {
+                throw new ConnectException("Failed to sync the history at " + path, e);
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        lock.write(() -> {
+            if (channel != null) {
+                try {
+                    flush();
+                    channel.close();
+                } catch (IOException e) {
+                    logger.error("Failed to close the history at {}", path, e);
+                } finally {
+                    channel = null;
+                }
+            }
+        });
+        super.stop();
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        unsyncedRecords = 0;
+        lastSyncTime = System.currentTimeMillis();
+    }
+
     @Override
     public String toString() {
         return "file " + (path != null ? path : "(unstarted)");
     }
+
+    /**
+     * A reusable buffer for the bytes of a single record.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        protected RecordBuffer() {
+            super(4096);
+        }
+
+        protected void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        protected ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
 }
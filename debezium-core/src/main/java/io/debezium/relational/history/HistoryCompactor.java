@@ -0,0 +1,129 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.debezium.annotation.NotThreadSafe;
+import io.debezium.document.Document;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.relational.ddl.DdlParser;
+
+/**
+ * Copies an existing database history into a new and much smaller history that recovers the same database schemas. All of the
+ * records at or before a cutoff position are replaced with a single record for each table that exists at that position, and all
+ * records after the cutoff position are copied unchanged. The compacted history therefore no longer contains the changes to
+ * tables that were later dropped, nor the intermediate changes to tables that still exist.
+ * <p>
+ * The compactor reads the original history twice, and never holds more than the table definitions in memory. The original and
+ * compacted histories must be different stores, and neither should be used by a running connector during compaction.
+ * 
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+public final class HistoryCompactor {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DdlParser ddlParser;
+    private final HistoryRecordComparator comparator;
+    private final Function<Table, String> createStatement;
+
+    /**
+     * Create a compactor.
+     * 
+     * @param ddlParser the parser for the DDL statements in the original history; may not be null
+     * @param comparator the comparator for the positions of records; may not be null
+     * @param createStatement the function that produces a DDL statement that creates a given table, which the {@code ddlParser}
+     *            must be able to parse, or that throws an exception if the table cannot be compacted; may not be null
+     */
+    public HistoryCompactor(DdlParser ddlParser, HistoryRecordComparator comparator, Function<Table, String> createStatement) {
+        this.ddlParser = ddlParser;
+        this.comparator = comparator;
+        this.createStatement = createStatement;
+    }
+
+    /**
+     * Write into the {@code compacted} history the records that recover the same database schemas as the {@code original}
+     * history.
+     * 
+     * @param original the existing history; may not be null
+     * @param compacted the started history into which the compacted records are written; may not be null and should be empty
+     * @param source the information about the source database; may not be null
+     * @param cutoff the position at or before which the records are compacted; may not be null
+     * @return the number of records written to the compacted history
+     */
+    public int compact(AbstractDatabaseHistory original, AbstractDatabaseHistory compacted, Map<String, ?> source,
+                       Map<String, ?> cutoff) {
+        long start = System.currentTimeMillis();
+        Predicate<HistoryRecord> atOrBeforeCutoff = comparator.atOrBefore(source, cutoff);
+
+        // Apply all of the records at or before the cutoff, remembering the last one ...
+        Tables tables = new Tables();
+        AtomicInteger read = new AtomicInteger();
+        AtomicReference<HistoryRecord> last = new AtomicReference<>();
+        original.recoverRecords(tables, ddlParser, record -> {
+            read.incrementAndGet();
+            if (!atOrBeforeCutoff.test(record)) return;
+            if (record.isSnapshot()) {
+                SchemaSnapshot.restore(record.tables(), tables);
+            } else if (record.ddl() != null) {
+                ddlParser.setCurrentSchema(record.databaseName()); // may be null
+                ddlParser.parse(record.ddl(), tables);
+            }
+            last.set(record);
+        });
+
+        // Write one record for each table at the position of the last applied record, but only after producing the statements
+        // for all tables so that nothing is written if any table cannot be compacted ...
+        int written = 0;
+        if (last.get() != null) {
+            Map<String, Object> lastSource = toMap(last.get().source());
+            Map<String, Object> lastPosition = toMap(last.get().position());
+            List<TableId> tableIds = new ArrayList<>(tables.tableIds());
+            Collections.sort(tableIds);
+            List<String> statements = new ArrayList<>(tableIds.size());
+            for (TableId tableId : tableIds) {
+                statements.add(createStatement.apply(tables.forTable(tableId)));
+            }
+            for (int i = 0; i != tableIds.size(); ++i) {
+                compacted.storeRecord(new HistoryRecord(lastSource, lastPosition, tableIds.get(i).catalog(), statements.get(i)));
+                ++written;
+            }
+        }
+
+        // And then copy all of the records after the cutoff ...
+        AtomicInteger copied = new AtomicInteger();
+        original.recoverRecords(new Tables(), ddlParser, record -> {
+            if (atOrBeforeCutoff.test(record)) return;
+            compacted.storeRecord(record);
+            copied.incrementAndGet();
+        });
+        compacted.flush();
+        written += copied.get();
+        logger.info("Compacted {} records from {} into {} records in {} in {} ms", read.get(), original, written, compacted,
+                    System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private static Map<String, Object> toMap(Document doc) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (doc != null) doc.forEach(field -> result.put(field.getName().toString(), field.getValue().asObject()));
+        return result;
+    }
+}
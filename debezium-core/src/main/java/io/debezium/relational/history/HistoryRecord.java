@@ -7,6 +7,7 @@
 
 import java.util.Map;
 
+import io.debezium.document.Array;
 import io.debezium.document.Document;
 
 public class HistoryRecord {
@@ -16,6 +17,7 @@ public static final class Fields {
         public static final String POSITION = "position";
         public static final String DATABASE_NAME = "databaseName";
         public static final String DDL_STATEMENTS = "ddl";
+        public static final String TABLES = "tables";
     }
 
     private final Document doc;
@@ -34,6 +36,18 @@ public HistoryRecord(Map<String, ?> source, Map<String, ?> position, String data
         if (ddl != null) doc.setString(Fields.DDL_STATEMENTS, ddl);
     }
 
+    /**
+     * Create a record that holds a snapshot of the definitions of all tables at the given point in history.
+     * 
+     * @param source the information about the source database; may be null
+     * @param position the point in history; may be null
+     * @param tables the snapshot of all table definitions; may not be null
+     */
+    public HistoryRecord(Map<String, ?> source, Map<String, ?> position, Array tables) {
+        this(source, position, null, null);
+        this.doc.setArray(Fields.TABLES, tables);
+    }
+
     public Document document() {
         return this.doc;
     }
@@ -44,11 +58,11 @@ public boolean isAtOrBefore(HistoryRecord other) {
                 && source().equals(other.source());
     }
 
-    protected Document source() {
+    public Document source() {
         return doc.getDocument("source");
     }
 
-    protected Document position() {
+    public Document position() {
         return doc.getDocument("position");
     }
 
@@ -60,6 +74,14 @@ protected String ddl() {
         return doc.getString("ddl");
     }
 
+    protected Array tables() {
+        return doc.getArray("tables");
+    }
+
+    protected boolean isSnapshot() {
+        return doc.has("tables");
+    }
+
     protected boolean hasSameSource(HistoryRecord other) {
         if (this == other) return true;
         return other != null && source().equals(other.source());
@@ -0,0 +1,38 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Determines which {@link HistoryRecord}s are to be applied when {@link DatabaseHistory#recover recovering} the database schema
+ * to a given point in history. Connectors that know the structure of their source and position information can supply an
+ * implementation that converts the point in history into a typed form once, and then compares each recovered record against it
+ * without the generic {@link io.debezium.document.Document} comparisons used by {@link #INSTANCE}.
+ * 
+ * @author Randall Hauch
+ */
+@FunctionalInterface
+public interface HistoryRecordComparator {
+
+    /**
+     * The comparator that compares the source and position documents of each record with those of the point in history.
+     */
+    public static final HistoryRecordComparator INSTANCE = (source, position) -> {
+        HistoryRecord stopPoint = new HistoryRecord(source, position, null, null);
+        return recorded -> recorded.isAtOrBefore(stopPoint);
+    };
+
+    /**
+     * Obtain a predicate that determines whether a recovered record was recorded at or before the given point in history.
+     * 
+     * @param source the information about the source database; may not be null
+     * @param position the point in history; may not be null
+     * @return the predicate that returns {@code true} for records at or before the given point in history; never null
+     */
+    Predicate<HistoryRecord> atOrBefore(Map<String, ?> source, Map<String, ?> position);
+}
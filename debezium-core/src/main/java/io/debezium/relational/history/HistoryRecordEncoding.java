@@ -0,0 +1,366 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.debezium.annotation.ThreadSafe;
+import io.debezium.config.Configuration;
+import io.debezium.config.Field;
+import io.debezium.document.Array;
+import io.debezium.document.ArrayReader;
+import io.debezium.document.ArrayWriter;
+import io.debezium.document.Document;
+import io.debezium.document.DocumentReader;
+import io.debezium.document.DocumentWriter;
+import io.debezium.document.Value;
+
+/**
+ * Converts {@link HistoryRecord}s to and from bytes using either the original JSON format or a more compact, versioned binary
+ * format. The binary format stores the source and position fields with their types, stores the database name and DDL
+ * statements as length-prefixed strings, and can optionally compress the DDL statements. Reading always accepts both formats,
+ * so a history written in JSON can still be recovered after switching to the binary format.
+ * <p>
+ * Version 1 of the binary format starts with the {@link #MAGIC} byte, followed by the version byte, a byte of flags, the source
+ * and position fields, and then the optional database name, DDL statements, and table snapshot.
+ * 
+ * @author Randall Hauch
+ */
+@ThreadSafe
+public final class HistoryRecordEncoding {
+
+    /**
+     * The formats in which history records can be written.
+     */
+    public static enum Format {
+        /**
+         * Each record is written as a JSON document.
+         */
+        JSON,
+        /**
+         * Each record is written in the compact binary format.
+         */
+        BINARY;
+
+        /**
+         * Get the format with the given name, ignoring case.
+         * 
+         * @param value the name of the format; may be null
+         * @return the format, or null if the name does not match any format
+         */
+        public static Format parse(String value) {
+            if (value == null) return null;
+            value = value.trim();
+            for (Format format : Format.values()) {
+                if (format.name().equalsIgnoreCase(value)) return format;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The first byte of every record in the binary format. JSON documents never start with this byte.
+     */
+    public static final byte MAGIC = 0;
+
+    /**
+     * The version of the binary format written by this class.
+     */
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_DATABASE_NAME = 1;
+    private static final int FLAG_DDL = 1 << 1;
+    private static final int FLAG_DDL_COMPRESSED = 1 << 2;
+    private static final int FLAG_TABLES = 1 << 3;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_FLOAT = 5;
+    private static final byte TYPE_DOUBLE = 6;
+
+    /**
+     * DDL statements shorter than this are never compressed, since they would hardly shrink.
+     */
+    private static final int MIN_COMPRESSED_LENGTH = 128;
+
+    /**
+     * Validate that the value of the given field is the name of a {@link Format}.
+     * 
+     * @param config the configuration; may not be null
+     * @param field the field; may not be null
+     * @param problems the consumer of problems; may not be null
+     * @return the number of problems
+     */
+    public static int isFormat(Configuration config, Field field, Consumer<String> problems) {
+        String value = config.getString(field);
+        if (value != null && Format.parse(value) == null) {
+            problems.accept("The " + field + " value '" + value + "' must be either 'json' or 'binary'");
+            return 1;
+        }
+        return 0;
+    }
+
+    private final DocumentWriter writer = DocumentWriter.defaultWriter();
+    private final DocumentReader reader = DocumentReader.defaultReader();
+    private final ArrayWriter arrayWriter = ArrayWriter.defaultWriter();
+    private final ArrayReader arrayReader = ArrayReader.defaultReader();
+    private final Format format;
+    private final boolean compressDdl;
+
+    /**
+     * Create an encoding that writes records in the given format.
+     * 
+     * @param format the format for written records; may not be null
+     * @param compressDdl {@code true} if DDL statements in binary records should be compressed, or {@code false} otherwise
+     */
+    public HistoryRecordEncoding(Format format, boolean compressDdl) {
+        this.format = format;
+        this.compressDdl = compressDdl;
+    }
+
+    /**
+     * Get the format in which records are written.
+     * 
+     * @return the format; never null
+     */
+    public Format format() {
+        return format;
+    }
+
+    /**
+     * Write the record in this encoding's format. Records whose source or position contain values other than strings, numbers,
+     * and booleans are always written as JSON.
+     * 
+     * @param record the record; may not be null
+     * @return the bytes of the record; never null
+     */
+    public byte[] write(HistoryRecord record) {
+        if (format == Format.BINARY && isScalar(record.source()) && isScalar(record.position())) {
+            try {
+                return writeBinary(record);
+            } catch (IOException e) {
+                // Should never happen with an in-memory stream, but fall back to JSON ...
+            }
+        }
+        return writer.writeAsBytes(record.document());
+    }
+
+    /**
+     * Read a record that was written in either format.
+     * 
+     * @param bytes the bytes of the record; may not be null
+     * @return the record; never null
+     * @throws IOException if the bytes cannot be read as a record
+     */
+    public HistoryRecord read(byte[] bytes) throws IOException {
+        if (bytes.length > 0 && bytes[0] == MAGIC) return readBinary(bytes);
+        return new HistoryRecord(reader.read(bytes));
+    }
+
+    private byte[] writeBinary(HistoryRecord record) throws IOException {
+        String databaseName = record.databaseName();
+        String ddl = record.ddl();
+        Array tables = record.tables();
+        byte[] ddlBytes = ddl != null ? ddl.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] compressed = compressDdl && ddlBytes != null && ddlBytes.length >= MIN_COMPRESSED_LENGTH ? compress(ddlBytes) : null;
+        int flags = 0;
+        if (databaseName != null) flags |= FLAG_DATABASE_NAME;
+        if (ddlBytes != null) flags |= FLAG_DDL;
+        if (compressed != null) flags |= FLAG_DDL_COMPRESSED;
+        if (tables != null) flags |= FLAG_TABLES;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (ddlBytes != null ? ddlBytes.length : 0));
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(MAGIC);
+        output.writeByte(VERSION);
+        output.writeByte(flags);
+        writeFields(record.source(), output);
+        writeFields(record.position(), output);
+        if (databaseName != null) output.writeUTF(databaseName);
+        if (compressed != null) {
+            output.writeInt(ddlBytes.length);
+            writeBytes(compressed, output);
+        } else if (ddlBytes != null) {
+            writeBytes(ddlBytes, output);
+        }
+        if (tables != null) writeBytes(arrayWriter.writeAsBytes(tables), output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private HistoryRecord readBinary(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        input.readByte(); // magic
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unable to read history record written with unknown binary format version " + version);
+        }
+        int flags = input.readByte();
+        Document doc = Document.create();
+        readFields(input, doc.setDocument(HistoryRecord.Fields.SOURCE));
+        readFields(input, doc.setDocument(HistoryRecord.Fields.POSITION));
+        if ((flags & FLAG_DATABASE_NAME) != 0) doc.setString(HistoryRecord.Fields.DATABASE_NAME, input.readUTF());
+        if ((flags & FLAG_DDL_COMPRESSED) != 0) {
+            int length = input.readInt();
+            byte[] ddl = decompress(readBytes(input), length);
+            doc.setString(HistoryRecord.Fields.DDL_STATEMENTS, new String(ddl, StandardCharsets.UTF_8));
+        } else if ((flags & FLAG_DDL) != 0) {
+            doc.setString(HistoryRecord.Fields.DDL_STATEMENTS, new String(readBytes(input), StandardCharsets.UTF_8));
+        }
+        if ((flags & FLAG_TABLES) != 0) doc.setArray(HistoryRecord.Fields.TABLES, arrayReader.readArray(readBytes(input)));
+        return new HistoryRecord(doc);
+    }
+
+    private static boolean isScalar(Document doc) {
+        if (doc == null) return true;
+        for (Document.Field field : doc) {
+            switch (field.getValue().getType()) {
+                case NULL:
+                case STRING:
+                case BOOLEAN:
+                case INTEGER:
+                case LONG:
+                case FLOAT:
+                case DOUBLE:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFields(Document doc, DataOutputStream output) throws IOException {
+        output.writeInt(doc != null ? doc.size() : 0);
+        if (doc == null) return;
+        for (Document.Field field : doc) {
+            output.writeUTF(field.getName().toString());
+            Value value = field.getValue();
+            switch (value.getType()) {
+                case STRING:
+                    output.writeByte(TYPE_STRING);
+                    output.writeUTF(value.asString());
+                    break;
+                case BOOLEAN:
+                    output.writeByte(TYPE_BOOLEAN);
+                    output.writeBoolean(value.asBoolean());
+                    break;
+                case INTEGER:
+                    output.writeByte(TYPE_INTEGER);
+                    output.writeInt(value.asInteger());
+                    break;
+                case LONG:
+                    output.writeByte(TYPE_LONG);
+                    output.writeLong(value.asLong());
+                    break;
+                case FLOAT:
+                    output.writeByte(TYPE_FLOAT);
+                    output.writeFloat(value.asFloat());
+                    break;
+                case DOUBLE:
+                    output.writeByte(TYPE_DOUBLE);
+                    output.writeDouble(value.asDouble());
+                    break;
+                default:
+                    output.writeByte(TYPE_NULL);
+                    break;
+            }
+        }
+    }
+
+    private static void readFields(DataInputStream input, Document doc) throws IOException {
+        int count = input.readInt();
+        for (int i = 0; i != count; ++i) {
+            String name = input.readUTF();
+            byte type = input.readByte();
+            switch (type) {
+                case TYPE_NULL:
+                    doc.setNull(name);
+                    break;
+                case TYPE_STRING:
+                    doc.setString(name, input.readUTF());
+                    break;
+                case TYPE_BOOLEAN:
+                    doc.setBoolean(name, input.readBoolean());
+                    break;
+                case TYPE_INTEGER:
+                    doc.setNumber(name, input.readInt());
+                    break;
+                case TYPE_LONG:
+                    doc.setNumber(name, input.readLong());
+                    break;
+                case TYPE_FLOAT:
+                    doc.setNumber(name, input.readFloat());
+                    break;
+                case TYPE_DOUBLE:
+                    doc.setNumber(name, input.readDouble());
+                    break;
+                default:
+                    throw new IOException("Unknown type " + type + " for field '" + name + "' in history record");
+            }
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream output) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            // Only use the compressed form if it is actually smaller ...
+            return output.size() < bytes.length ? output.toByteArray() : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] bytes, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            byte[] result = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int inflated = inflater.inflate(result, offset, length - offset);
+                if (inflated == 0 && inflater.needsInput()) break;
+                offset += inflated;
+            }
+            if (offset != length) throw new IOException("Compressed DDL statements in history record are truncated");
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Unable to decompress DDL statements in history record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
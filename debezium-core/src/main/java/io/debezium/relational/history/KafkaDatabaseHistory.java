@@ -6,7 +6,9 @@
 package io.debezium.relational.history;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -21,7 +23,10 @@
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.kafka.connect.errors.ConnectException;
@@ -30,7 +35,6 @@
 import io.debezium.annotation.NotThreadSafe;
 import io.debezium.config.Configuration;
 import io.debezium.config.Field;
-import io.debezium.document.DocumentReader;
 import io.debezium.relational.Tables;
 import io.debezium.relational.ddl.DdlParser;
 import io.debezium.util.Collect;
@@ -57,30 +61,57 @@ public class KafkaDatabaseHistory extends AbstractDatabaseHistory {
 
     public static final Field RECOVERY_POLL_INTERVAL_MS = Field.create(CONFIGURATION_FIELD_PREFIX_STRING
             + "kafka.recovery.poll.interval.ms")
-                                                               .withDescription("The number of milliseconds to wait while polling for persisted data during recovery.")
+                                                               .withDescription("The maximum number of milliseconds to wait for each poll of persisted data during recovery.")
                                                                .withDefault(100)
                                                                .withValidation(Field::isInteger);
 
     public static final Field RECOVERY_POLL_ATTEMPTS = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "kafka.recovery.attempts")
-                                                            .withDescription("The number of attempts in a row that no data are returned from Kafka before recover completes. "
-                                                                    + "The maximum amount of time to wait after receiving no data is (recovery.attempts) x (recovery.poll.interval.ms).")
+                                                            .withDescription("Recovery reads the topic up to the end offset found when recovery starts. This is the minimum "
+                                                                    + "number of polls in a row that return no data before that end offset is reached, after which "
+                                                                    + "recovery fails if no data has been read for at least 'recovery.timeout.ms'. Recovery can therefore "
+                                                                    + "fail when the topic cannot be read up to that end offset, for example when the brokers are "
+                                                                    + "unavailable for longer than that timeout.")
                                                             .withDefault(4)
                                                             .withValidation(Field::isInteger);
 
+    public static final Field RECOVERY_TIMEOUT_MS = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "kafka.recovery.timeout.ms")
+                                                         .withDescription("The minimum number of milliseconds since recovery started or since data was last read "
+                                                                 + "during recovery, after which recovery fails if the last 'recovery.attempts' polls "
+                                                                 + "returned no data before reaching the end of the topic. This allows for a slow first "
+                                                                 + "fetch or a change of partition leader during recovery.")
+                                                         .withDefault(60000)
+                                                         .withValidation(Field::isPositiveInteger);
+
+    public static final Field PIPELINED_WRITES = Field.create(CONFIGURATION_FIELD_PREFIX_STRING + "kafka.pipelined.writes")
+                                                      .withDescription("Whether records are sent to Kafka without waiting for each to be acknowledged, "
+                                                              + "so that many schema changes can be recorded quickly. All sent records are still "
+                                                              + "acknowledged before the connector's offsets are committed. The default is 'false', "
+                                                              + "which waits for each record to be acknowledged before continuing.")
+                                                      .withDefault(false)
+                                                      .withValidation(Field::isBoolean);
+
     public static Collection<Field> ALL_FIELDS = Collect.arrayListOf(TOPIC, BOOTSTRAP_SERVERS,
-                                                                     RECOVERY_POLL_INTERVAL_MS, RECOVERY_POLL_ATTEMPTS);
+                                                                     RECOVERY_POLL_INTERVAL_MS, RECOVERY_POLL_ATTEMPTS,
+                                                                     RECOVERY_TIMEOUT_MS,
+                                                                     PIPELINED_WRITES, SNAPSHOT_INTERVAL, FORMAT, COMPRESS_DDL,
+                                                                     RECOVERY_THREADS);
 
     private static final String CONSUMER_PREFIX = CONFIGURATION_FIELD_PREFIX_STRING + "consumer.";
     private static final String PRODUCER_PREFIX = CONFIGURATION_FIELD_PREFIX_STRING + "producer.";
+    private static final int RECOVERY_FETCH_BYTES = 8 * 1024 * 1024; // 8MB
     
-    private final DocumentReader reader = DocumentReader.defaultReader();
     private final Integer partition = new Integer(0);
     private String topicName;
     private Configuration consumerConfig;
     private Configuration producerConfig;
-    private KafkaProducer<String, String> producer;
+    private KafkaProducer<String, byte[]> producer;
     private int recoveryAttempts = -1;
     private int pollIntervalMs = -1;
+    private long recoveryTimeoutMs = -1L;
+    private boolean pipelined;
+    private volatile long recoveredRecords;
+    private volatile long recoveryMillis;
+    private final List<Future<RecordMetadata>> unacknowledged = new ArrayList<>();
 
     @Override
     public void configure(Configuration config) {
@@ -91,6 +122,8 @@ public void configure(Configuration config) {
         this.topicName = config.getString(TOPIC);
         this.pollIntervalMs = config.getInteger(RECOVERY_POLL_INTERVAL_MS);
         this.recoveryAttempts = config.getInteger(RECOVERY_POLL_ATTEMPTS);
+        this.recoveryTimeoutMs = config.getInteger(RECOVERY_TIMEOUT_MS);
+        this.pipelined = config.getBoolean(PIPELINED_WRITES);
 
         String bootstrapServers = config.getString(BOOTSTRAP_SERVERS);
         // Copy the relevant portions of the configuration and add useful defaults ...
@@ -100,12 +133,13 @@ public void configure(Configuration config) {
                                     .withDefault(ConsumerConfig.CLIENT_ID_CONFIG, clientAndGroupId)
                                     .withDefault(ConsumerConfig.GROUP_ID_CONFIG, clientAndGroupId)
                                     .withDefault(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1) // get even smallest message
+                                    .withDefault(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, RECOVERY_FETCH_BYTES)
                                     .withDefault(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false)
                                     .withDefault(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000)
                                     .withDefault(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG,
                                                  OffsetResetStrategy.EARLIEST.toString().toLowerCase())
                                     .withDefault(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)
-                                    .withDefault(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)
+                                    .withDefault(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
                                     .build();
         this.producerConfig = config.subset(PRODUCER_PREFIX, true).edit()
                                     .withDefault(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers)
@@ -117,7 +151,7 @@ public void configure(Configuration config) {
                                     .withDefault(ProducerConfig.LINGER_MS_CONFIG, 0)
                                     .withDefault(ProducerConfig.BUFFER_MEMORY_CONFIG, 1024 * 1024) // 1MB
                                     .withDefault(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class)
-                                    .withDefault(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class)
+                                    .withDefault(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
                                     .build();
         logger.info("KafkaDatabaseHistory Consumer config: " + consumerConfig);
         logger.info("KafkaDatabaseHistory Producer config: " + producerConfig);
@@ -133,8 +167,13 @@ public void start() {
     protected void storeRecord(HistoryRecord record) {
         logger.trace("Storing record into database history: {}", record);
         try {
-            ProducerRecord<String, String> produced = new ProducerRecord<>(topicName, partition, null, record.toString());
+            ProducerRecord<String, byte[]> produced = new ProducerRecord<>(topicName, partition, null, encoding.write(record));
             Future<RecordMetadata> future = this.producer.send(produced);
+            if (pipelined) {
+                // Don't wait now, but make sure the record is acknowledged before offsets are committed ...
+                unacknowledged.add(future);
+                return;
+            }
             // Flush and then wait ...
             this.producer.flush();
             RecordMetadata metadata = future.get(); // block forever since we have to be sure this gets recorded
@@ -149,43 +188,106 @@ protected void storeRecord(HistoryRecord record) {
         }
     }
 
+    @Override
+    public void flush() {
+        if (unacknowledged.isEmpty()) return;
+        this.producer.flush();
+        try {
+            for (Future<RecordMetadata> future : unacknowledged) {
+                future.get(); // block forever since we have to be sure this gets recorded
+            }
+            logger.debug("Stored {} records in database history topic '{}'", unacknowledged.size(), topicName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectException("Interrupted while waiting for database history records to be stored in Kafka", e);
+        } catch (ExecutionException e) {
+            // The offsets must not be committed since the history would then be missing changes ...
+            throw new ConnectException("Error while storing database history records into Kafka", e.getCause());
+        } finally {
+            unacknowledged.clear();
+        }
+    }
+
     @Override
     protected void recoverRecords(Tables schema, DdlParser ddlParser, Consumer<HistoryRecord> records) {
-        try (KafkaConsumer<String, String> historyConsumer = new KafkaConsumer<String, String>(consumerConfig.asProperties());) {
-            // Subscribe to the only partition for this topic, and seek to the beginning of that partition ...
+        long start = System.currentTimeMillis();
+        long count = 0L;
+        try (KafkaConsumer<String, byte[]> historyConsumer = new KafkaConsumer<String, byte[]>(consumerConfig.asProperties());) {
+            List<PartitionInfo> partitions = historyConsumer.partitionsFor(topicName);
+            if (partitions == null || partitions.isEmpty()) {
+                logger.info("Database history topic '{}' does not exist, so there is no history to recover", topicName);
+                return;
+            }
+            // Find the end of the only partition for this topic, and then read it from the beginning up to that offset ...
             TopicPartition topicPartition = new TopicPartition(topicName, partition);
-            logger.debug("Subscribing to database history topic '{}' partition {} at offset 0", topicPartition.topic(),
-                         topicPartition.partition());
-            historyConsumer.subscribe(Collect.arrayListOf(topicName));
+            historyConsumer.assign(Collect.arrayListOf(topicPartition));
+            historyConsumer.seekToEnd(topicPartition);
+            long endOffset = historyConsumer.position(topicPartition);
+            historyConsumer.seekToBeginning(topicPartition);
+            logger.debug("Reading database history topic '{}' partition {} up to offset {}", topicPartition.topic(),
+                         topicPartition.partition(), endOffset);
 
-            // Read all messages in the topic ...
+            // The first fetch may be slow and the partition's leader may change, so fail only after several empty polls in a
+            // row and when no data has been read for a much longer time ...
             int remainingEmptyPollResults = this.recoveryAttempts;
-            while (remainingEmptyPollResults > 0) {
-                ConsumerRecords<String, String> recoveredRecords = historyConsumer.poll(this.pollIntervalMs);
+            long lastProgress = System.currentTimeMillis();
+            long nextOffset = historyConsumer.position(topicPartition);
+            while (nextOffset < endOffset) {
+                ConsumerRecords<String, byte[]> recoveredRecords = historyConsumer.poll(this.pollIntervalMs);
                 logger.debug("Read {} records from database history", recoveredRecords.count());
                 if (recoveredRecords.isEmpty()) {
-                    --remainingEmptyPollResults;
-                } else {
-                    remainingEmptyPollResults = this.recoveryAttempts;
-                    for (ConsumerRecord<String, String> record : recoveredRecords) {
-                        try {
-                            HistoryRecord recordObj = new HistoryRecord(reader.read(record.value()));
-                            records.accept(recordObj);
-                            logger.trace("Recovered database history: {}" + recordObj);
-                        } catch (IOException e) {
-                            logger.error("Error while deserializing history record", e);
-                        }
+                    if (--remainingEmptyPollResults <= 0 && System.currentTimeMillis() - lastProgress >= this.recoveryTimeoutMs) {
+                        throw new ConnectException("Unable to read database history topic '" + topicName + "' beyond offset "
+                                + nextOffset + " of " + endOffset + " after no data was read for " + this.recoveryTimeoutMs + " ms");
+                    }
+                    continue;
+                }
+                remainingEmptyPollResults = this.recoveryAttempts;
+                lastProgress = System.currentTimeMillis();
+                for (ConsumerRecord<String, byte[]> record : recoveredRecords) {
+                    nextOffset = record.offset() + 1;
+                    if (record.offset() >= endOffset) break; // written after recovery started
+                    try {
+                        HistoryRecord recordObj = encoding.read(record.value());
+                        records.accept(recordObj);
+                        ++count;
+                        logger.trace("Recovered database history: {}" + recordObj);
+                    } catch (IOException e) {
+                        logger.error("Error while deserializing history record", e);
                     }
                 }
             }
+        } finally {
+            this.recoveredRecords = count;
+            this.recoveryMillis = System.currentTimeMillis() - start;
+            logger.info("Recovered {} records from database history topic '{}' in {} ms", count, topicName, recoveryMillis);
         }
     }
 
+    /**
+     * Get the number of records read from the topic during the most recent recovery.
+     * 
+     * @return the number of recovered records
+     */
+    public long recoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /**
+     * Get the number of milliseconds that the most recent recovery spent reading and applying the records in the topic.
+     * 
+     * @return the duration of the most recent recovery in milliseconds
+     */
+    public long recoveryMillis() {
+        return recoveryMillis;
+    }
+
     @Override
     public void stop() {
         try {
             if (this.producer != null) {
                 try {
+                    flush();
                     this.producer.flush();
                 } finally {
                     this.producer.close();
@@ -0,0 +1,198 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.kafka.connect.errors.ConnectException;
+
+import io.debezium.annotation.NotThreadSafe;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.relational.ddl.DdlParser;
+
+/**
+ * Applies recovered DDL records to a schema using multiple threads. Most DDL records change only the tables in the database named
+ * by the record, so the records for different databases can be applied independently. Each run of consecutive records that
+ * only refer to tables by unqualified names is grouped by database, and the records for each database are applied in order, by
+ * a separate {@link DdlParser}, to a fragment of the schema that contains only that database's tables. The fragments are then
+ * merged back into the schema. Any record that might refer to tables in other databases, or that names no database, is a
+ * barrier that is applied only after all earlier records and before any later records. The resulting schema is therefore
+ * the same as when all of the records are applied serially.
+ * <p>
+ * This assumes that the parsers resolve unqualified table names using the record's database name as the
+ * {@link TableId#catalog() catalog}, as {@link DdlParser} does by default.
+ * 
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class ParallelReplay implements AutoCloseable {
+
+    private final Supplier<DdlParser> ddlParsers;
+    private final int threads;
+    private final Queue<DdlParser> idleParsers = new ConcurrentLinkedQueue<>();
+    private ExecutorService executor;
+
+    /**
+     * Create a replay that uses the given number of threads.
+     * 
+     * @param ddlParsers the supplier of new parsers, each of which is used by only one thread at a time; may not be null
+     * @param threads the maximum number of threads; must be greater than 1
+     */
+    ParallelReplay(Supplier<DdlParser> ddlParsers, int threads) {
+        this.ddlParsers = ddlParsers;
+        this.threads = threads;
+    }
+
+    /**
+     * Apply the supplied DDL records in order to the schema.
+     * 
+     * @param records the DDL records; may not be null
+     * @param schema the schema to which the records are applied; may not be null
+     * @param ddlParser the parser used to apply the records that must be applied serially; may not be null
+     */
+    void apply(List<HistoryRecord> records, Tables schema, DdlParser ddlParser) {
+        int index = 0;
+        while (index < records.size()) {
+            // Gather the records up to the next barrier by database, retaining their order ...
+            Map<String, List<HistoryRecord>> recordsByDatabase = new LinkedHashMap<>();
+            while (index < records.size() && isConfinedToDatabase(records.get(index))) {
+                HistoryRecord record = records.get(index++);
+                recordsByDatabase.computeIfAbsent(record.databaseName(), name -> new ArrayList<>()).add(record);
+            }
+            if (recordsByDatabase.size() > 1) {
+                applyConcurrently(recordsByDatabase, schema);
+            } else {
+                recordsByDatabase.values().forEach(databaseRecords -> applySerially(databaseRecords, schema, ddlParser));
+            }
+            if (index < records.size()) {
+                applySerially(records.subList(index, index + 1), schema, ddlParser);
+                ++index;
+            }
+        }
+    }
+
+    private void applyConcurrently(Map<String, List<HistoryRecord>> recordsByDatabase, Tables schema) {
+        List<CompletableFuture<Tables>> fragments = new ArrayList<>();
+        recordsByDatabase.forEach((databaseName, databaseRecords) -> {
+            Tables fragment = schema.subset(id -> databaseName.equals(id.catalog()));
+            fragment.drainChanges();
+            DdlParser parser = idleParsers.poll();
+            DdlParser fragmentParser = parser != null ? parser : ddlParsers.get();
+            fragments.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    applySerially(databaseRecords, fragment, fragmentParser);
+                    return fragment;
+                } finally {
+                    idleParsers.add(fragmentParser);
+                }
+            }, executor()));
+        });
+        try {
+            for (CompletableFuture<Tables> future : fragments) {
+                Tables fragment = future.get();
+                for (TableId tableId : fragment.drainChanges()) {
+                    Table table = fragment.forTable(tableId);
+                    if (table != null) {
+                        schema.overwriteTable(table);
+                    } else {
+                        schema.removeTable(tableId);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectException("Interrupted while recovering database history", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new ConnectException("Error while recovering database history", e.getCause());
+        } finally {
+            fragments.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static void applySerially(List<HistoryRecord> records, Tables schema, DdlParser ddlParser) {
+        for (HistoryRecord recovered : records) {
+            ddlParser.setCurrentSchema(recovered.databaseName()); // may be null
+            ddlParser.parse(recovered.ddl(), schema);
+        }
+    }
+
+    private ExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threadFactory = (runnable) -> {
+                Thread thread = new Thread(runnable, "debezium-history-recovery-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = Executors.newFixedThreadPool(threads, threadFactory);
+        }
+        return executor;
+    }
+
+    /**
+     * Stop the threads used to apply records.
+     */
+    @Override
+    public void close() {
+        if (executor != null) executor.shutdownNow();
+        executor = null;
+        idleParsers.clear();
+    }
+
+    /**
+     * Determine whether the supplied record can only change the tables in the database named by the record. This is a cheap
+     * lexical test: the record must name a database, and its DDL must not contain any qualified names (e.g.,
+     * {@code other.customers}) outside of quoted literals. Decimal numbers such as {@code 1.5} are not qualified names.
+     * 
+     * @param record the DDL record; may not be null
+     * @return {@code true} if the record only changes tables in its own database, or {@code false} if it might change others
+     */
+    static boolean isConfinedToDatabase(HistoryRecord record) {
+        return record.databaseName() != null && !containsQualifiedName(record.ddl());
+    }
+
+    static boolean containsQualifiedName(String ddl) {
+        int length = ddl.length();
+        for (int i = 0; i != length; ++i) {
+            char c = ddl.charAt(i);
+            if (c == '\'' || c == '"') {
+                // Skip the quoted literal, including escaped and doubled quotes ...
+                for (++i; i < length && ddl.charAt(i) != c; ++i) {
+                    if (ddl.charAt(i) == '\\') ++i;
+                }
+            } else if (c == '.') {
+                // A decimal number has only digits before the period, and at least one digit after it ...
+                int start = i;
+                while (start > 0 && Character.isDigit(ddl.charAt(start - 1))) {
+                    --start;
+                }
+                boolean decimal = start < i && (start == 0 || !isIdentifierPart(ddl.charAt(start - 1)))
+                        && i + 1 < length && Character.isDigit(ddl.charAt(i + 1));
+                if (!decimal) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '`';
+    }
+}
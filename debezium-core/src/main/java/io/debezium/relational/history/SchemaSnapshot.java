@@ -0,0 +1,116 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.document.Array;
+import io.debezium.document.Document;
+import io.debezium.document.Value;
+import io.debezium.relational.Column;
+import io.debezium.relational.ColumnEditor;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+
+/**
+ * Utilities for converting the complete state of a {@link Tables} into an {@link Array} of {@link Document}s that can be
+ * stored in a {@link HistoryRecord}, and for restoring a {@link Tables} from such an array. Restoring a snapshot is much faster
+ * than parsing all of the DDL statements that produced it.
+ * 
+ * @author Randall Hauch
+ */
+@Immutable
+final class SchemaSnapshot {
+
+    public static final class Fields {
+        public static final String CATALOG = "catalog";
+        public static final String SCHEMA = "schema";
+        public static final String TABLE = "table";
+        public static final String COLUMNS = "columns";
+        public static final String PRIMARY_KEY = "primaryKey";
+        public static final String NAME = "name";
+        public static final String POSITION = "position";
+        public static final String JDBC_TYPE = "jdbcType";
+        public static final String TYPE_NAME = "typeName";
+        public static final String LENGTH = "length";
+        public static final String SCALE = "scale";
+        public static final String OPTIONAL = "optional";
+        public static final String AUTO_INCREMENTED = "autoIncremented";
+        public static final String GENERATED = "generated";
+    }
+
+    /**
+     * Create a snapshot of the definitions of all tables.
+     * 
+     * @param tables the table definitions; may not be null
+     * @return the array containing one document for each table; never null
+     */
+    public static Array toArray(Tables tables) {
+        Array result = Array.create();
+        for (TableId id : tables.tableIds()) {
+            Table table = tables.forTable(id);
+            if (table == null) continue; // removed concurrently
+            Document doc = Document.create();
+            if (id.catalog() != null) doc.setString(Fields.CATALOG, id.catalog());
+            if (id.schema() != null) doc.setString(Fields.SCHEMA, id.schema());
+            doc.setString(Fields.TABLE, id.table());
+            Array columns = doc.setArray(Fields.COLUMNS);
+            for (Column column : table.columns()) {
+                Document col = Document.create();
+                col.setString(Fields.NAME, column.name());
+                col.setNumber(Fields.POSITION, column.position());
+                col.setNumber(Fields.JDBC_TYPE, column.jdbcType());
+                col.setString(Fields.TYPE_NAME, column.typeName());
+                col.setNumber(Fields.LENGTH, column.length());
+                col.setNumber(Fields.SCALE, column.scale());
+                col.setBoolean(Fields.OPTIONAL, column.isOptional());
+                col.setBoolean(Fields.AUTO_INCREMENTED, column.isAutoIncremented());
+                col.setBoolean(Fields.GENERATED, column.isGenerated());
+                columns.add(col);
+            }
+            Array pk = doc.setArray(Fields.PRIMARY_KEY);
+            table.primaryKeyColumnNames().forEach(pk::add);
+            result.add(doc);
+        }
+        return result;
+    }
+
+    /**
+     * Replace all of the table definitions with those in the supplied snapshot.
+     * 
+     * @param snapshot the snapshot produced by {@link #toArray(Tables)}; may not be null
+     * @param tables the table definitions to be replaced; may not be null
+     */
+    public static void restore(Array snapshot, Tables tables) {
+        new ArrayList<>(tables.tableIds()).forEach(tables::removeTable);
+        snapshot.streamValues().map(Value::asDocument).forEach(doc -> {
+            TableId id = new TableId(doc.getString(Fields.CATALOG), doc.getString(Fields.SCHEMA), doc.getString(Fields.TABLE));
+            List<Column> columns = new ArrayList<>();
+            doc.getArray(Fields.COLUMNS).streamValues().map(Value::asDocument).forEach(col -> {
+                ColumnEditor editor = Column.editor()
+                                            .name(col.getString(Fields.NAME))
+                                            .position(col.getInteger(Fields.POSITION, 1))
+                                            .jdbcType(col.getInteger(Fields.JDBC_TYPE, 0))
+                                            .typeName(col.getString(Fields.TYPE_NAME))
+                                            .length(col.getInteger(Fields.LENGTH, -1))
+                                            .scale(col.getInteger(Fields.SCALE, -1))
+                                            .optional(col.getBoolean(Fields.OPTIONAL, true))
+                                            .autoIncremented(col.getBoolean(Fields.AUTO_INCREMENTED, false))
+                                            .generated(col.getBoolean(Fields.GENERATED, false));
+                columns.add(editor.create());
+            });
+            List<String> pkNames = new ArrayList<>();
+            doc.getArray(Fields.PRIMARY_KEY).streamValues().map(Value::asString).forEach(pkNames::add);
+            tables.overwriteTable(id, columns, pkNames);
+        });
+    }
+
+    private SchemaSnapshot() {
+    }
+}
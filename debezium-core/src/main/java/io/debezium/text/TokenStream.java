@@ -5,12 +5,14 @@
  */
 package io.debezium.text;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.function.IntConsumer;
 import java.util.function.LongConsumer;
 
@@ -400,6 +402,7 @@ public String toString() {
     private final boolean caseSensitive;
     private final Tokenizer tokenizer;
     private List<Token> tokens;
+    private CompactTokens compactTokens;
     /**
      * This class navigates the Token objects using this iterator. However, because it very often needs to access the
      * "current token" in the "consume(...)" and "canConsume(...)" and "matches(...)" methods, the class caches a "current token"
@@ -442,6 +445,7 @@ public TokenStream start() throws ParsingException {
             CharacterStream characterStream = new CharacterArrayStream(inputContent);
             tokenizer.tokenize(characterStream, tokenFactory);
             this.tokens = initializeTokens(tokenFactory.getTokens());
+            this.compactTokens = this.tokens instanceof CompactTokens ? (CompactTokens) this.tokens : null;
         }
 
         // Create the iterator ...
@@ -1151,19 +1155,16 @@ public boolean canConsume(int expectedType) throws IllegalStateException {
     public boolean canConsume(String currentExpected,
                               String... expectedForNextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        if (!iter.hasNext()) return false;
-        Token token = iter.next();
-        if (currentExpected != ANY_VALUE && !token.matches(currentExpected)) return false;
+        int index = tokenIterator.previousIndex();
+        if (index >= tokens.size()) return false;
+        if (currentExpected != ANY_VALUE && !tokenMatches(index, currentExpected)) return false;
         for (String nextExpected : expectedForNextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpected == ANY_VALUE) continue;
-            if (!token.matches(nextExpected)) return false;
+            if (!tokenMatches(index, nextExpected)) return false;
         }
-        this.tokenIterator = iter;
-        this.currentToken = tokenIterator.hasNext() ? tokenIterator.next() : null;
-        this.completed = this.currentToken == null;
+        this.tokenIterator = tokens.listIterator(index + 1);
+        moveToNextToken();
         return true;
     }
 
@@ -1197,17 +1198,14 @@ public boolean canConsume(String currentExpected,
      */
     public boolean canConsume(String[] nextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        Token token = null;
+        int index = tokenIterator.previousIndex() - 1;
         for (String nextExpected : nextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpected == ANY_VALUE) continue;
-            if (!token.matches(nextExpected)) return false;
+            if (!tokenMatches(index, nextExpected)) return false;
         }
-        this.tokenIterator = iter;
-        this.currentToken = tokenIterator.hasNext() ? tokenIterator.next() : null;
-        this.completed = this.currentToken == null;
+        this.tokenIterator = tokens.listIterator(index + 1);
+        moveToNextToken();
         return true;
     }
 
@@ -1241,17 +1239,14 @@ public boolean canConsume(String[] nextTokens) throws IllegalStateException {
      */
     public boolean canConsume(Iterable<String> nextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        Token token = null;
+        int index = tokenIterator.previousIndex() - 1;
         for (String nextExpected : nextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpected == ANY_VALUE) continue;
-            if (!token.matches(nextExpected)) return false;
+            if (!tokenMatches(index, nextExpected)) return false;
         }
-        this.tokenIterator = iter;
-        this.currentToken = tokenIterator.hasNext() ? tokenIterator.next() : null;
-        this.completed = this.currentToken == null;
+        this.tokenIterator = tokens.listIterator(index + 1);
+        moveToNextToken();
         return true;
     }
 
@@ -1386,15 +1381,13 @@ public boolean matches(int expectedType) throws IllegalStateException {
     public boolean matches(String currentExpected,
                            String... expectedForNextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        if (!iter.hasNext()) return false;
-        Token token = iter.next();
-        if (currentExpected != ANY_VALUE && !token.matches(currentExpected)) return false;
+        int index = tokenIterator.previousIndex();
+        if (index >= tokens.size()) return false;
+        if (currentExpected != ANY_VALUE && !tokenMatches(index, currentExpected)) return false;
         for (String nextExpected : expectedForNextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpected == ANY_VALUE) continue;
-            if (!token.matches(nextExpected)) return false;
+            if (!tokenMatches(index, nextExpected)) return false;
         }
         return true;
     }
@@ -1411,13 +1404,11 @@ public boolean matches(String currentExpected,
      */
     public boolean matches(String[] nextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        Token token = null;
+        int index = tokenIterator.previousIndex() - 1;
         for (String nextExpected : nextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpected == ANY_VALUE) continue;
-            if (!token.matches(nextExpected)) return false;
+            if (!tokenMatches(index, nextExpected)) return false;
         }
         return true;
     }
@@ -1434,13 +1425,11 @@ public boolean matches(String[] nextTokens) throws IllegalStateException {
      */
     public boolean matches(Iterable<String> nextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        Token token = null;
+        int index = tokenIterator.previousIndex() - 1;
         for (String nextExpected : nextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpected == ANY_VALUE) continue;
-            if (!token.matches(nextExpected)) return false;
+            if (!tokenMatches(index, nextExpected)) return false;
         }
         return true;
     }
@@ -1459,15 +1448,13 @@ public boolean matches(Iterable<String> nextTokens) throws IllegalStateException
     public boolean matches(int currentExpectedType,
                            int... expectedTypeForNextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        if (!iter.hasNext()) return false;
-        Token token = iter.next();
-        if (currentExpectedType != ANY_TYPE && (currentToken().type() & currentExpectedType) != currentExpectedType) return false;
+        int index = tokenIterator.previousIndex();
+        if (index >= tokens.size()) return false;
+        if (currentExpectedType != ANY_TYPE && (tokenType(index) & currentExpectedType) != currentExpectedType) return false;
         for (int nextExpectedType : expectedTypeForNextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpectedType == ANY_TYPE) continue;
-            if ((token.type() & nextExpectedType) != nextExpectedType) return false;
+            if ((tokenType(index) & nextExpectedType) != nextExpectedType) return false;
         }
         return true;
     }
@@ -1484,13 +1471,11 @@ public boolean matches(int currentExpectedType,
      */
     public boolean matches(int[] typesForNextTokens) throws IllegalStateException {
         if (completed) return false;
-        ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
-        Token token = null;
+        int index = tokenIterator.previousIndex() - 1;
         for (int nextExpectedType : typesForNextTokens) {
-            if (!iter.hasNext()) return false;
-            token = iter.next();
+            if (++index >= tokens.size()) return false;
             if (nextExpectedType == ANY_TYPE) continue;
-            if (!token.matches(nextExpectedType)) return false;
+            if ((tokenType(index) & nextExpectedType) != nextExpectedType) return false;
         }
         return true;
     }
@@ -1594,6 +1579,75 @@ public boolean hasNext() {
         return !completed;
     }
 
+    /**
+     * Determine if this stream has a token at the given offset from the current token. This and the other methods that accept
+     * an offset allow a parser to examine tokens well beyond the current token without consuming them, and to then
+     * {@link #skip(int) skip} all of the examined tokens at once rather than {@link #rewind(Marker) rewinding} the stream.
+     * 
+     * @param offset the number of tokens after the current token; 0 for the current token
+     * @return true if there is a token at the offset, or false otherwise
+     * @throws IllegalStateException if this method was called before the stream was {@link #start() started}
+     */
+    public boolean hasNext(int offset) {
+        return hasNext() && tokenIterator.previousIndex() + offset < tokens.size();
+    }
+
+    /**
+     * Return the value of the token at the given offset from the current token, without consuming any tokens.
+     * 
+     * @param offset the number of tokens after the current token; 0 for the current token
+     * @return the value of the token
+     * @throws ParsingException if there is no token at the offset
+     * @throws IllegalStateException if this method was called before the stream was {@link #start() started}
+     */
+    public String peek(int offset) throws ParsingException, IllegalStateException {
+        if (!hasNext(offset)) throwNoMoreContent();
+        return tokens.get(tokenIterator.previousIndex() + offset).value();
+    }
+
+    /**
+     * Determine if the token at the given offset from the current token matches the expected value, without consuming any tokens.
+     * 
+     * @param offset the number of tokens after the current token; 0 for the current token
+     * @param expected the expected value of the token
+     * @return true if there is a token at the offset and it matches, or false otherwise
+     * @throws IllegalStateException if this method was called before the stream was {@link #start() started}
+     */
+    public boolean matchesAt(int offset, String expected) throws IllegalStateException {
+        if (!hasNext(offset)) return false;
+        return expected == ANY_VALUE || tokenMatches(tokenIterator.previousIndex() + offset, expected);
+    }
+
+    /**
+     * Determine if the token at the given offset from the current token matches the expected character, without consuming any
+     * tokens.
+     * 
+     * @param offset the number of tokens after the current token; 0 for the current token
+     * @param expected the expected character value of the token
+     * @return true if there is a token at the offset and it matches, or false otherwise
+     * @throws IllegalStateException if this method was called before the stream was {@link #start() started}
+     */
+    public boolean matchesAt(int offset, char expected) throws IllegalStateException {
+        if (!hasNext(offset)) return false;
+        int index = tokenIterator.previousIndex() + offset;
+        if (compactTokens != null) return compactTokens.matches(index, expected);
+        return tokens.get(index).matches(expected);
+    }
+
+    /**
+     * Consume the given number of tokens, which were typically examined with the methods that accept an offset.
+     * 
+     * @param count the number of tokens to consume; may be 0
+     * @throws ParsingException if there are fewer tokens remaining than are to be consumed
+     * @throws IllegalStateException if this method was called before the stream was {@link #start() started}
+     */
+    public void skip(int count) throws ParsingException, IllegalStateException {
+        if (count <= 0) return;
+        if (!hasNext(count - 1)) throwNoMoreContent();
+        tokenIterator = tokens.listIterator(tokenIterator.previousIndex() + count);
+        moveToNextToken();
+    }
+
     @Override
     public String toString() {
         ListIterator<Token> iter = tokens.listIterator(tokenIterator.previousIndex());
@@ -1614,6 +1668,14 @@ public String toString() {
         return sb.toString();
     }
 
+    private boolean tokenMatches(int index, String expected) {
+        return compactTokens != null ? compactTokens.matches(index, expected) : tokens.get(index).matches(expected);
+    }
+
+    private int tokenType(int index) {
+        return compactTokens != null ? compactTokens.type(index) : tokens.get(index).type();
+    }
+
     private void moveToNextToken() {
         // And move the currentToken to the next token ...
         if (!tokenIterator.hasNext()) {
@@ -2044,22 +2106,32 @@ protected class CaseSensitiveToken implements Token {
         private final int startIndex;
         private final int endIndex;
         private final int type;
-        private final Position position;
+        private final int line;
+        private final int column;
 
         public CaseSensitiveToken(int startIndex,
                 int endIndex,
                 int type,
                 Position position) {
+            this(startIndex, endIndex, type, position.line(), position.column());
+        }
+
+        protected CaseSensitiveToken(int startIndex,
+                int endIndex,
+                int type,
+                int line,
+                int column) {
             this.startIndex = startIndex;
             this.endIndex = endIndex;
             this.type = type;
-            this.position = position;
+            this.line = line;
+            this.column = column;
         }
 
         @Override
         public Token withType(int typeMask) {
             int type = this.type | typeMask;
-            return new CaseSensitiveToken(startIndex, endIndex, type, position);
+            return new CaseSensitiveToken(startIndex, endIndex, type, line, column);
         }
 
         @Override
@@ -2089,12 +2161,12 @@ public final boolean matches(char expected) {
 
         @Override
         public boolean matches(String expected) {
-            return matchString().substring(startIndex, endIndex).equals(expected);
+            return matchesExactly(startIndex, endIndex, expected);
         }
 
         @Override
         public final boolean matches(int expectedType) {
-            return expectedType == ANY_TYPE || (currentToken().type() & expectedType) == expectedType;
+            return expectedType == ANY_TYPE || (type & expectedType) == expectedType;
         }
 
         @Override
@@ -2104,7 +2176,15 @@ public final String value() {
 
         @Override
         public Position position() {
-            return position;
+            return new Position(startIndex, line, column);
+        }
+
+        protected final int line() {
+            return line;
+        }
+
+        protected final int column() {
+            return column;
         }
 
         protected String matchString() {
@@ -2126,43 +2206,179 @@ public CaseInsensitiveToken(int startIndex,
             super(startIndex, endIndex, type, position);
         }
 
+        protected CaseInsensitiveToken(int startIndex,
+                int endIndex,
+                int type,
+                int line,
+                int column) {
+            super(startIndex, endIndex, type, line, column);
+        }
+
         @Override
         public boolean matches(String expected) {
-            return matchString().substring(startIndex(), endIndex()).toUpperCase().equals(expected);
+            return matchesUppercase(startIndex(), endIndex(), expected);
         }
 
         @Override
         public Token withType(int typeMask) {
             int type = this.type() | typeMask;
-            return new CaseInsensitiveToken(startIndex(), endIndex(), type, position());
+            return new CaseInsensitiveToken(startIndex(), endIndex(), type, line(), column());
         }
     }
 
-    protected abstract class TokenFactory implements Tokens {
-        protected final List<Token> tokens = new ArrayList<Token>();
+    /**
+     * Determine whether the characters in the given range of the content exactly match the expected value, without allocating.
+     */
+    protected final boolean matchesExactly(int startIndex, int endIndex, String expected) {
+        int length = endIndex - startIndex;
+        return expected.length() == length && inputString.regionMatches(startIndex, expected, 0, length);
+    }
 
-        public List<Token> getTokens() {
-            return tokens;
+    /**
+     * Determine whether the uppercase form of the characters in the given range of the content match the expected value. ASCII
+     * characters are compared without allocating, but any other characters are compared using {@link String#toUpperCase()},
+     * since their uppercase form may have a different length (e.g., 'ß' becomes "SS").
+     */
+    protected final boolean matchesUppercase(int startIndex, int endIndex, String expected) {
+        int length = endIndex - startIndex;
+        if (expected.length() == length) {
+            for (int i = 0; i != length; ++i) {
+                char c = inputContent[startIndex + i];
+                char e = expected.charAt(i);
+                if (c >= 0x80 || e >= 0x80) return matchesUppercaseString(startIndex, endIndex, expected);
+                if (c >= 'a' && c <= 'z') c -= 'a' - 'A';
+                if (c != e) return false;
+            }
+            return true;
+        }
+        // The uppercase form of ASCII characters has the same length, so only other characters can possibly match ...
+        for (int i = startIndex; i != endIndex; ++i) {
+            if (inputContent[i] >= 0x80) return matchesUppercaseString(startIndex, endIndex, expected);
         }
+        return false;
     }
 
-    public class CaseSensitiveTokenFactory extends TokenFactory {
+    private boolean matchesUppercaseString(int startIndex, int endIndex, String expected) {
+        return inputString.substring(startIndex, endIndex).toUpperCase().equals(expected);
+    }
+
+    /**
+     * A list of tokens that stores the range, type, and line and column numbers of each token in parallel arrays of primitives,
+     * and that creates each {@link Token} object only when it is obtained from the list. The values of the tokens can be matched
+     * directly from the arrays, so a parser that only tests and skips most tokens creates very few objects.
+     */
+    protected final class CompactTokens extends AbstractList<Token> implements RandomAccess, Tokens {
+        private static final int INITIAL_CAPACITY = 64;
+        private final boolean caseSensitive;
+        private int[] startIndexes = new int[INITIAL_CAPACITY];
+        private int[] endIndexes = new int[INITIAL_CAPACITY];
+        private int[] types = new int[INITIAL_CAPACITY];
+        private int[] lines = new int[INITIAL_CAPACITY];
+        private int[] columns = new int[INITIAL_CAPACITY];
+        private int size;
+
+        protected CompactTokens(boolean caseSensitive) {
+            this.caseSensitive = caseSensitive;
+        }
+
         @Override
         public void addToken(Position position,
                              int startIndex,
                              int endIndex,
                              int type) {
-            tokens.add(new CaseSensitiveToken(startIndex, endIndex, type, position));
+            if (size == startIndexes.length) {
+                int capacity = size * 2;
+                startIndexes = Arrays.copyOf(startIndexes, capacity);
+                endIndexes = Arrays.copyOf(endIndexes, capacity);
+                types = Arrays.copyOf(types, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                columns = Arrays.copyOf(columns, capacity);
+            }
+            startIndexes[size] = startIndex;
+            endIndexes[size] = endIndex;
+            types[size] = type;
+            lines[size] = position.line();
+            columns[size] = position.column();
+            ++size;
+        }
+
+        @Override
+        public Token get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            if (caseSensitive) {
+                return new CaseSensitiveToken(startIndexes[index], endIndexes[index], types[index], lines[index], columns[index]);
+            }
+            return new CaseInsensitiveToken(startIndexes[index], endIndexes[index], types[index], lines[index], columns[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Determine whether the token at the given index matches the expected value, without creating the token.
+         * 
+         * @param index the index of the token; must be valid
+         * @param expected the expected value
+         * @return true if the token matches, or false otherwise
+         */
+        public boolean matches(int index, String expected) {
+            if (caseSensitive) return matchesExactly(startIndexes[index], endIndexes[index], expected);
+            return matchesUppercase(startIndexes[index], endIndexes[index], expected);
+        }
+
+        /**
+         * Determine whether the token at the given index is the expected character, without creating the token.
+         * 
+         * @param index the index of the token; must be valid
+         * @param expected the expected character
+         * @return true if the token matches, or false otherwise
+         */
+        public boolean matches(int index, char expected) {
+            return endIndexes[index] - startIndexes[index] == 1 && inputContent[startIndexes[index]] == expected;
+        }
+
+        /**
+         * Get the type of the token at the given index, without creating the token.
+         * 
+         * @param index the index of the token; must be valid
+         * @return the token's type
+         */
+        public int type(int index) {
+            return types[index];
         }
     }
 
-    public class CaseInsensitiveTokenFactory extends TokenFactory {
+    protected abstract class TokenFactory implements Tokens {
+        protected final CompactTokens tokens;
+
+        protected TokenFactory(boolean caseSensitive) {
+            this.tokens = new CompactTokens(caseSensitive);
+        }
+
         @Override
         public void addToken(Position position,
                              int startIndex,
                              int endIndex,
                              int type) {
-            tokens.add(new CaseInsensitiveToken(startIndex, endIndex, type, position));
+            tokens.addToken(position, startIndex, endIndex, type);
+        }
+
+        public List<Token> getTokens() {
+            return tokens;
+        }
+    }
+
+    public class CaseSensitiveTokenFactory extends TokenFactory {
+        public CaseSensitiveTokenFactory() {
+            super(true);
+        }
+    }
+
+    public class CaseInsensitiveTokenFactory extends TokenFactory {
+        public CaseInsensitiveTokenFactory() {
+            super(false);
         }
     }
 
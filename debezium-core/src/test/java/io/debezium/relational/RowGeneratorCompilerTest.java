@@ -0,0 +1,257 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational;
+
+import java.math.BigDecimal;
+import java.sql.RowId;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import io.debezium.relational.TableSchema.KeyAndValue;
+import io.debezium.relational.mapping.ColumnMappers;
+
+/**
+ * A differential test that verifies the specialized generators produce the same keys and values as the generic generators for
+ * all of the types supported by {@link TableSchemaBuilder}.
+ *
+ * @author Randall Hauch
+ */
+public class RowGeneratorCompilerTest {
+
+    private static final long NOW = 1460000000123L;
+
+    private final TableId id = new TableId("catalog", "schema", "table");
+    private final Random random = new Random(1234);
+    private Table table;
+    private List<Object[]> candidates;
+
+    @Before
+    public void beforeEach() {
+        TableEditor editor = Table.editor().tableId(id);
+        candidates = new ArrayList<>();
+        // The key columns are required, so they are given only valid values ...
+        addColumn(editor, "ID", "INTEGER", Types.INTEGER, 10, 0, false, 1, 2, (short) 3, 4L);
+        addColumn(editor, "TS", "TIMESTAMP", Types.TIMESTAMP, 0, 0, false, new java.sql.Timestamp(NOW), new java.util.Date(NOW),
+                  LocalDateTime.of(2016, 4, 7, 3, 33, 20));
+        addColumn(editor, "C_BIT", "BIT", Types.BIT, 1, 0, true, true, false, (short) 0, 1, 0L, "x");
+        // The converted values of multi-bit columns do not match their schema, so they are only used in an invalid row ...
+        addColumn(editor, "C_BITS", "BIT", Types.BIT, 5, 0, true, "x");
+        addColumn(editor, "C_BOOLEAN", "BOOLEAN", Types.BOOLEAN, 1, 0, true, true, false, (short) 1, 0, 1L);
+        addColumn(editor, "C_BLOB", "BLOB", Types.BLOB, 100, 0, true, new byte[] { 1, 2, 3 }, new byte[0]);
+        addColumn(editor, "C_BINARY", "BINARY", Types.BINARY, 4, 0, true, new byte[] { 1, 2, 3, 4 });
+        addColumn(editor, "C_VARBINARY", "VARBINARY", Types.VARBINARY, 10, 0, true, new byte[] { 9, 8 });
+        addColumn(editor, "C_LONGVARBINARY", "LONGVARBINARY", Types.LONGVARBINARY, 1000, 0, true, new byte[] { 7 });
+        addColumn(editor, "C_TINYINT", "TINYINT", Types.TINYINT, 3, 0, true, (byte) 1, (byte) -1, true, false, 5);
+        addColumn(editor, "C_SMALLINT", "SMALLINT", Types.SMALLINT, 5, 0, true, (short) 1, 2, 3L, "4");
+        addColumn(editor, "C_INTEGER", "INTEGER", Types.INTEGER, 10, 0, true, 1, (short) 2, 3L, 4.0d);
+        addColumn(editor, "C_BIGINT", "BIGINT", Types.BIGINT, 19, 0, true, 1L, 2, (short) 3, 4.0f);
+        addColumn(editor, "C_FLOAT", "FLOAT", Types.FLOAT, 10, 0, true, 1.5d, 2.5f, 3, 4L, (short) 5, "6");
+        addColumn(editor, "C_DOUBLE", "DOUBLE", Types.DOUBLE, 10, 0, true, 1.5d, 2.5f, 3, 4L, (short) 5);
+        addColumn(editor, "C_REAL", "REAL", Types.REAL, 10, 0, true, 1.5f, 2.5d, 3, 4L, (short) 5, "6");
+        addColumn(editor, "C_NUMERIC", "NUMERIC", Types.NUMERIC, 10, 2, true, new BigDecimal("1.23"), true, (short) 1, 2, 3L,
+                  4.5f, 6.75d, "x");
+        addColumn(editor, "C_DECIMAL", "DECIMAL", Types.DECIMAL, 10, 3, true, new BigDecimal("1.234"), 7, 8L);
+        addColumn(editor, "C_CHAR", "CHAR", Types.CHAR, 5, 0, true, "abc", 'c', 12);
+        addColumn(editor, "C_VARCHAR", "VARCHAR", Types.VARCHAR, 255, 0, true, "some value", "", 3.5d);
+        addColumn(editor, "C_LONGVARCHAR", "LONGVARCHAR", Types.LONGVARCHAR, 10000, 0, true, "long value");
+        addColumn(editor, "C_CLOB", "CLOB", Types.CLOB, 10000, 0, true, "clob value");
+        addColumn(editor, "C_NCHAR", "NCHAR", Types.NCHAR, 5, 0, true, "nchar");
+        addColumn(editor, "C_NVARCHAR", "NVARCHAR", Types.NVARCHAR, 255, 0, true, "nvarchar value", new StringBuilder("sb"));
+        addColumn(editor, "C_LONGNVARCHAR", "LONGNVARCHAR", Types.LONGNVARCHAR, 10000, 0, true, "long nvarchar value");
+        addColumn(editor, "C_NCLOB", "NCLOB", Types.NCLOB, 10000, 0, true, "nclob value");
+        addColumn(editor, "C_DATALINK", "DATALINK", Types.DATALINK, 255, 0, true, "http://debezium.io");
+        addColumn(editor, "C_SQLXML", "SQLXML", Types.SQLXML, 10000, 0, true, "<a/>");
+        addColumn(editor, "C_DATE", "DATE", Types.DATE, 0, 0, true, java.sql.Date.valueOf("2016-04-07"), new java.util.Date(NOW),
+                  LocalDate.of(2016, 4, 7), LocalDateTime.of(2016, 4, 7, 3, 33, 20), "2016-04-07");
+        addColumn(editor, "C_TIME", "TIME", Types.TIME, 0, 0, true, java.sql.Time.valueOf("03:33:20"), new java.util.Date(NOW),
+                  java.time.LocalTime.of(3, 33, 20), LocalDateTime.of(2016, 4, 7, 3, 33, 20), "03:33:20");
+        addColumn(editor, "C_TIMESTAMP", "TIMESTAMP", Types.TIMESTAMP, 0, 0, true, new java.sql.Timestamp(NOW),
+                  new java.util.Date(NOW), LocalDateTime.of(2016, 4, 7, 3, 33, 20), LocalDate.of(2016, 4, 7), "x");
+        // The converted values of these types also do not match their schemas ...
+        addColumn(editor, "C_TIME_TZ", "TIME WITH TIME ZONE", Types.TIME_WITH_TIMEZONE, 0, 0, true, "x");
+        addColumn(editor, "C_TIMESTAMP_TZ", "TIMESTAMP WITH TIME ZONE", Types.TIMESTAMP_WITH_TIMEZONE, 0, 0, true, "x");
+        addColumn(editor, "C_ROWID", "ROWID", Types.ROWID, 0, 0, true, rowId(1, 2, 3));
+        table = editor.setPrimaryKeyNames("ID", "TS").create();
+    }
+
+    @Test
+    public void shouldBeAvailable() {
+        assertThat(RowGeneratorCompiler.isAvailable()).isTrue();
+    }
+
+    @Test
+    public void shouldProduceSameKeysAndValuesAsGenericGenerators() {
+        assertSameResults(new TableSchemaBuilder().create(table),
+                          new TableSchemaBuilder((tableId) -> true).create(table));
+    }
+
+    @Test
+    public void shouldProduceSameKeysAndValuesAsGenericGeneratorsWithFilteredAndMappedColumns() {
+        ColumnMappers mappers = ColumnMappers.create()
+                                             .truncateStrings(".*\\.C_VARCHAR", 4)
+                                             .maskStrings(".*\\.C_CHAR", 3)
+                                             .build();
+        assertSameResults(new TableSchemaBuilder().create(table, (columnId) -> !columnId.columnName().equals("TS"), mappers),
+                          new TableSchemaBuilder((tableId) -> true).create(table, (columnId) -> !columnId.columnName().equals("TS"),
+                                                                            mappers));
+    }
+
+    @Test
+    public void shouldProduceSameKeysAndValuesAsGenericGeneratorsWhenConverterIsOverridden() {
+        TableSchemaBuilder generic = new CustomTableSchemaBuilder(null);
+        TableSchemaBuilder specialized = new CustomTableSchemaBuilder((tableId) -> true);
+        assertSameResults(generic.create(table), specialized.create(table));
+    }
+
+    @Test
+    public void shouldFailInSameWayAsGenericGeneratorsForInvalidValues() {
+        Object[] row = randomRow();
+        row[indexOf("ID")] = "not an integer";
+        row[indexOf("TS")] = OffsetDateTime.of(2016, 4, 7, 3, 33, 20, 0, ZoneOffset.UTC);
+        row[indexOf("C_BITS")] = (short) 1;
+        row[indexOf("C_TIME_TZ")] = OffsetTime.of(3, 33, 20, 0, ZoneOffset.ofHours(2));
+        row[indexOf("C_TIMESTAMP_TZ")] = OffsetDateTime.of(2016, 4, 7, 3, 33, 20, 0, ZoneOffset.ofHours(-5));
+        assertSameResults("invalid row", new TableSchemaBuilder().create(table),
+                          new TableSchemaBuilder((tableId) -> true).create(table), row);
+    }
+
+    @Test
+    public void shouldUseGenericGeneratorsForTablesNotSelected() {
+        assertSameResults(new TableSchemaBuilder().create(table),
+                          new TableSchemaBuilder((tableId) -> false).create(table));
+    }
+
+    protected void assertSameResults(TableSchema generic, TableSchema specialized) {
+        assertThat(specialized.keySchema()).isEqualTo(generic.keySchema());
+        assertThat(specialized.valueSchema()).isEqualTo(generic.valueSchema());
+        for (int i = 0; i != 2000; ++i) {
+            assertSameResults("row " + i, generic, specialized, randomRow());
+        }
+    }
+
+    protected void assertSameResults(String name, TableSchema generic, TableSchema specialized, Object[] row) {
+        String msg = name + ": " + Arrays.toString(row);
+        assertSame(msg, convert(generic::keyFromColumnData, row), convert(specialized::keyFromColumnData, row));
+        assertSame(msg, convert(generic::valueFromColumnData, row), convert(specialized::valueFromColumnData, row));
+        Object expected = convert(generic::keyAndValueFromColumnData, row);
+        Object actual = convert(specialized::keyAndValueFromColumnData, row);
+        if (expected instanceof KeyAndValue) {
+            assertThat(actual instanceof KeyAndValue).as(msg).isTrue();
+            assertSame(msg, ((KeyAndValue) expected).key(), ((KeyAndValue) actual).key());
+            assertSame(msg, ((KeyAndValue) expected).value(), ((KeyAndValue) actual).value());
+        } else {
+            assertSame(msg, expected, actual);
+        }
+    }
+
+    protected Object convert(Function<Object[], ?> generator, Object[] row) {
+        try {
+            return generator.apply(row);
+        } catch (RuntimeException e) {
+            // Both generators must fail in the same way ...
+            return e.getClass();
+        }
+    }
+
+    protected void assertSame(String msg, Object expected, Object actual) {
+        if (expected instanceof Struct && actual instanceof Struct) {
+            Struct expectedStruct = (Struct) expected;
+            Struct actualStruct = (Struct) actual;
+            assertThat(actualStruct.schema()).as(msg).isEqualTo(expectedStruct.schema());
+            for (Field field : expectedStruct.schema().fields()) {
+                Object expectedValue = expectedStruct.get(field);
+                Object actualValue = actualStruct.get(field);
+                if (!Objects.deepEquals(expectedValue, actualValue)) {
+                    fail(msg + ": field " + field.name() + " expected <" + expectedValue + "> but was <" + actualValue + ">");
+                }
+            }
+        } else {
+            assertThat(actual).as(msg).isEqualTo(expected);
+        }
+    }
+
+    protected int indexOf(String columnName) {
+        return table.columnNames().indexOf(columnName);
+    }
+
+    protected Object[] randomRow() {
+        Object[] row = new Object[candidates.size()];
+        for (int i = 0; i != row.length; ++i) {
+            Object[] values = candidates.get(i);
+            row[i] = values[random.nextInt(values.length)];
+        }
+        return row;
+    }
+
+    protected void addColumn(TableEditor editor, String name, String typeName, int jdbcType, int length, int scale,
+                             boolean optional, Object... values) {
+        editor.addColumn(Column.editor()
+                               .name(name)
+                               .typeName(typeName)
+                               .jdbcType(jdbcType)
+                               .length(length)
+                               .scale(scale)
+                               .optional(optional)
+                               .create());
+        // Include a null value for optional columns ...
+        candidates.add(optional ? Arrays.copyOf(values, values.length + 1) : values);
+    }
+
+    protected static RowId rowId(int... bytes) {
+        byte[] value = new byte[bytes.length];
+        for (int i = 0; i != bytes.length; ++i) {
+            value[i] = (byte) bytes[i];
+        }
+        return new RowId() {
+            @Override
+            public byte[] getBytes() {
+                return value.clone();
+            }
+
+            @Override
+            public String toString() {
+                return Arrays.toString(value);
+            }
+        };
+    }
+
+    protected static class CustomTableSchemaBuilder extends TableSchemaBuilder {
+        public CustomTableSchemaBuilder(java.util.function.Predicate<TableId> specializedTables) {
+            super(specializedTables);
+        }
+
+        @Override
+        protected ValueConverter createValueConverterFor(Column column, Field fieldDefn) {
+            ValueConverter converter = super.createValueConverterFor(column, fieldDefn);
+            if (column.jdbcType() == Types.INTEGER) {
+                // Change values that would otherwise not need to be converted ...
+                return (data) -> {
+                    Object result = converter.convert(data);
+                    return result instanceof Integer ? ((Integer) result).intValue() + 1 : result;
+                };
+            }
+            return converter;
+        }
+    }
+}
@@ -104,4 +104,57 @@ public void shouldBuildTableSchemaFromTableWithoutPrimaryKey() {
         assertThat(value).isNotNull();
     }
 
+    @Test
+    public void shouldProduceSameKeyAndValueWhenConvertingBothTogether() {
+        schema = new TableSchemaBuilder().create(table);
+        TableSchema.KeyAndValue keyAndValue = schema.keyAndValueFromColumnData(data);
+        assertThat(keyAndValue).isNotNull();
+        assertThat(keyAndValue.key()).isEqualTo(schema.keyFromColumnData(data));
+        assertThat(keyAndValue.value()).isEqualTo(schema.valueFromColumnData(data));
+        assertThat(schema.keyAndValueFromColumnData(null)).isNull();
+    }
+
+    @Test
+    public void shouldProduceSameKeyAndValueWhenConvertingBothTogetherWithFilteredColumns() {
+        schema = new TableSchemaBuilder().create(table, (columnId) -> !columnId.columnName().equals("C1"), null);
+        TableSchema.KeyAndValue keyAndValue = schema.keyAndValueFromColumnData(data);
+        assertThat(keyAndValue.key()).isEqualTo(schema.keyFromColumnData(data));
+        assertThat(keyAndValue.value()).isEqualTo(schema.valueFromColumnData(data));
+        assertThat(((Struct) keyAndValue.key()).get("C1")).isEqualTo("c1value");
+        assertThat(keyAndValue.value().schema().field("C1")).isNull();
+    }
+
+    @Test
+    public void shouldProduceNullKeyWhenConvertingBothTogetherForTableWithoutPrimaryKey() {
+        table = table.edit().setPrimaryKeyNames().create();
+        schema = new TableSchemaBuilder().create(table);
+        TableSchema.KeyAndValue keyAndValue = schema.keyAndValueFromColumnData(data);
+        assertThat(keyAndValue.key()).isNull();
+        assertThat(keyAndValue.value()).isEqualTo(schema.valueFromColumnData(data));
+        assertThat(schema.keyChanged(data, new Object[] { "other", 1.0d, null, 5 })).isFalse();
+    }
+
+    @Test
+    public void shouldDetectChangedKeyFromRawColumnValues() {
+        schema = new TableSchemaBuilder().create(table);
+        Object[] sameKey = new Object[] { "c1value", 3.142d, java.sql.Date.valueOf("2010-01-01"), 5 };
+        Object[] otherKey = new Object[] { "c1value", 2.718d, java.sql.Date.valueOf("2001-10-31"), 4 };
+        assertThat(schema.keyChanged(data, sameKey)).isFalse();
+        assertThat(schema.keyChanged(data, otherKey)).isTrue();
+        assertThat(schema.keyChanged(data, null)).isTrue();
+        assertThat(schema.keyChanged(null, null)).isFalse();
+    }
+
+    @Test
+    public void shouldDetectChangedKeyFromGeneratedKeysWhenKeyColumnsAreUnknown() {
+        TableSchema full = new TableSchemaBuilder().create(table);
+        schema = new TableSchema(full.keySchema(), full::keyFromColumnData, full.valueSchema(), full::valueFromColumnData);
+        Object[] sameKey = new Object[] { "c1value", 3.142d, java.sql.Date.valueOf("2010-01-01"), 5 };
+        Object[] otherKey = new Object[] { "other", 3.142d, java.sql.Date.valueOf("2001-10-31"), 4 };
+        assertThat(schema.keyChanged(data, sameKey)).isFalse();
+        assertThat(schema.keyChanged(data, otherKey)).isTrue();
+        TableSchema.KeyAndValue keyAndValue = schema.keyAndValueFromColumnData(data);
+        assertThat(keyAndValue.key()).isEqualTo(full.keyFromColumnData(data));
+        assertThat(keyAndValue.value()).isEqualTo(full.valueFromColumnData(data));
+    }
 }
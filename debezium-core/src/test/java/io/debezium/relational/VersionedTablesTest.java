@@ -0,0 +1,127 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational;
+
+import java.sql.Types;
+import java.util.Comparator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ */
+public class VersionedTablesTest {
+
+    private final TableId id = new TableId("db", null, "customers");
+    private final TableId other = new TableId("db", null, "orders");
+    private VersionedTables<Long> tables;
+    private Table v1;
+    private Table v2;
+    private Table v3;
+
+    @Before
+    public void beforeEach() {
+        tables = new VersionedTables<>(Comparator.naturalOrder());
+        v1 = table(id, "c1");
+        v2 = table(id, "c1", "c2");
+        v3 = table(id, "c1", "c2", "c3");
+    }
+
+    @Test
+    public void shouldFindDefinitionAtEachPosition() {
+        change(10L, v1);
+        change(20L, v2);
+        change(30L, v3);
+        assertThat(tables.forTable(id)).isEqualTo(v3);
+        assertThat(tables.forTable(id, 5L)).isNull();
+        assertThat(tables.forTable(id, 10L)).isEqualTo(v1);
+        assertThat(tables.forTable(id, 19L)).isEqualTo(v1);
+        assertThat(tables.forTable(id, 20L)).isEqualTo(v2);
+        assertThat(tables.forTable(id, 29L)).isEqualTo(v2);
+        assertThat(tables.forTable(id, 1000L)).isEqualTo(v3);
+        assertThat(tables.forTable(other, 1000L)).isNull();
+        assertThat(tables.versionCount(id)).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldTreatChangesWithoutPositionAsBeforeAllPositions() {
+        tables.overwriteTable(v1);
+        change(20L, v2);
+        assertThat(tables.forTable(id, 0L)).isEqualTo(v1);
+        assertThat(tables.forTable(id, 20L)).isEqualTo(v2);
+    }
+
+    @Test
+    public void shouldKeepOnlyLastChangeAtSamePosition() {
+        change(10L, v1);
+        change(20L, v2);
+        change(20L, v3);
+        assertThat(tables.forTable(id, 10L)).isEqualTo(v1);
+        assertThat(tables.forTable(id, 20L)).isEqualTo(v3);
+        assertThat(tables.versionCount(id)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRecordRemovalsAndRenames() {
+        change(10L, v1);
+        tables.setPosition(20L);
+        tables.removeTable(id);
+        change(30L, v2);
+        tables.setPosition(40L);
+        tables.renameTable(id, other);
+        assertThat(tables.forTable(id, 15L)).isEqualTo(v1);
+        assertThat(tables.forTable(id, 25L)).isNull();
+        assertThat(tables.forTable(id, 35L)).isEqualTo(v2);
+        assertThat(tables.forTable(id, 45L)).isNull();
+        assertThat(tables.forTable(other, 35L)).isNull();
+        assertThat(tables.forTable(other, 45L).id()).isEqualTo(other);
+        assertThat(tables.forTable(other, 45L).columns()).isEqualTo(v2.columns());
+        assertThat(tables.forTable(id)).isNull();
+    }
+
+    @Test
+    public void shouldPruneVersionsBeforePosition() {
+        change(10L, v1);
+        change(20L, v2);
+        change(30L, v3);
+        change(15L, table(other, "id"));
+        tables.setPosition(25L);
+        tables.removeTable(other);
+
+        // Nothing is before the first version ...
+        assertThat(tables.prune(5L)).isEqualTo(0);
+        assertThat(tables.versionCount(id)).isEqualTo(3);
+
+        // The version at 20 is still needed for positions up to 30 ...
+        assertThat(tables.prune(25L)).isEqualTo(3);
+        assertThat(tables.versionCount(id)).isEqualTo(2);
+        assertThat(tables.versionCount(other)).isEqualTo(0);
+        assertThat(tables.forTable(id, 25L)).isEqualTo(v2);
+        assertThat(tables.forTable(id, 30L)).isEqualTo(v3);
+        assertThat(tables.forTable(id, 10L)).isNull();
+
+        assertThat(tables.prune(30L)).isEqualTo(1);
+        assertThat(tables.versionCount(id)).isEqualTo(1);
+        assertThat(tables.forTable(id, 30L)).isEqualTo(v3);
+        assertThat(tables.forTable(id)).isEqualTo(v3);
+    }
+
+    protected void change(Long position, Table table) {
+        tables.setPosition(position);
+        tables.overwriteTable(table);
+    }
+
+    protected Table table(TableId tableId, String... columnNames) {
+        TableEditor editor = Table.editor().tableId(tableId);
+        for (String columnName : columnNames) {
+            editor.addColumn(Column.editor().name(columnName).typeName("INT").jdbcType(Types.INTEGER).create());
+        }
+        return editor.setPrimaryKeyNames(columnNames[0]).create();
+    }
+}
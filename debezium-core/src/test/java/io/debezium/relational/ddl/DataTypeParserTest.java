@@ -6,12 +6,15 @@
 package io.debezium.relational.ddl;
 
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import io.debezium.text.ParsingException;
 import io.debezium.text.TokenStream;
 
 public class DataTypeParserTest {
@@ -105,6 +108,64 @@ public void shouldDetermineDecimalTypes() {
         assertType("DECIMAL(10,5) UNSIGNED ZEROFILL","DECIMAL UNSIGNED ZEROFILL",Types.DECIMAL, 10, 5);
     }
     
+    @Test
+    public void shouldLeaveStreamPositionedAfterDataType() {
+        TokenStream stream = text("DECIMAL(10,5) UNSIGNED NOT NULL");
+        DataType type = parser.parse(stream, null);
+        assertThat(type.name()).isEqualTo("DECIMAL UNSIGNED");
+        assertThat(stream.matches("NOT")).isTrue();
+
+        stream = text("INTEGER(-2) NOT NULL");
+        type = parser.parse(stream, null);
+        assertThat(type.name()).isEqualTo("INTEGER");
+        assertThat(stream.matches('(')).isTrue();
+    }
+
+    @Test
+    public void shouldFindSameDataTypesAsWhenBacktracking() {
+        parser.register(Types.ARRAY, "FLOAT[(M[,D])] {n}");
+        parser.register(Types.CHAR, "ENUM(...) [CHARACTER SET charset_name] [COLLATE collation_name]");
+        parser.register(Types.DATE, "YEAR[(2|4)]");
+        assertSameType("BIT(-3)");
+        assertSameType("BOOLE");
+        assertSameType("TINYINT(1) UNSIGNED");
+        assertSameType("DECIMAL(10,5) UNSIGNED ZEROFILL NOT NULL");
+        assertSameType("DECIMAL(10,) NOT NULL");
+        assertSameType("DECIMAL(10");
+        assertSameType("DOUBLE PRECISION(5,2)");
+        assertSameType("DOUBLE PRECISION(5)");
+        assertSameType("FLOAT(5,2)[3][4] NOT NULL");
+        assertSameType("FLOAT[3][x]");
+        assertSameType("ENUM('a','b','c') CHARACTER SET utf8 COLLATE utf8_bin DEFAULT 'a'");
+        assertSameType("ENUM('a', CHARACTER SET");
+        assertSameType("ENUM() COLLATE");
+        assertSameType("YEAR(2)");
+        assertSameType("YEAR(3)");
+        assertSameType("VARCHAR(10)");
+    }
+
+    protected void assertSameType( String content ) {
+        List<ParsingException> errors = new ArrayList<>();
+        List<ParsingException> backtrackingErrors = new ArrayList<>();
+        TokenStream stream = text(content);
+        TokenStream backtrackingStream = text(content);
+        DataType type = parser.parse(stream, errors::addAll);
+        DataType expected = parser.parseWithBacktracking(backtrackingStream, backtrackingErrors::addAll);
+        if (expected == null) {
+            assertThat(type).isNull();
+        } else {
+            assertThat(type).isNotNull();
+            assertThat(type.expression()).isEqualTo(expected.expression());
+            assertThat(type.name()).isEqualTo(expected.name());
+            assertThat(type.jdbcType()).isEqualTo(expected.jdbcType());
+            assertThat(type.length()).isEqualTo(expected.length());
+            assertThat(type.scale()).isEqualTo(expected.scale());
+            assertThat(type.arrayDimensions()).isEqualTo(expected.arrayDimensions());
+        }
+        assertThat(errors.size()).isEqualTo(backtrackingErrors.size());
+        assertThat(stream.toString()).isEqualTo(backtrackingStream.toString());
+    }
+
     protected void assertType( String content, String typeName, int jdbcType ) {
         assertType(content,typeName,jdbcType,-1,-1,null);
     }
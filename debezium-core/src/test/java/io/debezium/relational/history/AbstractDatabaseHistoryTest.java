@@ -53,6 +53,14 @@ public void beforeEach() {
 
     protected abstract DatabaseHistory createHistory();
 
+    /**
+     * Create a history that stores a snapshot of all table definitions after the given number of DDL records.
+     * 
+     * @param snapshotInterval the number of DDL records between snapshots
+     * @return the history; never null
+     */
+    protected abstract DatabaseHistory createHistory(int snapshotInterval);
+
     protected Map<String, Object> server(String serverName) {
         return Collect.linkMapOf("server", serverName);
     }
@@ -71,6 +79,15 @@ protected void record(long pos, int entry, String ddl, Tables... update) {
         }
     }
 
+    protected void recordAfterApplying(long pos, int entry, String ddl, Tables... update) {
+        for (Tables tables : update) {
+            parser.setCurrentSchema("db");
+            parser.parse(ddl, tables);
+        }
+        // The last of the updated schemas is the current schema ...
+        history.record(source1, position("a.log", pos, entry), "db", update[update.length - 1], ddl);
+    }
+
     protected Tables recover(long pos, int entry) {
         Tables result = new Tables();
         history.recover(source1, position("a.log", pos, entry), result, parser);
@@ -116,4 +133,24 @@ public void shouldRecordChangesAndRecoverToVariousPoints() {
         assertThat(recover(1033, 4)).isEqualTo(t3);
     }
 
+    @Test
+    public void shouldRecoverToVariousPointsFromSnapshots() {
+        history = createHistory(2);
+        recordAfterApplying(01, 0, "CREATE TABLE foo ( first VARCHAR(22) NOT NULL );", t3, t2, t1, t0, all);
+        recordAfterApplying(23, 1, "CREATE TABLE person ( name VARCHAR(22) NOT NULL PRIMARY KEY );", t3, t2, t1, all);
+        recordAfterApplying(30, 2, "CREATE TABLE address ( street VARCHAR(22) NOT NULL );", t3, t2, all);
+        recordAfterApplying(32, 3, "ALTER TABLE address ADD city VARCHAR(22) NOT NULL;", t3, all);
+        recordAfterApplying(40, 0, "DROP TABLE foo;", all);
+
+        assertThat(recover(01, 0)).isEqualTo(t0);
+        assertThat(recover(22, 999999)).isEqualTo(t0);
+        assertThat(recover(23, 1)).isEqualTo(t1);
+        assertThat(recover(30, 1)).isEqualTo(t1);
+        assertThat(recover(30, 2)).isEqualTo(t2);
+        assertThat(recover(32, 3)).isEqualTo(t3);
+        assertThat(recover(39, 0)).isEqualTo(t3);
+        assertThat(recover(40, 0)).isEqualTo(all);
+        assertThat(recover(1033, 4)).isEqualTo(all);
+        assertThat(all.size()).isEqualTo(2);
+    }
 }
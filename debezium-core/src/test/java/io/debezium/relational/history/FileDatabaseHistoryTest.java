@@ -8,8 +8,12 @@
 import java.nio.file.Path;
 
 import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
 
 import io.debezium.config.Configuration;
+import io.debezium.relational.Tables;
 import io.debezium.util.Testing;
 
 /**
@@ -34,4 +38,67 @@ protected DatabaseHistory createHistory() {
                                        .build());
         return history;
     }
+
+    @Override
+    protected DatabaseHistory createHistory(int snapshotInterval) {
+        Testing.Files.delete(TEST_FILE_PATH);
+        DatabaseHistory history = new FileDatabaseHistory();
+        history.configure(Configuration.create()
+                                       .with(FileDatabaseHistory.FILE_PATH, TEST_FILE_PATH.toAbsolutePath().toString())
+                                       .with(AbstractDatabaseHistory.SNAPSHOT_INTERVAL, snapshotInterval)
+                                       .build());
+        return history;
+    }
+
+    @Test
+    public void shouldRecoverAfterRestartWhenSyncingGroupsOfRecords() {
+        Configuration config = Configuration.create()
+                                            .with(FileDatabaseHistory.FILE_PATH, TEST_FILE_PATH.toAbsolutePath().toString())
+                                            .with(FileDatabaseHistory.SYNC_RECORDS, 2)
+                                            .build();
+        history = new FileDatabaseHistory();
+        history.configure(config);
+        history.start();
+        record(01, 0, "CREATE TABLE foo ( first VARCHAR(22) NOT NULL );", all);
+        record(23, 1, "CREATE TABLE person ( name VARCHAR(22) NOT NULL );", all);
+        record(30, 2, "CREATE TABLE address ( street VARCHAR(22) NOT NULL );", all);
+        history.stop();
+
+        history = new FileDatabaseHistory();
+        history.configure(config);
+        Tables recovered = recover(1000, 0);
+        assertThat(recovered).isEqualTo(all);
+        assertThat(recovered.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldRecoverFileWithJsonAndBinaryRecords() {
+        Configuration jsonConfig = Configuration.create()
+                                                .with(FileDatabaseHistory.FILE_PATH, TEST_FILE_PATH.toAbsolutePath().toString())
+                                                .build();
+        history = new FileDatabaseHistory();
+        history.configure(jsonConfig);
+        history.start();
+        record(01, 0, "CREATE TABLE foo ( first VARCHAR(22) NOT NULL );", all);
+        history.stop();
+
+        // Continue the same history with binary records, including one large enough to be compressed ...
+        Configuration binaryConfig = jsonConfig.edit()
+                                               .with(AbstractDatabaseHistory.FORMAT, "binary")
+                                               .with(AbstractDatabaseHistory.COMPRESS_DDL, true)
+                                               .build();
+        history = new FileDatabaseHistory();
+        history.configure(binaryConfig);
+        history.start();
+        record(23, 1, "CREATE TABLE person ( name VARCHAR(22) NOT NULL, street VARCHAR(22) NOT NULL, city VARCHAR(22) NOT NULL,"
+                + " state VARCHAR(22) NOT NULL, zip VARCHAR(22) NOT NULL, country VARCHAR(22) NOT NULL );", all);
+        record(30, 2, "CREATE TABLE address ( street VARCHAR(22) NOT NULL );", all);
+        history.stop();
+
+        history = new FileDatabaseHistory();
+        history.configure(binaryConfig);
+        Tables recovered = recover(1000, 0);
+        assertThat(recovered).isEqualTo(all);
+        assertThat(recovered.size()).isEqualTo(3);
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import io.debezium.document.Array;
+import io.debezium.document.Document;
+import io.debezium.relational.history.HistoryRecordEncoding.Format;
+import io.debezium.util.Collect;
+
+/**
+ * @author Randall Hauch
+ */
+public class HistoryRecordEncodingTest {
+
+    private Map<String, Object> source;
+    private Map<String, Object> position;
+    private String ddl;
+
+    @Before
+    public void beforeEach() {
+        source = Collect.hashMapOf("server", "my-server");
+        position = Collect.hashMapOf("file", "mysql-bin.000003", "pos", 1234567890123L, "row", 2);
+        position.put("snapshot", true);
+        StringBuilder sb = new StringBuilder("CREATE TABLE customers ( id INTEGER NOT NULL PRIMARY KEY");
+        for (int i = 0; i != 50; ++i) {
+            sb.append(", column").append(i).append(" VARCHAR(255) NOT NULL");
+        }
+        ddl = sb.append(" );").toString();
+    }
+
+    @Test
+    public void shouldWriteAndReadJsonRecords() throws IOException {
+        HistoryRecordEncoding encoding = new HistoryRecordEncoding(Format.JSON, false);
+        byte[] bytes = encoding.write(new HistoryRecord(source, position, "db", ddl));
+        assertThat(bytes[0]).isEqualTo((byte) '{');
+        assertRecord(encoding.read(bytes));
+    }
+
+    @Test
+    public void shouldWriteSmallerBinaryRecordsThatPreserveTypes() throws IOException {
+        HistoryRecord record = new HistoryRecord(source, position, "db", ddl);
+        byte[] json = new HistoryRecordEncoding(Format.JSON, false).write(record);
+        HistoryRecordEncoding encoding = new HistoryRecordEncoding(Format.BINARY, false);
+        byte[] bytes = encoding.write(record);
+        assertThat(bytes[0]).isEqualTo(HistoryRecordEncoding.MAGIC);
+        assertThat(bytes[1]).isEqualTo(HistoryRecordEncoding.VERSION);
+        assertThat(bytes.length).isLessThan(json.length);
+        assertRecord(encoding.read(bytes));
+    }
+
+    @Test
+    public void shouldCompressLargeDdlStatements() throws IOException {
+        HistoryRecord record = new HistoryRecord(source, position, "db", ddl);
+        byte[] uncompressed = new HistoryRecordEncoding(Format.BINARY, false).write(record);
+        HistoryRecordEncoding encoding = new HistoryRecordEncoding(Format.BINARY, true);
+        byte[] bytes = encoding.write(record);
+        assertThat(bytes.length).isLessThan(uncompressed.length / 2);
+        assertRecord(encoding.read(bytes));
+    }
+
+    @Test
+    public void shouldReadJsonRecordsWhenWritingBinaryRecords() throws IOException {
+        byte[] json = new HistoryRecordEncoding(Format.JSON, false).write(new HistoryRecord(source, position, "db", ddl));
+        assertRecord(new HistoryRecordEncoding(Format.BINARY, true).read(json));
+    }
+
+    @Test
+    public void shouldWriteAndReadBinarySnapshotRecords() throws IOException {
+        Array tables = Array.create();
+        tables.add(Document.create("table", "customers"));
+        HistoryRecordEncoding encoding = new HistoryRecordEncoding(Format.BINARY, true);
+        HistoryRecord read = encoding.read(encoding.write(new HistoryRecord(source, position, tables)));
+        assertThat(read.isSnapshot()).isTrue();
+        assertThat(read.ddl()).isNull();
+        assertThat(read.databaseName()).isNull();
+        assertThat((Object) read.tables()).isEqualTo(tables);
+    }
+
+    @Test
+    public void shouldWriteJsonWhenPositionHasNestedValues() throws IOException {
+        position.put("gtids", Document.create("server1", "1-100"));
+        HistoryRecordEncoding encoding = new HistoryRecordEncoding(Format.BINARY, false);
+        byte[] bytes = encoding.write(new HistoryRecord(source, position, "db", ddl));
+        assertThat(bytes[0]).isEqualTo((byte) '{');
+        assertThat(encoding.read(bytes).position().getDocument("gtids").getString("server1")).isEqualTo("1-100");
+    }
+
+    protected void assertRecord(HistoryRecord read) {
+        assertThat(read.source().getString("server")).isEqualTo("my-server");
+        assertThat(read.position().getString("file")).isEqualTo("mysql-bin.000003");
+        assertThat(read.position().getLong("pos")).isEqualTo(1234567890123L);
+        assertThat(read.position().getInteger("row")).isEqualTo(2);
+        assertThat(read.position().getBoolean("snapshot")).isTrue();
+        assertThat(read.databaseName()).isEqualTo("db");
+        assertThat(read.ddl()).isEqualTo(ddl);
+        assertThat(read.isSnapshot()).isFalse();
+        assertThat(read.isAtOrBefore(new HistoryRecord(source, position, null, null))).isTrue();
+    }
+}
@@ -151,6 +151,73 @@ public void shouldStartWithEmptyTopicAndStoreDataAndRecoverAllState() throws Exc
         assertThat(recoveredTables).isEqualTo(tables3);
     }
 
+    @Test
+    public void shouldStorePipelinedRecordsBeforeFlushReturns() throws Exception {
+        kafka.createTopic(topicName, 1, 1);
+        config = Configuration.create()
+                              .with(KafkaDatabaseHistory.BOOTSTRAP_SERVERS, kafka.brokerList())
+                              .with(KafkaDatabaseHistory.TOPIC, topicName)
+                              .with(KafkaDatabaseHistory.PIPELINED_WRITES, true)
+                              .build();
+        history.configure(config);
+        history.start();
+
+        DdlParser ddlParser = new DdlParserSql2003();
+        ddlParser.setCurrentSchema("db1");
+        Tables tables = new Tables();
+        for (int i = 0; i != 200; ++i) {
+            setLogPosition(10 * (i + 1));
+            ddl = "CREATE TABLE t" + i + " ( id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(100) NOT NULL );";
+            history.record(source, position, "db1", tables, ddl);
+            ddlParser.parse(ddl, tables);
+        }
+        history.flush();
+
+        // Recover with another history while the first is still running, so nothing is flushed upon stopping ...
+        KafkaDatabaseHistory recovering = new KafkaDatabaseHistory();
+        recovering.configure(config);
+        Tables recoveredTables = new Tables();
+        setLogPosition(100000010);
+        recovering.recover(source, position, recoveredTables, new DdlParserSql2003());
+        assertThat(recoveredTables.size()).isEqualTo(200);
+        assertThat(recoveredTables).isEqualTo(tables);
+    }
+
+    @Test
+    public void shouldStopRecoveringAtEndOfTopicWithoutWaiting() throws Exception {
+        kafka.createTopic(topicName, 1, 1);
+        config = Configuration.create()
+                              .with(KafkaDatabaseHistory.BOOTSTRAP_SERVERS, kafka.brokerList())
+                              .with(KafkaDatabaseHistory.TOPIC, topicName)
+                              .with(KafkaDatabaseHistory.RECOVERY_POLL_INTERVAL_MS, 1000)
+                              .with(KafkaDatabaseHistory.RECOVERY_POLL_ATTEMPTS, 30)
+                              .build();
+        history.configure(config);
+        history.start();
+
+        // Recovering an empty topic should not wait for any data ...
+        setLogPosition(0);
+        history.recover(source, position, new Tables(), new DdlParserSql2003());
+        assertThat(history.recoveredRecords()).isEqualTo(0);
+        assertThat(history.recoveryMillis()).isLessThan(10000);
+
+        setLogPosition(10);
+        ddl = "CREATE TABLE foo ( name VARCHAR(255) NOT NULL PRIMARY KEY);";
+        history.record(source, position, "db1", new Tables(), ddl);
+        setLogPosition(20);
+        ddl = "CREATE TABLE bar ( name VARCHAR(255) NOT NULL PRIMARY KEY);";
+        history.record(source, position, "db1", new Tables(), ddl);
+
+        // Recovery should read exactly the records in the topic, and then stop ...
+        KafkaDatabaseHistory recovering = new KafkaDatabaseHistory();
+        recovering.configure(config);
+        Tables recoveredTables = new Tables();
+        recovering.recover(source, position, recoveredTables, new DdlParserSql2003());
+        assertThat(recoveredTables.size()).isEqualTo(2);
+        assertThat(recovering.recoveredRecords()).isEqualTo(2);
+        assertThat(recovering.recoveryMillis()).isLessThan(10000);
+    }
+
     protected void setLogPosition(int index) {
         this.position = Collect.hashMapOf("filename", "my-txn-file.log",
                                           "position", index);
@@ -5,6 +5,15 @@
  */
 package io.debezium.relational.history;
 
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import io.debezium.config.Configuration;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.relational.ddl.DdlParserSql2003;
+
 /**
  * @author Randall Hauch
  */
@@ -14,4 +23,44 @@ public class MemoryDatabaseHistoryTest extends AbstractDatabaseHistoryTest {
     protected DatabaseHistory createHistory() {
         return new MemoryDatabaseHistory();
     }
+
+    @Override
+    protected DatabaseHistory createHistory(int snapshotInterval) {
+        DatabaseHistory history = new MemoryDatabaseHistory();
+        history.configure(Configuration.create()
+                                       .with(AbstractDatabaseHistory.SNAPSHOT_INTERVAL, snapshotInterval)
+                                       .build());
+        return history;
+    }
+
+    @Test
+    public void shouldRecoverConcurrentlyTheSameSchemaAsSerially() {
+        DatabaseHistory concurrent = new MemoryDatabaseHistory();
+        concurrent.configure(Configuration.create()
+                                          .with(AbstractDatabaseHistory.RECOVERY_THREADS, 4)
+                                          .build());
+        long pos = 0;
+        for (int i = 0; i != 40; ++i) {
+            String databaseName = "db" + (i % 4);
+            String ddl = "CREATE TABLE t" + i + " ( id INTEGER NOT NULL, price DECIMAL(5,2) DEFAULT 1.50 );";
+            if (i % 10 == 9) {
+                // This refers to a table in another database, so it is applied on its own ...
+                ddl = "CREATE TABLE db0.t" + i + " ( id INTEGER NOT NULL );";
+            } else if (i % 7 == 6) {
+                ddl = "ALTER TABLE t" + (i - 4) + " ADD name VARCHAR(22) NOT NULL;";
+            } else if (i % 5 == 3 && i > 8) {
+                ddl = "DROP TABLE t" + (i - 8) + ";";
+            }
+            for (DatabaseHistory history : new DatabaseHistory[] { history, concurrent }) {
+                history.record(source1, position("a.log", ++pos, 0), databaseName, tables, ddl);
+            }
+        }
+        Tables serialResult = recover(1000, 0);
+        Tables concurrentResult = new Tables();
+        concurrent.recover(source1, position("a.log", 1000, 0), concurrentResult, DdlParserSql2003::new,
+                           HistoryRecordComparator.INSTANCE);
+        assertThat(concurrentResult).isEqualTo(serialResult);
+        assertThat(concurrentResult.forTable(new TableId("db0", null, "t9"))).isNotNull();
+        assertThat(concurrentResult.forTable(new TableId("db1", null, "t1")).columnNames()).containsExactly("id", "price");
+    }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ */
+public class ParallelReplayTest {
+
+    @Test
+    public void shouldDetectQualifiedNames() {
+        assertThat(ParallelReplay.containsQualifiedName("ALTER TABLE other.customers ADD c INT")).isTrue();
+        assertThat(ParallelReplay.containsQualifiedName("RENAME TABLE a TO `b`.`c`")).isTrue();
+        assertThat(ParallelReplay.containsQualifiedName("CREATE TABLE t LIKE db1.t2")).isTrue();
+        assertThat(ParallelReplay.containsQualifiedName("CREATE TABLE t (a INT DEFAULT .5)")).isTrue();
+    }
+
+    @Test
+    public void shouldIgnoreDecimalsAndQuotedLiterals() {
+        assertThat(ParallelReplay.containsQualifiedName("CREATE TABLE t (a DECIMAL(5,2) DEFAULT 1.50)")).isFalse();
+        assertThat(ParallelReplay.containsQualifiedName("CREATE TABLE t (a VARCHAR(9) DEFAULT 'x.y', b INT COMMENT \"p.q\")")).isFalse();
+        assertThat(ParallelReplay.containsQualifiedName("CREATE TABLE t (a VARCHAR(9) DEFAULT 'it\\'s.', b INT)")).isFalse();
+        assertThat(ParallelReplay.containsQualifiedName("DROP TABLE t1, t2")).isFalse();
+    }
+
+    @Test
+    public void shouldOnlyConfineRecordsWithDatabaseName() {
+        assertThat(ParallelReplay.isConfinedToDatabase(new HistoryRecord(null, null, "db", "DROP TABLE t"))).isTrue();
+        assertThat(ParallelReplay.isConfinedToDatabase(new HistoryRecord(null, null, null, "DROP TABLE t"))).isFalse();
+        assertThat(ParallelReplay.isConfinedToDatabase(new HistoryRecord(null, null, "db", "DROP TABLE a.t"))).isFalse();
+    }
+}
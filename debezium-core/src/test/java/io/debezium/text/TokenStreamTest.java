@@ -482,4 +482,35 @@ public void shouldParseMultiLineString() {
         assertThat(tokens.nextPosition().column()).isEqualTo(7);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldMatchTypesOfCurrentAndFollowingTokens() {
+        content = "Select 'all' columns , .";
+        makeCaseInsensitive();
+        assertThat(tokens.matches(WORD, SINGLE_QUOTED_STRING, WORD, SYMBOL, DECIMAL)).isTrue();
+        assertThat(tokens.matches(new int[] { WORD, SINGLE_QUOTED_STRING, WORD })).isTrue();
+        assertThat(tokens.matches(new int[] { WORD, WORD })).isFalse();
+        assertThat(tokens.matches(WORD, SINGLE_QUOTED_STRING, WORD, SYMBOL, DECIMAL, WORD)).isFalse();
+    }
+
+    @Test
+    public void shouldConsumeFollowingTokensOnlyIfAllMatch() {
+        makeCaseInsensitive();
+        assertThat(tokens.canConsume("SELECT", "ALL", "ROWS")).isFalse();
+        assertThat(tokens.canConsume(Arrays.asList("SELECT", "ALL", "COLUMNS", "FROM", "THIS", "TABLE", "NOW"))).isFalse();
+        assertThat(tokens.canConsume("SELECT", TokenStream.ANY_VALUE, "COLUMNS")).isTrue();
+        assertThat(tokens.canConsume(new String[] { "FROM", "THIS", "TABLE" })).isTrue();
+        assertThat(tokens.hasNext()).isFalse();
+    }
+
+    @Test
+    public void shouldMatchCaseInsensitiveTokensWithoutChangingTheirValues() {
+        content = "sElEcT fooBar";
+        makeCaseInsensitive();
+        assertThat(tokens.matches("SELECT", "FOOBAR")).isTrue();
+        assertThat(tokens.matches("SELECT", "FOOBA")).isFalse();
+        assertThat(tokens.consume()).isEqualTo("sElEcT");
+        assertThat(tokens.matches("fooBar")).isFalse();
+        assertThat(tokens.consume()).isEqualTo("fooBar");
+    }
+}
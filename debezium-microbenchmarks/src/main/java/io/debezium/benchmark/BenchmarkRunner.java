@@ -0,0 +1,65 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * The main class of the benchmarks JAR file, which accepts all of the JMH command line options but by default also runs the
+ * {@code gc} profiler, so that the normalized allocation rate of each benchmark is reported, and writes the results in JSON
+ * format to {@value #DEFAULT_RESULT_FILE} so that they can be {@link CompareResults compared} with those of another run.
+ * 
+ * @author Randall Hauch
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The name of the file to which the results are written when no result file is specified.
+     */
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Run the benchmarks.
+     * 
+     * @param args the JMH command line options
+     * @throws RunnerException if the benchmarks could not be run
+     * @throws IOException if the command line options could not be processed
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!isInformational(options)) {
+            if (!options.contains("-prof")) {
+                options.add("-prof");
+                options.add("gc");
+            }
+            if (!options.contains("-rf")) {
+                if (!options.contains("-rff")) {
+                    options.add("-rff");
+                    options.add(DEFAULT_RESULT_FILE);
+                }
+                options.add("-rf");
+                options.add("json");
+            }
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[options.size()]));
+    }
+
+    private static boolean isInformational(List<String> options) {
+        for (String option : options) {
+            // Help, and the lists of benchmarks, profilers and result formats ...
+            if (option.equals("-h") || option.startsWith("-l")) return true;
+        }
+        return false;
+    }
+
+    private BenchmarkRunner() {
+    }
+}
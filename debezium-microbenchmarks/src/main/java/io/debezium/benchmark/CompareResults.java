@@ -0,0 +1,118 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.debezium.document.Array;
+import io.debezium.document.ArrayReader;
+import io.debezium.document.Document;
+
+/**
+ * Compares the JSON results of two benchmark runs, such as those written by the {@link BenchmarkRunner} before and after a
+ * change. For each benchmark and combination of parameters that appears in both runs, this prints the score of each run and the
+ * relative change, and likewise for the normalized allocation rate (in bytes per operation) reported by the {@code gc} profiler.
+ * <p>
+ * Usage: {@code CompareResults <baseline.json> <candidate.json>}
+ * 
+ * @author Randall Hauch
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION_METRIC_SUFFIX = "gc.alloc.rate.norm";
+
+    /**
+     * Compare the results in two files.
+     * 
+     * @param args the names of the baseline and candidate result files
+     * @throws IOException if either file could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            // CHECKSTYLE:OFF
+            System.err.println("Usage: " + CompareResults.class.getName() + " <baseline.json> <candidate.json>");
+            // CHECKSTYLE:ON
+            System.exit(1);
+        }
+        Map<String, Document> baseline = read(new File(args[0]));
+        Map<String, Document> candidate = read(new File(args[1]));
+        // CHECKSTYLE:OFF
+        print(baseline, candidate, System.out);
+        // CHECKSTYLE:ON
+    }
+
+    /**
+     * Print the comparison of the results of two runs.
+     * 
+     * @param baseline the results of the baseline run keyed by benchmark and parameters; may not be null
+     * @param candidate the results of the candidate run keyed by benchmark and parameters; may not be null
+     * @param out the stream to which the comparison is printed; may not be null
+     */
+    public static void print(Map<String, Document> baseline, Map<String, Document> candidate, PrintStream out) {
+        out.println(String.format("%-90s %14s %14s %9s %14s %14s %9s", "Benchmark", "Baseline", "Candidate", "Change",
+                                  "Baseline B/op", "Candidate B/op", "Change"));
+        baseline.forEach((key, before) -> {
+            Document after = candidate.get(key);
+            if (after == null) return;
+            double scoreBefore = score(before.getDocument("primaryMetric"));
+            double scoreAfter = score(after.getDocument("primaryMetric"));
+            double allocBefore = score(allocation(before));
+            double allocAfter = score(allocation(after));
+            out.println(String.format("%-90s %14.3f %14.3f %8.1f%% %14.1f %14.1f %8.1f%%", key, scoreBefore, scoreAfter,
+                                      change(scoreBefore, scoreAfter), allocBefore, allocAfter, change(allocBefore, allocAfter)));
+        });
+        candidate.keySet().stream().filter(key -> !baseline.containsKey(key)).forEach(key -> out.println(key + " (new)"));
+    }
+
+    /**
+     * Read the results in the given JMH result file, which must be in JSON format.
+     * 
+     * @param file the result file; may not be null
+     * @return the results keyed by benchmark and parameters, in the order in which they appear in the file; never null
+     * @throws IOException if the file could not be read
+     */
+    public static Map<String, Document> read(File file) throws IOException {
+        Map<String, Document> results = new LinkedHashMap<>();
+        Array array = ArrayReader.defaultReader().readArray(file);
+        for (Array.Entry entry : array) {
+            Document result = entry.getValue().asDocument();
+            StringBuilder key = new StringBuilder(result.getString("benchmark"));
+            Document params = result.getDocument("params");
+            if (params != null) {
+                params.forEach(param -> key.append(' ').append(param.getName()).append('=').append(param.getValue().asString()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static Document allocation(Document result) {
+        Document metrics = result.getDocument("secondaryMetrics");
+        if (metrics != null) {
+            for (Document.Field metric : metrics) {
+                if (metric.getName().toString().endsWith(ALLOCATION_METRIC_SUFFIX)) return metric.getValue().asDocument();
+            }
+        }
+        return null;
+    }
+
+    private static double score(Document metric) {
+        if (metric == null) return Double.NaN;
+        Number score = metric.getNumber("score");
+        return score != null ? score.doubleValue() : Double.NaN;
+    }
+
+    private static double change(double before, double after) {
+        return before != 0.0d ? 100.0d * (after - before) / before : Double.NaN;
+    }
+
+    private CompareResults() {
+    }
+}
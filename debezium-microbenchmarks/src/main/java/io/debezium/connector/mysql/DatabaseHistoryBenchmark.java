@@ -0,0 +1,103 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.config.Configuration;
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.AbstractDatabaseHistory;
+import io.debezium.relational.history.HistoryRecord;
+import io.debezium.relational.history.HistoryRecordComparator;
+import io.debezium.relational.history.MemoryDatabaseHistory;
+
+/**
+ * Measures the recovery of the schema from a long database history of several databases, each with many tables that are
+ * repeatedly altered, and the comparison of each recorded position with the point in history to which the schema is recovered.
+ * The largest history size is that of a server whose tables have been altered for years, where recovery takes the longest.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DatabaseHistoryBenchmark {
+
+    private static final int DATABASES = 8;
+    private static final int TABLES_PER_DATABASE = 50;
+
+    @Param({ "1", "4" })
+    private int recoveryThreads;
+
+    @Param({ "0", "10000" })
+    private int snapshotInterval;
+
+    @Param({ "50000", "500000" })
+    private int historySize;
+
+    @Param({ "document", "binlog" })
+    private String comparator;
+
+    private MemoryDatabaseHistory history;
+    private HistoryRecordComparator recordComparator;
+    private Map<String, ?> lastPosition;
+    private final List<HistoryRecord> records = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        history = new MemoryDatabaseHistory();
+        history.configure(Configuration.create()
+                                       .with(AbstractDatabaseHistory.RECOVERY_THREADS, recoveryThreads)
+                                       .with(AbstractDatabaseHistory.SNAPSHOT_INTERVAL, snapshotInterval)
+                                       .build());
+        history.start();
+        // Each of the tables is created and then altered enough times for the history to have about the given size ...
+        int tables = DATABASES * TABLES_PER_DATABASE;
+        int altersPerTable = Math.max(1, (historySize - DATABASES - tables) / tables);
+        lastPosition = MySqlSchemaGenerator.recordHistory(history, DATABASES, TABLES_PER_DATABASE, altersPerTable, 20);
+        recordComparator = "binlog".equals(comparator) ? BinlogHistoryRecordComparator.INSTANCE : HistoryRecordComparator.INSTANCE;
+        for (int i = 0; i != historySize; ++i) {
+            records.add(new HistoryRecord(MySqlSchemaGenerator.source(), MySqlSchemaGenerator.position(i), "db", "DROP TABLE t;"));
+        }
+    }
+
+    @Benchmark
+    public Tables recover() {
+        Tables tables = new Tables();
+        history.recover(MySqlSchemaGenerator.source(), lastPosition, tables, MySqlDdlParser::new, recordComparator);
+        return tables;
+    }
+
+    @Benchmark
+    public int compareRecords() {
+        Predicate<HistoryRecord> atOrBefore = recordComparator.atOrBefore(MySqlSchemaGenerator.source(),
+                                                                          MySqlSchemaGenerator.position(records.size() / 2));
+        int count = 0;
+        for (HistoryRecord record : records) {
+            if (atOrBefore.test(record)) ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.QueryEventData;
+
+/**
+ * Measures the handoff of binlog events through an {@link EventQueue} from the thread that reads the binlog to the thread that
+ * polls for events. The producer adds bursts of events separated by pauses, so that an idle workload adds one event at a time
+ * and a bursty one adds many events at once, while the consumer drains batches with the given linger time. The sampled time of
+ * the {@code drain} method is how long the consumer waits for each batch.
+ *
+ * @author Randall Hauch
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class EventQueueBenchmark {
+
+    private static final int MAX_EVENTS = 10000;
+
+    @Param({ "1", "500" })
+    private int eventsPerBurst;
+
+    @Param({ "0", "1" })
+    private long pauseInMillis;
+
+    @Param({ "0", "5" })
+    private long lingerInMillis;
+
+    private final List<Event> drained = new ArrayList<>();
+    private EventQueue queue;
+    private Event event;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = new EventQueue(MAX_EVENTS, 0, null, "benchmark");
+        EventHeaderV4 header = new EventHeaderV4();
+        header.setEventType(EventType.QUERY);
+        header.setEventLength(100);
+        QueryEventData data = new QueryEventData();
+        data.setSql("BEGIN");
+        event = new Event(header, data);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        queue.close();
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public void produce() throws InterruptedException {
+        if (pauseInMillis > 0) Thread.sleep(pauseInMillis);
+        // Never block when the queue is full, since the consumer may have already finished the iteration ...
+        if (queue.size() + eventsPerBurst > MAX_EVENTS) return;
+        for (int i = 0; i != eventsPerBurst; ++i) {
+            queue.put(event);
+        }
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public int drain() throws InterruptedException {
+        drained.clear();
+        return queue.drainTo(drained, 1024, 100, lingerInMillis, TimeUnit.MILLISECONDS);
+    }
+}
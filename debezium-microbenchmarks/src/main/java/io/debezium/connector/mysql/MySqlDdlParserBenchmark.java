@@ -0,0 +1,92 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.relational.Tables;
+
+/**
+ * Measures the parsing of a large MySQL schema dump by the {@link MySqlDdlParser}, and of statements that are repeated
+ * against existing tables (e.g., {@code CREATE TABLE IF NOT EXISTS ...} upon each start of an application). The statements of
+ * excluded tables can optionally be skimmed, and the effects of repeated statements can optionally be cached.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MySqlDdlParserBenchmark {
+
+    @Param({ "100", "1000" })
+    private int tables;
+
+    @Param({ "0", "1000" })
+    private int parseCacheSize;
+
+    @Param({ "false", "true" })
+    private boolean skimExcludedTables;
+
+    private MySqlDdlParser parser;
+    private String dump;
+    private List<String> repeated;
+    private Tables existing;
+
+    @Setup
+    public void setup() {
+        int databases = Math.max(1, tables / 100);
+        dump = MySqlSchemaGenerator.schemaDump(databases, tables / databases, 30);
+        repeated = new ArrayList<>();
+        for (int db = 0; db != databases; ++db) {
+            for (int table = 0; table != tables / databases; ++table) {
+                String ddl = MySqlSchemaGenerator.createTable(MySqlSchemaGenerator.databaseName(db),
+                                                              MySqlSchemaGenerator.tableName(table), 30);
+                repeated.add(ddl.replace("CREATE TABLE", "CREATE TABLE IF NOT EXISTS"));
+            }
+        }
+        parser = new MySqlDdlParser();
+        parser.setParseCacheSize(parseCacheSize);
+        if (skimExcludedTables) {
+            // Capture only one in ten tables ...
+            parser.setTableFilter((id) -> id.table().endsWith("0"));
+        }
+        existing = new Tables();
+        parser.parse(dump, existing);
+    }
+
+    @Benchmark
+    public Tables parseSchemaDump() {
+        Tables result = new Tables();
+        parser.parse(dump, result);
+        return result;
+    }
+
+    @Benchmark
+    public Tables parseRepeatedStatements() {
+        // Each statement is parsed separately as it is in the binlog, and finds its existing table ...
+        for (String ddl : repeated) {
+            parser.parse(ddl, existing);
+        }
+        return existing;
+    }
+}
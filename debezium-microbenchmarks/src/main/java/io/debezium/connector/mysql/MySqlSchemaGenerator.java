@@ -0,0 +1,294 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.debezium.annotation.Immutable;
+import io.debezium.relational.Column;
+import io.debezium.relational.Table;
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.DatabaseHistory;
+import io.debezium.util.Collect;
+
+/**
+ * Generates the realistic MySQL DDL statements, binlog rows, and database histories that are used as the inputs of the
+ * benchmarks. Everything is generated deterministically, so the results of separate runs can be compared.
+ * 
+ * @author Randall Hauch
+ */
+@Immutable
+public final class MySqlSchemaGenerator {
+
+    /**
+     * The name of the server in the source of all generated history records.
+     */
+    public static final String SERVER_NAME = "benchmark";
+
+    /**
+     * The definitions of columns of each of the MySQL data types understood by the {@link MySqlDdlParser}.
+     */
+    public static final List<String> COLUMN_TYPES = Collections.unmodifiableList(Collect.arrayListOf(
+            "BIT(1)",
+            "TINYINT(4)",
+            "SMALLINT(6) UNSIGNED",
+            "MEDIUMINT(9)",
+            "INT(11) UNSIGNED ZEROFILL",
+            "INTEGER",
+            "BIGINT(20) SIGNED",
+            "REAL(10,2)",
+            "DOUBLE(16,4) UNSIGNED",
+            "FLOAT(7,3)",
+            "DECIMAL(10,2)",
+            "NUMERIC(12,4) UNSIGNED",
+            "BOOLEAN",
+            "BOOL",
+            "DATE",
+            "TIME(3)",
+            "TIMESTAMP(6)",
+            "DATETIME",
+            "YEAR(4)",
+            "CHAR(10) CHARACTER SET latin1",
+            "VARCHAR(255) CHARACTER SET utf8 COLLATE utf8_bin",
+            "CHAR(8) BINARY",
+            "VARCHAR(32) BINARY CHARSET utf8",
+            "BINARY(16)",
+            "VARBINARY(64)",
+            "TINYBLOB",
+            "BLOB",
+            "MEDIUMBLOB",
+            "LONGBLOB",
+            "TINYTEXT",
+            "TEXT CHARSET utf8",
+            "MEDIUMTEXT BINARY",
+            "LONGTEXT COLLATE utf8_general_ci",
+            "ENUM('small','medium','large') CHARACTER SET utf8",
+            "SET('red','green','blue')",
+            "JSON"));
+
+    /**
+     * Get the name of the generated database with the given number.
+     * 
+     * @param database the number of the database
+     * @return the database name; never null
+     */
+    public static String databaseName(int database) {
+        return "db" + database;
+    }
+
+    /**
+     * Get the name of the generated table with the given number.
+     * 
+     * @param table the number of the table
+     * @return the table name; never null
+     */
+    public static String tableName(int table) {
+        return "table" + table;
+    }
+
+    /**
+     * Generate a {@code CREATE TABLE} statement for a table with an auto-incremented primary key and the given number of other
+     * columns, which cycle through all of the {@link #COLUMN_TYPES column types}.
+     * 
+     * @param databaseName the name of the database used to qualify the table name; may be null if the name is not qualified
+     * @param tableName the name of the table; may not be null
+     * @param width the number of columns in addition to the primary key
+     * @return the DDL statement, including the terminating semicolon; never null
+     */
+    public static String createTable(String databaseName, String tableName, int width) {
+        StringBuilder sb = new StringBuilder("CREATE TABLE ");
+        if (databaseName != null) sb.append('`').append(databaseName).append("`.");
+        sb.append('`').append(tableName).append("` (\n");
+        sb.append("  `id` BIGINT(20) UNSIGNED NOT NULL AUTO_INCREMENT,\n");
+        for (int i = 0; i != width; ++i) {
+            String type = COLUMN_TYPES.get(i % COLUMN_TYPES.size());
+            sb.append("  `c").append(i).append("` ").append(type);
+            if (type.equals("JSON")) {
+                sb.append(" DEFAULT NULL");
+            } else if (i % 3 == 0) {
+                sb.append(" NOT NULL");
+            } else {
+                sb.append(" DEFAULT NULL COMMENT 'column ").append(i).append('\'');
+            }
+            sb.append(",\n");
+        }
+        sb.append("  PRIMARY KEY (`id`)");
+        if (width > 0) sb.append(",\n  KEY `idx_").append(tableName).append("_c0` (`c0`)");
+        sb.append("\n) ENGINE=InnoDB AUTO_INCREMENT=1001 DEFAULT CHARSET=utf8;\n");
+        return sb.toString();
+    }
+
+    /**
+     * Generate the DDL statements of a schema dump, such as those produced by {@code mysqldump --no-data}, that creates the
+     * given number of databases and tables.
+     * 
+     * @param databases the number of databases
+     * @param tablesPerDatabase the number of tables in each database
+     * @param width the number of columns in each table in addition to the primary key
+     * @return the DDL statements; never null
+     */
+    public static String schemaDump(int databases, int tablesPerDatabase, int width) {
+        StringBuilder sb = new StringBuilder();
+        for (int db = 0; db != databases; ++db) {
+            String databaseName = databaseName(db);
+            sb.append("--\n-- Current Database: `").append(databaseName).append("`\n--\n\n");
+            sb.append("CREATE DATABASE IF NOT EXISTS `").append(databaseName).append("`;\n\n");
+            for (int table = 0; table != tablesPerDatabase; ++table) {
+                String tableName = tableName(table);
+                sb.append("DROP TABLE IF EXISTS `").append(databaseName).append("`.`").append(tableName).append("`;\n");
+                sb.append(createTable(databaseName, tableName, width)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generate the values of a row in the given table, as they are deserialized from the binlog.
+     * 
+     * @param table the table definition; may not be null
+     * @param rowNumber the number of the row, which determines the generated values
+     * @return the values of the row's columns; never null
+     */
+    public static Serializable[] row(Table table, int rowNumber) {
+        List<Column> columns = table.columns();
+        Serializable[] row = new Serializable[columns.size()];
+        for (int i = 0; i != row.length; ++i) {
+            row[i] = value(columns.get(i), rowNumber + i);
+        }
+        return row;
+    }
+
+    /**
+     * Generate a value of the given column, of the type deserialized from the binlog for the column's JDBC type.
+     * 
+     * @param column the column definition; may not be null
+     * @param seed the number that determines the generated value
+     * @return the value; may be null if the column is optional and its values are not converted
+     */
+    public static Serializable value(Column column, int seed) {
+        switch (column.jdbcType()) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return seed % 2 == 0;
+            case Types.INTEGER:
+                return seed;
+            case Types.BIGINT:
+                return 1000000000L + seed;
+            case Types.REAL:
+                return seed + 0.25f;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return seed + 0.125d;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return BigDecimal.valueOf(seed * 100L + 99L, 2);
+            case Types.DATE:
+                return new java.sql.Date(1456790400000L + seed * 86400000L);
+            case Types.TIME:
+                return new java.sql.Time(seed * 1000L % 86400000L);
+            case Types.TIMESTAMP:
+                return new java.sql.Timestamp(1456790400000L + seed * 1000L);
+            case Types.BLOB:
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return ("binary value " + seed).getBytes(StandardCharsets.UTF_8);
+            case Types.CHAR:
+            case Types.VARCHAR:
+                return "value " + seed + " of " + column.name();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Record in the given history the DDL statements that create the given number of databases and tables, and that then
+     * repeatedly alter each table by adding, modifying, and dropping a column, so that the tables do not keep growing wider in
+     * long histories. The records for the databases are interleaved, as they are in the binlog of a server that hosts several
+     * applications, and the binlog file is rotated every 1000 records.
+     * 
+     * @param history the history; may not be null
+     * @param databases the number of databases
+     * @param tablesPerDatabase the number of tables in each database
+     * @param altersPerTable the number of times that each table is altered after it is created
+     * @param width the number of columns in each table in addition to the primary key
+     * @return the position of the last record; never null
+     */
+    public static Map<String, ?> recordHistory(DatabaseHistory history, int databases, int tablesPerDatabase, int altersPerTable,
+                                               int width) {
+        MySqlDdlParser parser = new MySqlDdlParser();
+        Tables schema = new Tables();
+        List<String[]> statements = new ArrayList<>();
+        for (int db = 0; db != databases; ++db) {
+            statements.add(new String[] { databaseName(db), "CREATE DATABASE `" + databaseName(db) + "`;" });
+        }
+        for (int table = 0; table != tablesPerDatabase; ++table) {
+            for (int db = 0; db != databases; ++db) {
+                statements.add(new String[] { databaseName(db), createTable(null, tableName(table), width) });
+            }
+        }
+        for (int alter = 0; alter != altersPerTable; ++alter) {
+            for (int table = 0; table != tablesPerDatabase; ++table) {
+                for (int db = 0; db != databases; ++db) {
+                    String ddl;
+                    switch (alter % 3) {
+                        case 0:
+                            ddl = "ALTER TABLE `" + tableName(table) + "` ADD COLUMN `added` VARCHAR(64) DEFAULT NULL;";
+                            break;
+                        case 1:
+                            ddl = "ALTER TABLE `" + tableName(table) + "` MODIFY COLUMN `added` VARCHAR(128) NOT NULL;";
+                            break;
+                        default:
+                            ddl = "ALTER TABLE `" + tableName(table) + "` DROP COLUMN `added`;";
+                    }
+                    statements.add(new String[] { databaseName(db), ddl });
+                }
+            }
+        }
+        Map<String, String> source = source();
+        Map<String, ?> position = null;
+        int recordNumber = 0;
+        for (String[] statement : statements) {
+            parser.setCurrentSchema(statement[0]);
+            parser.parse(statement[1], schema);
+            position = position(recordNumber++);
+            history.record(source, position, statement[0], schema, statement[1]);
+        }
+        return position;
+    }
+
+    /**
+     * Get the source of the generated history records.
+     * 
+     * @return the source; never null
+     */
+    public static Map<String, String> source() {
+        return Collect.hashMapOf(SourceInfo.SERVER_PARTITION_KEY, SERVER_NAME);
+    }
+
+    /**
+     * Get the binlog position of the generated history record with the given number.
+     * 
+     * @param recordNumber the number of the record
+     * @return the position; never null
+     */
+    public static Map<String, ?> position(int recordNumber) {
+        String filename = String.format("mysql-bin.%06d", 1 + recordNumber / 1000);
+        return Collect.hashMapOf(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, filename,
+                                 SourceInfo.BINLOG_POSITION_OFFSET_KEY, 4L + (recordNumber % 1000) * 512L,
+                                 SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, 0);
+    }
+
+    private MySqlSchemaGenerator() {
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright Debezium Authors.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.source.SourceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+
+import io.debezium.connector.mysql.MySqlConnectorTask.EventHandler;
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.MemoryDatabaseHistory;
+
+/**
+ * Measures the conversion of a batch of binlog row events into source records by the task's serial handler loop, and by a
+ * {@link RowConversionPipeline} with the given number of threads.
+ *
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RowConversionPipelineBenchmark {
+
+    private static final long TABLE_NUMBER = 42L;
+
+    @Param({ "2", "4" })
+    private int threads;
+
+    @Param({ "10", "100" })
+    private int width;
+
+    @Param({ "10", "500" })
+    private int rowsPerEvent;
+
+    private final List<Event> events = new ArrayList<>();
+    private final Map<EventType, EventHandler> handlers = new EnumMap<>(EventType.class);
+    private TableConverters converters;
+    private SourceInfo source;
+    private RowConversionPipeline pipeline;
+
+    @Setup
+    public void setup() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse(MySqlSchemaGenerator.createTable(null, "wide", width), tables);
+        Table table = tables.forTable(new TableId("db", null, "wide"));
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), false,
+                () -> 1000L, (dbName) -> true, tables, null, null, null);
+        converters.loadTables();
+        handlers.put(EventType.TABLE_MAP, converters::updateTableMetadata);
+        handlers.put(EventType.EXT_WRITE_ROWS, converters::handleInsert);
+        source = new SourceInfo();
+        source.setServerName(MySqlSchemaGenerator.SERVER_NAME);
+        source.setBinlogFilename("mysql-bin.000001");
+        pipeline = new RowConversionPipeline(converters, threads, MySqlSchemaGenerator.SERVER_NAME);
+
+        BitSet includedColumns = new BitSet();
+        includedColumns.set(0, table.columns().size());
+        for (int i = 0; i != 100; ++i) {
+            TableMapEventData tableMap = new TableMapEventData();
+            tableMap.setTableId(TABLE_NUMBER);
+            tableMap.setDatabase("db");
+            tableMap.setTable("wide");
+            events.add(event(EventType.TABLE_MAP, tableMap, i));
+            List<Serializable[]> rows = new ArrayList<>();
+            for (int row = 0; row != rowsPerEvent; ++row) {
+                rows.add(MySqlSchemaGenerator.row(table, i * rowsPerEvent + row));
+            }
+            WriteRowsEventData write = new WriteRowsEventData();
+            write.setTableId(TABLE_NUMBER);
+            write.setIncludedColumns(includedColumns);
+            write.setRows(rows);
+            events.add(event(EventType.EXT_WRITE_ROWS, write, i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Benchmark
+    public List<SourceRecord> convertSerially() {
+        List<SourceRecord> records = new ArrayList<>();
+        for (Event event : events) {
+            positionSourceAt(event);
+            handlers.get(event.getHeader().getEventType()).handle(event, source, records::add);
+        }
+        return records;
+    }
+
+    @Benchmark
+    public List<SourceRecord> convertConcurrently() throws InterruptedException {
+        for (Event event : events) {
+            positionSourceAt(event);
+            pipeline.submit(event, source, handlers.get(event.getHeader().getEventType()));
+        }
+        return pipeline.complete();
+    }
+
+    private void positionSourceAt(Event event) {
+        EventHeaderV4 header = event.getHeader();
+        source.setBinlogTimestamp(header.getTimestamp());
+        source.setBinlogServerId(header.getServerId());
+        source.setBinlogPosition(header.getNextPosition());
+        source.setRowInEvent(0);
+    }
+
+    private static Event event(EventType type, EventData data, int eventNumber) {
+        EventHeaderV4 header = new EventHeaderV4();
+        header.setEventType(type);
+        header.setServerId(1);
+        header.setTimestamp(1000L + eventNumber);
+        header.setNextPosition(4L + eventNumber * 1000L);
+        return new Event(header, data);
+    }
+}
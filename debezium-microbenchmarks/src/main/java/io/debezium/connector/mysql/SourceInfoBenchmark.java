@@ -0,0 +1,106 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.debezium.util.Collect;
+
+/**
+ * Measures the cost of obtaining the partition, offset, and source {@link Struct} for every row of a binlog event, comparing
+ * the per-event representation cached by {@link SourceInfo} with building new maps and a new struct for every row as
+ * {@link SourceInfo} did before. Run with the {@code gc} profiler to compare the bytes allocated per event.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SourceInfoBenchmark {
+
+    @Param({ "1", "100", "1000" })
+    private int rowsPerEvent;
+
+    private SourceInfo source;
+    private long position;
+
+    @Setup
+    public void setup() {
+        source = new SourceInfo();
+        source.setServerName(MySqlSchemaGenerator.SERVER_NAME);
+        source.setBinlogFilename("mysql-bin.000001");
+        source.setBinlogServerId(1);
+        position = 4L;
+    }
+
+    @Benchmark
+    public void cachedPerEvent(Blackhole blackhole) {
+        nextEvent();
+        for (int row = 0; row != rowsPerEvent; ++row) {
+            blackhole.consume(source.partition());
+            blackhole.consume(source.offset(row));
+            blackhole.consume(source.struct());
+        }
+    }
+
+    @Benchmark
+    public void createdPerRow(Blackhole blackhole) {
+        nextEvent();
+        for (int row = 0; row != rowsPerEvent; ++row) {
+            source.setRowInEvent(row);
+            blackhole.consume(Collect.hashMapOf(SourceInfo.SERVER_PARTITION_KEY, source.serverName()));
+            blackhole.consume(offsetMap(source));
+            blackhole.consume(struct(source));
+        }
+    }
+
+    private void nextEvent() {
+        position += 512L;
+        source.setBinlogPosition(position);
+        source.setBinlogTimestamp(position);
+    }
+
+    /**
+     * Build the offset map in the same way as {@link SourceInfo#offset()} did before it cached the offset of each event.
+     */
+    private static Map<String, ?> offsetMap(SourceInfo source) {
+        return Collect.hashMapOf(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, source.binlogFilename(),
+                                 SourceInfo.BINLOG_POSITION_OFFSET_KEY, source.binlogPosition(),
+                                 SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, source.eventRowNumber());
+    }
+
+    /**
+     * Build the struct in the same way as {@link SourceInfo#struct()} did before it cached the struct of each row.
+     */
+    private static Struct struct(SourceInfo source) {
+        Struct result = new Struct(SourceInfo.SCHEMA);
+        result.put(SourceInfo.SERVER_NAME_KEY, source.serverName());
+        result.put(SourceInfo.SERVER_ID_KEY, 1L);
+        result.put(SourceInfo.BINLOG_FILENAME_OFFSET_KEY, source.binlogFilename());
+        result.put(SourceInfo.BINLOG_POSITION_OFFSET_KEY, source.binlogPosition());
+        result.put(SourceInfo.BINLOG_EVENT_ROW_NUMBER_OFFSET_KEY, source.eventRowNumber());
+        result.put(SourceInfo.BINLOG_EVENT_TIMESTAMP_KEY, source.binlogPosition());
+        return result;
+    }
+}
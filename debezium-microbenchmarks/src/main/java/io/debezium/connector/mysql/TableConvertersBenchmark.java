@@ -0,0 +1,133 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.connector.mysql;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+
+import io.debezium.relational.Table;
+import io.debezium.relational.TableId;
+import io.debezium.relational.Tables;
+import io.debezium.relational.history.MemoryDatabaseHistory;
+
+/**
+ * Measures the conversion of the rows in binlog WRITE_ROWS and UPDATE_ROWS events into source records by
+ * {@link TableConverters}, for tables that have columns of all MySQL types.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TableConvertersBenchmark {
+
+    private static final long TABLE_NUMBER = 42L;
+
+    @Param({ "10", "100" })
+    private int width;
+
+    @Param({ "1", "100" })
+    private int rowsPerEvent;
+
+    @Param({ "false", "true" })
+    private boolean specialized;
+
+    private TableConverters converters;
+    private SourceInfo source;
+    private Event insert;
+    private Event update;
+
+    @Setup
+    public void setup() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse(MySqlSchemaGenerator.createTable(null, "wide", width), tables);
+        Table table = tables.forTable(new TableId("db", null, "wide"));
+        converters = new TableConverters(TopicSelector.defaultSelector(), new MemoryDatabaseHistory(), false,
+                () -> 1000L, (dbName) -> true, tables, null, null, null, specialized ? (id) -> true : null, false);
+        converters.loadTables();
+        source = new SourceInfo();
+        source.setServerName(MySqlSchemaGenerator.SERVER_NAME);
+        source.setBinlogFilename("mysql-bin.000001");
+
+        TableMapEventData tableMap = new TableMapEventData();
+        tableMap.setTableId(TABLE_NUMBER);
+        tableMap.setDatabase("db");
+        tableMap.setTable("wide");
+        converters.updateTableMetadata(event(EventType.TABLE_MAP, tableMap), source, (record) -> {});
+
+        BitSet includedColumns = new BitSet();
+        includedColumns.set(0, table.columns().size());
+        List<Serializable[]> rows = new ArrayList<>();
+        List<Map.Entry<Serializable[], Serializable[]>> changedRows = new ArrayList<>();
+        for (int i = 0; i != rowsPerEvent; ++i) {
+            Serializable[] row = MySqlSchemaGenerator.row(table, i);
+            rows.add(row);
+            changedRows.add(new AbstractMap.SimpleImmutableEntry<>(row, MySqlSchemaGenerator.row(table, i + 1)));
+        }
+        WriteRowsEventData write = new WriteRowsEventData();
+        write.setTableId(TABLE_NUMBER);
+        write.setIncludedColumns(includedColumns);
+        write.setRows(rows);
+        insert = event(EventType.EXT_WRITE_ROWS, write);
+
+        UpdateRowsEventData changes = new UpdateRowsEventData();
+        changes.setTableId(TABLE_NUMBER);
+        changes.setIncludedColumnsBeforeUpdate(includedColumns);
+        changes.setIncludedColumns(includedColumns);
+        changes.setRows(changedRows);
+        update = event(EventType.EXT_UPDATE_ROWS, changes);
+    }
+
+    @Benchmark
+    public void insert(Blackhole blackhole) {
+        converters.handleInsert(insert, source, blackhole::consume);
+    }
+
+    @Benchmark
+    public void update(Blackhole blackhole) {
+        converters.handleUpdate(update, source, blackhole::consume);
+    }
+
+    private static Event event(EventType type, EventData data) {
+        EventHeaderV4 header = new EventHeaderV4();
+        header.setEventType(type);
+        header.setServerId(1);
+        header.setTimestamp(1000L);
+        header.setNextPosition(1000L);
+        return new Event(header, data);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.document;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.connector.mysql.MySqlSchemaGenerator;
+import io.debezium.relational.history.HistoryRecord;
+
+/**
+ * Measures the reading and writing of database history documents by the {@link JacksonReader} and {@link JacksonWriter}. Each
+ * document records a {@code CREATE TABLE} statement of a table with the given number of columns.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({ "10", "500" })
+    private int width;
+
+    private Document document;
+    private String json;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        String ddl = MySqlSchemaGenerator.createTable(null, "wide", width);
+        document = new HistoryRecord(MySqlSchemaGenerator.source(), MySqlSchemaGenerator.position(1), "db", ddl).document();
+        json = JacksonWriter.INSTANCE.write(document);
+        bytes = JacksonWriter.INSTANCE.writeAsBytes(document);
+    }
+
+    @Benchmark
+    public String write() throws IOException {
+        return JacksonWriter.INSTANCE.write(document);
+    }
+
+    @Benchmark
+    public byte[] writeAsBytes() {
+        return JacksonWriter.INSTANCE.writeAsBytes(document);
+    }
+
+    @Benchmark
+    public Document read() throws IOException {
+        return JacksonReader.INSTANCE.read(json);
+    }
+
+    @Benchmark
+    public Document readBytes() throws IOException {
+        return JacksonReader.INSTANCE.read(bytes);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.connector.mysql.MySqlDdlParser;
+import io.debezium.connector.mysql.MySqlSchemaGenerator;
+
+/**
+ * Measures the creation of {@link TableSchema}s by the {@link TableSchemaBuilder} and the conversion of rows into keys and
+ * values, for tables that have columns of all MySQL types.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TableSchemaBuilderBenchmark {
+
+    @Param({ "10", "100", "500" })
+    private int width;
+
+    @Param({ "false", "true" })
+    private boolean specialized;
+
+    private Table table;
+    private TableSchemaBuilder builder;
+    private TableSchema schema;
+    private Object[] row;
+
+    @Setup
+    public void setup() {
+        Tables tables = new Tables();
+        MySqlDdlParser parser = new MySqlDdlParser();
+        parser.setCurrentSchema("db");
+        parser.parse(MySqlSchemaGenerator.createTable(null, "wide", width), tables);
+        table = tables.forTable(new TableId("db", null, "wide"));
+        builder = new TableSchemaBuilder(specialized ? (id) -> true : null);
+        schema = builder.create(table);
+        row = MySqlSchemaGenerator.row(table, 1);
+    }
+
+    @Benchmark
+    public TableSchema createSchema() {
+        return builder.create(table);
+    }
+
+    @Benchmark
+    public TableSchema.KeyAndValue convertRow() {
+        return schema.keyAndValueFromColumnData(row);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.ddl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.debezium.connector.mysql.MySqlDdlParser;
+import io.debezium.connector.mysql.MySqlSchemaGenerator;
+import io.debezium.text.TokenStream;
+import io.debezium.text.TokenStream.Marker;
+
+/**
+ * Measures how the {@link DataTypeParser} registered by the {@link MySqlDdlParser} finds each of the MySQL data types, comparing
+ * the lookahead used to parse DDL statements with the backtracking that is used only when no data type matches.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DataTypeParserBenchmark {
+
+    private final DataTypeParser dataTypes = new DataTypeParser();
+    private final List<TokenStream> streams = new ArrayList<>();
+    private final List<Marker> starts = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        new MySqlDdlParser() {
+            {
+                initializeDataTypes(dataTypes);
+            }
+        };
+        for (String type : MySqlSchemaGenerator.COLUMN_TYPES) {
+            TokenStream stream = new TokenStream(type + " NOT NULL,", new DdlTokenizer(true), false).start();
+            streams.add(stream);
+            starts.add(stream.mark());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (int i = 0; i != streams.size(); ++i) {
+            TokenStream stream = streams.get(i);
+            stream.rewind(starts.get(i));
+            blackhole.consume(dataTypes.parse(stream, null));
+        }
+    }
+
+    @Benchmark
+    public void parseWithBacktracking(Blackhole blackhole) {
+        for (int i = 0; i != streams.size(); ++i) {
+            TokenStream stream = streams.get(i);
+            stream.rewind(starts.get(i));
+            blackhole.consume(dataTypes.parseWithBacktracking(stream, null));
+        }
+    }
+}
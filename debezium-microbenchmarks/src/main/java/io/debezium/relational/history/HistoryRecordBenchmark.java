@@ -0,0 +1,69 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.relational.history;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.debezium.connector.mysql.MySqlSchemaGenerator;
+
+/**
+ * Measures the encoding and decoding of {@link HistoryRecord}s in each of the {@link HistoryRecordEncoding.Format formats}.
+ * Each record contains a {@code CREATE TABLE} statement of a table with the given number of columns.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class HistoryRecordBenchmark {
+
+    @Param({ "10", "500" })
+    private int width;
+
+    @Param({ "JSON", "BINARY" })
+    private HistoryRecordEncoding.Format format;
+
+    @Param({ "false", "true" })
+    private boolean compressDdl;
+
+    private HistoryRecordEncoding encoding;
+    private HistoryRecord record;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        encoding = new HistoryRecordEncoding(format, compressDdl);
+        String ddl = MySqlSchemaGenerator.createTable(null, "wide", width);
+        record = new HistoryRecord(MySqlSchemaGenerator.source(), MySqlSchemaGenerator.position(1), "db", ddl);
+        encoded = encoding.write(record);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return encoding.write(record);
+    }
+
+    @Benchmark
+    public HistoryRecord read() throws IOException {
+        return encoding.read(encoded);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Debezium Authors.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.debezium.text;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.debezium.connector.mysql.MySqlSchemaGenerator;
+import io.debezium.relational.ddl.DdlTokenizer;
+
+/**
+ * Measures the tokenization of a MySQL schema dump by a {@link TokenStream} with the {@link DdlTokenizer}, and the cost of
+ * then reading and matching all of the tokens as a DDL parser does.
+ * 
+ * @author Randall Hauch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TokenStreamBenchmark {
+
+    @Param({ "10", "100" })
+    private int tables;
+
+    private String ddl;
+
+    @Setup
+    public void setup() {
+        ddl = MySqlSchemaGenerator.schemaDump(1, tables, 50);
+    }
+
+    @Benchmark
+    public TokenStream tokenize() {
+        return new TokenStream(ddl, new DdlTokenizer(true), false).start();
+    }
+
+    @Benchmark
+    public void tokenizeAndConsume(Blackhole blackhole) {
+        TokenStream stream = new TokenStream(ddl, new DdlTokenizer(true), false).start();
+        while (stream.hasNext()) {
+            blackhole.consume(stream.consume());
+        }
+    }
+
+    @Benchmark
+    public int tokenizeAndMatch() {
+        TokenStream stream = new TokenStream(ddl, new DdlTokenizer(true), false).start();
+        int matches = 0;
+        while (stream.hasNext()) {
+            if (stream.canConsume("CREATE", "TABLE") || stream.canConsume("NOT", "NULL") || stream.canConsume("DEFAULT")) {
+                ++matches;
+            } else if (stream.matchesAnyOf("UNSIGNED", "ZEROFILL", "CHARACTER")) {
+                ++matches;
+                stream.skip(1);
+            } else {
+                stream.skip(1);
+            }
+        }
+        return matches;
+    }
+}